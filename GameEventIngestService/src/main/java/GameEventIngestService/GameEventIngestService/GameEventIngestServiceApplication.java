@@ -2,9 +2,13 @@ package GameEventIngestService.GameEventIngestService;
 
 import GameEventIngestService.GameEventIngestService.config.GameEventConfig;
 import GameEventIngestService.GameEventIngestService.config.GameLogsConfig;
+import GameEventIngestService.GameEventIngestService.model.Roster;
+import GameEventIngestService.GameEventIngestService.service.GameLogFollowService;
+import GameEventIngestService.GameEventIngestService.service.GameLogGenerator;
+import GameEventIngestService.GameEventIngestService.service.GameLogIngestService;
 import GameEventIngestService.GameEventIngestService.service.GameLogReaderService;
+import GameEventIngestService.GameEventIngestService.service.IngestMetrics;
 import GameEventIngestService.GameEventIngestService.service.KafkaProducerService;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +17,19 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 @SpringBootApplication
 @EnableConfigurationProperties({GameLogsConfig.class, GameEventConfig.class})
 public class GameEventIngestServiceApplication implements CommandLineRunner {
@@ -22,12 +39,24 @@ public class GameEventIngestServiceApplication implements CommandLineRunner {
 	@Autowired
 	private GameLogReaderService gameLogReaderService;
 
+	@Autowired
+	private GameLogIngestService gameLogIngestService;
+
+	@Autowired
+	private GameLogFollowService gameLogFollowService;
+
 	@Autowired
 	private GameEventConfig gameEventConfig;
 
+	@Autowired
+	private GameLogsConfig gameLogsConfig;
+
 	@Autowired
 	private KafkaProducerService kafkaProducerService;
 
+	@Autowired
+	private IngestMetrics ingestMetrics;
+
 	public static void main(String[] args) {
 		SpringApplication.run(GameEventIngestServiceApplication.class, args);
 	}
@@ -35,56 +64,144 @@ public class GameEventIngestServiceApplication implements CommandLineRunner {
 	@Override
 	public void run(String... args) throws Exception {
 		log.info("Game Event Ingest Service Starting...");
-		log.info("Kafka topic: {}", gameEventConfig.getKafka().getTopic());
-		log.info("Reading game: {}", gameLogReaderService.getGameId());
-		log.info("Log file path: {}", gameLogReaderService.getLogFilePath());
-
-		try (var events = gameLogReaderService.streamGameEvents()) {
-			log.info("--- Reading Game Events Line by Line ---");
-			events.forEach(line -> {
-				// Here you can do any processing for each line
-				String[] cur_line=line.split(" ");
-				Integer curTime=parseTimestamp(cur_line[0]);
-				if (gameEventConfig.getLastTimestampSeconds() != null && curTime - gameEventConfig.getLastTimestampSeconds() > 0) {
-					log.info("There is a sleep event: {}", curTime - gameEventConfig.getLastTimestampSeconds());
-				}
-				// 02:57  Al Horford (42) foul
-				JSONObject event_json=getJson(cur_line);
-				log.info("EVENT: {}", event_json);
-				if (event_json != null) {
-					kafkaProducerService.sendMessage(gameEventConfig.getKafka().getTopic(), event_json.toString());
+		log.info("Kafka topic: {} ({} records)", gameEventConfig.getKafka().getTopic(), gameEventConfig.getKafka().getFormat());
+
+		long started = System.nanoTime();
+		try {
+			if (gameLogsConfig.getGenerateGames() > 0) {
+				generateGames();
+			} else if (gameLogsConfig.isBatch()) {
+				if (gameLogsConfig.isFollow()) {
+					log.warn("Follow mode applies to a single game; ingesting the directory once");
 				}
-				gameEventConfig.setLastTimestampSeconds(curTime);
-			});
-			log.info("--- Finished Reading All Game Events ---");
+				ingestDirectory();
+			} else if (gameLogsConfig.isFollow()) {
+				gameLogFollowService.follow(Paths.get(gameLogReaderService.getLogFilePath()), gameLogReaderService.getGameId());
+			} else {
+				log.info("Reading game: {}", gameLogReaderService.getGameId());
+				log.info("Log file path: {}", gameLogReaderService.getLogFilePath());
+				log.info("--- Reading Game Events Line by Line ---");
+				gameLogIngestService.ingest(Paths.get(gameLogReaderService.getLogFilePath()), gameLogReaderService.getGameId());
+				log.info("--- Finished Reading All Game Events ---");
+			}
+			if (!gameLogIngestService.awaitDatabase(gameEventConfig.getDatabase().getAwaitTimeoutMs())) {
+				log.warn("game_events was still being written after {} ms", gameEventConfig.getDatabase().getAwaitTimeoutMs());
+			}
+			if (!kafkaProducerService.flush(gameEventConfig.getKafka().getFlushTimeoutMs())) {
+				log.warn("{} events were still unacknowledged after {} ms",
+						kafkaProducerService.getInFlight(), gameEventConfig.getKafka().getFlushTimeoutMs());
+			}
 		} catch (Exception e) {
 			log.error("Error reading game log stream: {}", e.getMessage(), e);
 		}
+		logThroughput(started);
 	}
-	private JSONObject getJson(String[] cur_line){
-		JSONObject event_json = new JSONObject();
-		try{
-			event_json.put("firstname", cur_line[1]);
-			event_json.put("lastname", cur_line[2]);
-			event_json.put("player_number", cur_line[3]);
-			event_json.put("event_type", cur_line[4]);
-			event_json.put("timestamp", cur_line[0]);
-			return event_json;
-		} catch (Exception e) {
-			log.error("Failed to parse json from array: '{}'", (Object)cur_line, e);
-			return null;
+
+	/**
+	 * Ingests every log under the base path, several games at a time.
+	 */
+	private void ingestDirectory() throws Exception {
+		List<Path> logs = gameLogReaderService.discoverGameLogs();
+		List<String> gameIds = logs.stream().map(GameLogReaderService::gameIdOf).toList();
+		log.info("Ingesting {} game logs from {}", logs.size(), gameLogsConfig.getBasePath());
+		ingestGames(gameIds, game -> gameLogIngestService.ingest(logs.get(game), gameIds.get(game)));
+	}
+
+	/**
+	 * Generates synthetic games from the rosters. With an output directory they are
+	 * only written as logs, to be ingested like any other; otherwise each is
+	 * generated by the thread that ingests it, so only the games in progress are
+	 * held in memory.
+	 */
+	private void generateGames() throws Exception {
+		GameLogGenerator generator = new GameLogGenerator(Roster.loadDefault(), gameLogsConfig.getGenerateSeed());
+		int games = gameLogsConfig.getGenerateGames();
+		int events = gameLogsConfig.getGenerateEventsPerGame();
+		String outputDir = gameLogsConfig.getGenerateOutputDir();
+		if (outputDir != null && !outputDir.isBlank()) {
+			List<Path> written = generator.writeSeason(Paths.get(outputDir), games, events);
+			log.info("Wrote {} generated games of {} events each to {} (seed {})", written.size(), events, outputDir,
+					gameLogsConfig.getGenerateSeed());
+			return;
+		}
+		List<String> gameIds = new ArrayList<>(games);
+		for (int n = 1; n <= games; n++) {
+			gameIds.add(generator.gameId(n));
 		}
+		log.info("Ingesting {} generated games of {} events each (seed {})", games, events, gameLogsConfig.getGenerateSeed());
+		ingestGames(gameIds, game -> gameLogIngestService.ingest(gameIds.get(game),
+				ByteBuffer.wrap(generator.game(game + 1, events))));
 	}
 
-	private int parseTimestamp(String timeStr) {
+	/** Ingests one game of a batch, by its index in the batch. */
+	@FunctionalInterface
+	private interface GameIngest {
+		int ingest(int game) throws IOException, InterruptedException;
+	}
+
+	/**
+	 * Ingests a batch of games, several at a time. Each game is read by one thread
+	 * and keyed by its own ID, so per-game order is preserved while games share the
+	 * producer's batches.
+	 */
+	private void ingestGames(List<String> gameIds, GameIngest ingest) throws Exception {
+		int parallelism = gameLogsConfig.getParallelism() > 0
+				? gameLogsConfig.getParallelism() : Runtime.getRuntime().availableProcessors();
+		log.info("Ingesting {} games with {} threads", gameIds.size(), parallelism);
+
+		AtomicInteger completed = new AtomicInteger();
+		AtomicInteger failedGames = new AtomicInteger();
+		AtomicLong events = new AtomicLong();
+		AtomicBoolean aborted = new AtomicBoolean();
+		ExecutorService pool = Executors.newFixedThreadPool(parallelism);
 		try {
-			String[] parts = timeStr.split(":");
-			int minutes = Integer.parseInt(parts[0]);
-			int seconds = Integer.parseInt(parts[1]);
-			return (minutes * 60) + seconds;
-		} catch (Exception e) {
-			log.error("Failed to parse timestamp: '{}'", timeStr, e);
-			return -1;
+			List<Future<?>> games = new ArrayList<>();
+			for (int i = 0; i < gameIds.size(); i++) {
+				int game = i;
+				String gameId = gameIds.get(game);
+				games.add(pool.submit(() -> {
+					if (aborted.get()) {
+						return;
+					}
+					long gameStarted = System.nanoTime();
+					try {
+						int sent = ingest.ingest(game);
+						events.addAndGet(sent);
+						log.info("[{}/{}] {}: {} events in {} ms ({} events so far)", completed.incrementAndGet(), gameIds.size(),
+								gameId, sent, (System.nanoTime() - gameStarted) / 1_000_000, events.get());
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} catch (IOException e) {
+						failedGames.incrementAndGet();
+						log.error("[{}/{}] {}: ingest failed: {}", completed.incrementAndGet(), gameIds.size(),
+								gameId, e.getMessage(), e);
+					} catch (RuntimeException e) {
+						// The producer itself is failing (e.g. no broker); every other game would too.
+						failedGames.incrementAndGet();
+						if (aborted.compareAndSet(false, true)) {
+							log.error("{}: producer failed, stopping batch: {}", gameId, e.getMessage(), e);
+						}
+					}
+				}));
+			}
+			for (Future<?> game : games) {
+				game.get();
+			}
+		} finally {
+			pool.shutdownNow();
 		}
+		log.info("Ingested {} of {} games ({} failed{}), {} events", completed.get() - failedGames.get(), gameIds.size(),
+				failedGames.get(), aborted.get() ? ", batch aborted" : "", events.get());
+	}
+
+	private void logThroughput(long started) {
+		double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+		ingestMetrics.logSummary(seconds);
+		long acknowledged = kafkaProducerService.getAcknowledged();
+		long sent = kafkaProducerService.getSent();
+		log.info("Produced {} events in {} s ({} records/sec): {} acknowledged, {} failed, {} bytes/event",
+				sent, String.format("%.3f", seconds),
+				String.format("%.0f", seconds > 0 ? acknowledged / seconds : 0), acknowledged, kafkaProducerService.getFailed(),
+				String.format("%.1f", sent > 0 ? (double) kafkaProducerService.getBytes() / sent : 0));
 	}
-}
\ No newline at end of file
+}
@@ -1,26 +1,80 @@
 package GameEventIngestService.GameEventIngestService.config;
 
+import GameEventIngestService.GameEventIngestService.model.EventFormat;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "game.events")
 public class GameEventConfig {
-    private Integer lastTimestampSeconds;
+    private double speed;
+    private int amplify = 1;
+    private int snapshotIntervalSeconds = 300;
+    private int ringSize = 4096;
     private final Kafka kafka = new Kafka();
+    private final Database database = new Database();
+    private final Metrics metrics = new Metrics();
 
-    public Integer getLastTimestampSeconds() {
-        return lastTimestampSeconds;
+    /**
+     * Game-clock multiplier events are sent at (1 = real time); 0 sends as fast as possible.
+     */
+    public double getSpeed() {
+        return speed;
     }
 
-    public void setLastTimestampSeconds(Integer lastTimestampSeconds) {
-        this.lastTimestampSeconds = lastTimestampSeconds;
+    public void setSpeed(double speed) {
+        this.speed = speed;
+    }
+
+    /**
+     * Number of synthetic games each log is sent as, with IDs {@code <gameId>-1 .. <gameId>-N}.
+     * 1 sends the game once under its own ID.
+     */
+    public int getAmplify() {
+        return amplify;
+    }
+
+    public void setAmplify(int amplify) {
+        this.amplify = amplify;
+    }
+
+    /**
+     * Game-clock seconds between box-score snapshot records; 0 sends none.
+     */
+    public int getSnapshotIntervalSeconds() {
+        return snapshotIntervalSeconds;
+    }
+
+    public void setSnapshotIntervalSeconds(int snapshotIntervalSeconds) {
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+    }
+
+    /**
+     * Events buffered between reading a game and its sinks, rounded up to a power of two.
+     */
+    public int getRingSize() {
+        return ringSize;
+    }
+
+    public void setRingSize(int ringSize) {
+        this.ringSize = ringSize;
     }
 
     public Kafka getKafka() {
         return kafka;
     }
 
+    public Database getDatabase() {
+        return database;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
     public static class Kafka {
         private String topic;
+        private int maxInFlight = 10000;
+        private long flushTimeoutMs = 30000;
+        private EventFormat format = EventFormat.BINARY;
 
         public String getTopic() {
             return topic;
@@ -29,5 +83,98 @@ public class GameEventConfig {
         public void setTopic(String topic) {
             this.topic = topic;
         }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        public long getFlushTimeoutMs() {
+            return flushTimeoutMs;
+        }
+
+        public void setFlushTimeoutMs(long flushTimeoutMs) {
+            this.flushTimeoutMs = flushTimeoutMs;
+        }
+
+        /**
+         * Encoding of record values; JSON remains available while consumers migrate.
+         */
+        public EventFormat getFormat() {
+            return format;
+        }
+
+        public void setFormat(EventFormat format) {
+            this.format = format;
+        }
+    }
+
+    public static class Database {
+        private boolean enabled;
+        private int batchSize = 500;
+        private int writers = 2;
+        private long awaitTimeoutMs = 600000;
+
+        /**
+         * Whether events are also written to the game_events table.
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Most rows written in one JDBC batch.
+         */
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * Games written to the database at once; further games queue behind them.
+         */
+        public int getWriters() {
+            return writers;
+        }
+
+        public void setWriters(int writers) {
+            this.writers = writers;
+        }
+
+        /**
+         * How long a run waits at the end for game_events to catch up with Kafka.
+         */
+        public long getAwaitTimeoutMs() {
+            return awaitTimeoutMs;
+        }
+
+        public void setAwaitTimeoutMs(long awaitTimeoutMs) {
+            this.awaitTimeoutMs = awaitTimeoutMs;
+        }
+    }
+
+    public static class Metrics {
+        private int port;
+
+        /**
+         * Port serving {@code /metrics} in the Prometheus text format while the service runs; 0 serves nothing.
+         */
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
     }
-} 
\ No newline at end of file
+}
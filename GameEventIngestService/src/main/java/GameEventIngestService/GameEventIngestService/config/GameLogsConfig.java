@@ -11,6 +11,16 @@ public class GameLogsConfig {
     
     private String basePath;
     private String filename;
+    private boolean batch;
+    private int parallelism;
+    private boolean follow;
+    private long followPollMs = 100;
+    private long followIdleTimeoutMs;
+    private String checkpointDir = "checkpoints";
+    private int generateGames;
+    private int generateEventsPerGame = 450;
+    private long generateSeed = 1;
+    private String generateOutputDir;
     
     public String getFullPath() {
         log.info("getFullPath called - basePath: '{}', filename: '{}'", basePath, filename);
@@ -41,4 +51,114 @@ public class GameLogsConfig {
         log.info("setFilename called with: '{}'", filename);
         this.filename = filename;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Whether to ingest every log under the base path instead of the single configured file.
+     */
+    public boolean isBatch() {
+        return batch;
+    }
+    
+    public void setBatch(boolean batch) {
+        this.batch = batch;
+    }
+    
+    /**
+     * Games ingested at once in batch mode; 0 means one per CPU core.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+    
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+    
+    /**
+     * Whether to keep reading the configured log as it grows instead of stopping at its end.
+     */
+    public boolean isFollow() {
+        return follow;
+    }
+    
+    public void setFollow(boolean follow) {
+        this.follow = follow;
+    }
+    
+    /**
+     * Longest wait between checks for new lines in follow mode.
+     */
+    public long getFollowPollMs() {
+        return followPollMs;
+    }
+    
+    public void setFollowPollMs(long followPollMs) {
+        this.followPollMs = followPollMs;
+    }
+    
+    /**
+     * Stop following once the log has not grown for this long; 0 follows forever.
+     */
+    public long getFollowIdleTimeoutMs() {
+        return followIdleTimeoutMs;
+    }
+    
+    public void setFollowIdleTimeoutMs(long followIdleTimeoutMs) {
+        this.followIdleTimeoutMs = followIdleTimeoutMs;
+    }
+    
+    /**
+     * Directory holding the committed byte offset of each followed game.
+     */
+    public String getCheckpointDir() {
+        return checkpointDir;
+    }
+    
+    public void setCheckpointDir(String checkpointDir) {
+        this.checkpointDir = checkpointDir;
+    }
+    
+    /**
+     * Number of synthetic games to generate from the rosters instead of reading logs; 0 generates none.
+     */
+    public int getGenerateGames() {
+        return generateGames;
+    }
+    
+    public void setGenerateGames(int generateGames) {
+        this.generateGames = generateGames;
+    }
+    
+    /**
+     * Lines in each generated game.
+     */
+    public int getGenerateEventsPerGame() {
+        return generateEventsPerGame;
+    }
+    
+    public void setGenerateEventsPerGame(int generateEventsPerGame) {
+        this.generateEventsPerGame = generateEventsPerGame;
+    }
+    
+    /**
+     * Seed of the generated games; the same seed always generates the same games.
+     */
+    public long getGenerateSeed() {
+        return generateSeed;
+    }
+    
+    public void setGenerateSeed(long generateSeed) {
+        this.generateSeed = generateSeed;
+    }
+    
+    /**
+     * Directory to write generated games to as log files; if unset they are ingested straight from memory.
+     */
+    public String getGenerateOutputDir() {
+        return generateOutputDir;
+    }
+    
+    public void setGenerateOutputDir(String generateOutputDir) {
+        this.generateOutputDir = generateOutputDir;
+    }
+}
@@ -0,0 +1,33 @@
+package GameEventIngestService.GameEventIngestService.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.MicrometerProducerListener;
+
+/**
+ * One Prometheus registry for the ingest pipeline's own meters and the Kafka
+ * producer's client metrics (batch sizes, queue time, request latency).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public PrometheusMeterRegistry prometheusMeterRegistry() {
+        return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    }
+
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer producerMetrics(MeterRegistry meterRegistry) {
+        return producerFactory -> bindProducerMetrics(producerFactory, meterRegistry);
+    }
+
+    private static <K, V> void bindProducerMetrics(DefaultKafkaProducerFactory<K, V> producerFactory,
+                                                   MeterRegistry meterRegistry) {
+        producerFactory.addListener(new MicrometerProducerListener<>(meterRegistry));
+    }
+}
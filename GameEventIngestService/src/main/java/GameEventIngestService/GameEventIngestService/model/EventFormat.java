@@ -0,0 +1,15 @@
+package GameEventIngestService.GameEventIngestService.model;
+
+/**
+ * Encoding of game-event record values on the Kafka topic.
+ */
+public enum EventFormat {
+    /**
+     * Versioned binary layout (see {@code GameEventEncoder}), about a fifth of the JSON size.
+     */
+    BINARY,
+    /**
+     * The original JSON object with named fields; readers accept both during migration.
+     */
+    JSON
+}
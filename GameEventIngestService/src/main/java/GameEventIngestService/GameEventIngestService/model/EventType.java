@@ -0,0 +1,74 @@
+package GameEventIngestService.GameEventIngestService.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Event types that may appear in a game log, with the name used in the log and
+ * on the wire.
+ */
+public enum EventType {
+    SCORE_1("score-1", 1, 1),
+    SCORE_2("score-2", 2, 2),
+    SCORE_3("score-3", 3, 3),
+    ASSIST("assist", 4, 0),
+    REBOUND("rebound", 5, 0),
+    FOUL("foul", 6, 0);
+
+    private static final EventType[] VALUES = values();
+
+    private final String wireName;
+    private final byte[] wireBytes;
+    private final int code;
+    private final int points;
+
+    EventType(String wireName, int code, int points) {
+        this.wireName = wireName;
+        this.wireBytes = wireName.getBytes(StandardCharsets.US_ASCII);
+        this.code = code;
+        this.points = points;
+    }
+
+    public String getWireName() {
+        return wireName;
+    }
+
+    public byte[] getWireBytes() {
+        return wireBytes;
+    }
+
+    /**
+     * Code of the type in binary records. Codes are part of the record format and
+     * must never be reused or renumbered.
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /** Points the event scores; 0 for anything but a made shot. */
+    public int getPoints() {
+        return points;
+    }
+
+    /**
+     * Matches the bytes {@code [offset, offset + length)} of {@code buffer} without copying them.
+     *
+     * @return the matching type, or null if there is none.
+     */
+    public static EventType match(ByteBuffer buffer, int offset, int length) {
+        for (EventType type : VALUES) {
+            byte[] name = type.wireBytes;
+            if (name.length != length) {
+                continue;
+            }
+            int i = 0;
+            while (i < length && buffer.get(offset + i) == name[i]) {
+                i++;
+            }
+            if (i == length) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
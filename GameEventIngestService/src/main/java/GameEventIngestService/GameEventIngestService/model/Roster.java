@@ -0,0 +1,83 @@
+package GameEventIngestService.GameEventIngestService.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Team rosters, read from lines of {@code team,player name,jersey number}. Blank
+ * lines and lines starting with {@code #} are ignored. Names are split like log
+ * names: the first word is the first name and the rest is the last name.
+ */
+public final class Roster {
+
+    /** One rostered player. */
+    public record Player(String team, String firstName, String lastName, String number) {
+    }
+
+    public static final String DEFAULT_RESOURCE = "rosters.csv";
+
+    private final List<String> teams = new ArrayList<>();
+    private final List<Player> players = new ArrayList<>();
+
+    public static Roster load(InputStream in) throws IOException {
+        Roster roster = new Roster();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != 3) {
+                throw new IOException("Expected team,player,number but got: " + line);
+            }
+            String name = fields[1].trim();
+            int space = name.indexOf(' ');
+            roster.add(fields[0].trim(), space < 0 ? name : name.substring(0, space),
+                    space < 0 ? "" : name.substring(space + 1).trim(), fields[2].trim());
+        }
+        return roster;
+    }
+
+    /**
+     * Loads the rosters bundled as {@code rosters.csv}, taken from GameInfoService's
+     * {@code init.sql}.
+     *
+     * @return an empty roster if the file is not on the classpath.
+     */
+    public static Roster loadDefault() throws IOException {
+        try (InputStream in = Roster.class.getResourceAsStream("/" + DEFAULT_RESOURCE)) {
+            return in != null ? load(in) : empty();
+        }
+    }
+
+    public static Roster empty() {
+        return new Roster();
+    }
+
+    private void add(String team, String firstName, String lastName, String number) {
+        if (!teams.contains(team)) {
+            teams.add(team);
+        }
+        players.add(new Player(team, firstName, lastName, number));
+    }
+
+    public List<String> getTeams() {
+        return Collections.unmodifiableList(teams);
+    }
+
+    public List<Player> getPlayers() {
+        return Collections.unmodifiableList(players);
+    }
+
+    public boolean isEmpty() {
+        return players.isEmpty();
+    }
+}
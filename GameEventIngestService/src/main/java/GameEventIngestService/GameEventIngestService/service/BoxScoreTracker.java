@@ -0,0 +1,172 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.model.EventType;
+import GameEventIngestService.GameEventIngestService.model.Roster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds a game's events into a running box score and renders snapshot records
+ * of it. A snapshot is due whenever the game clock passes a multiple of the
+ * interval, and covers every event up to that mark:
+ * <pre>
+ * {"game_seconds":600,"events":87,
+ *  "teams":[{"team":"Celtics","points":28},...],
+ *  "players":[{"firstname":"Jayson","lastname":"Tatum","player_number":"0","team":"Celtics",
+ *              "points":9,"rebounds":3,"assists":2,"fouls":1},...]}
+ * </pre>
+ * {@code events} is how many of the game's events the snapshot includes, so a
+ * reader can apply exactly the events after it. Every rostered player is listed,
+ * so each later event's team is known. Players missing from the roster are listed
+ * under an empty team and do not count toward a team score.
+ * <p>
+ * Not thread-safe; use one per game.
+ */
+class BoxScoreTracker {
+
+    private final int intervalSeconds;
+    private final Map<String, Integer> teamPoints = new LinkedHashMap<>();
+    private final Map<Long, PlayerLine> players = new HashMap<>();
+    private final List<PlayerLine> order = new ArrayList<>();
+    private int nextBoundary;
+    private int events;
+    private int eventsAtLastSnapshot = -1;
+
+    BoxScoreTracker(Roster roster, int intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+        this.nextBoundary = intervalSeconds;
+        for (String team : roster.getTeams()) {
+            teamPoints.put(team, 0);
+        }
+        for (Roster.Player player : roster.getPlayers()) {
+            PlayerLine line = new PlayerLine(player.firstName(), player.lastName(), player.number(), player.team());
+            players.put(GameLogScanner.playerKey(player.firstName(), player.lastName(), player.number()), line);
+            order.add(line);
+        }
+    }
+
+    /**
+     * The snapshot to send before the first event: every player at zero.
+     */
+    byte[] initialSnapshot() {
+        return snapshot(0);
+    }
+
+    /**
+     * Call before applying an event at {@code gameSeconds}.
+     *
+     * @return a snapshot to send ahead of the event, or null if none is due.
+     */
+    byte[] beforeEvent(int gameSeconds) {
+        if (gameSeconds <= nextBoundary) {
+            return null;
+        }
+        // The latest interval mark the clock has passed; every folded event is at or before it.
+        int mark = (gameSeconds - 1) / intervalSeconds * intervalSeconds;
+        nextBoundary = mark + intervalSeconds;
+        return events > eventsAtLastSnapshot ? snapshot(mark) : null;
+    }
+
+    void apply(GameLogScanner scanner, EventType type) {
+        long key = scanner.getPlayerKey();
+        PlayerLine line = players.get(key);
+        if (line == null) {
+            line = new PlayerLine(scanner.getFirstName(), scanner.getLastName(), scanner.getPlayerNumber(), "");
+            players.put(key, line);
+            order.add(line);
+        }
+        int points = type.getPoints();
+        switch (type) {
+            case REBOUND -> line.rebounds++;
+            case ASSIST -> line.assists++;
+            case FOUL -> line.fouls++;
+            default -> {
+            }
+        }
+        if (points > 0) {
+            line.points += points;
+            if (!line.team.isEmpty()) {
+                teamPoints.merge(line.team, points, Integer::sum);
+            }
+        }
+        events++;
+    }
+
+    /**
+     * Call after the last event, with its game clock.
+     *
+     * @return the closing snapshot, or null if the last one already covers every event.
+     */
+    byte[] finalSnapshot(int gameSeconds) {
+        return events > eventsAtLastSnapshot ? snapshot(gameSeconds) : null;
+    }
+
+    int getEvents() {
+        return events;
+    }
+
+    private byte[] snapshot(int gameSeconds) {
+        eventsAtLastSnapshot = events;
+        StringBuilder json = new StringBuilder(128 + order.size() * 128);
+        json.append("{\"game_seconds\":").append(gameSeconds).append(",\"events\":").append(events).append(",\"teams\":[");
+        boolean first = true;
+        for (Map.Entry<String, Integer> team : teamPoints.entrySet()) {
+            json.append(first ? "" : ",").append("{\"team\":");
+            string(json, team.getKey()).append(",\"points\":").append(team.getValue()).append('}');
+            first = false;
+        }
+        json.append("],\"players\":[");
+        first = true;
+        for (PlayerLine line : order) {
+            json.append(first ? "" : ",").append("{\"firstname\":");
+            string(json, line.firstName).append(",\"lastname\":");
+            string(json, line.lastName).append(",\"player_number\":");
+            string(json, line.number).append(",\"team\":");
+            string(json, line.team)
+                    .append(",\"points\":").append(line.points)
+                    .append(",\"rebounds\":").append(line.rebounds)
+                    .append(",\"assists\":").append(line.assists)
+                    .append(",\"fouls\":").append(line.fouls).append('}');
+            first = false;
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static StringBuilder string(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"');
+    }
+
+    private static final class PlayerLine {
+        final String firstName;
+        final String lastName;
+        final String number;
+        final String team;
+        int points;
+        int rebounds;
+        int assists;
+        int fouls;
+
+        PlayerLine(String firstName, String lastName, String number, String team) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.number = number;
+            this.team = team;
+        }
+    }
+}
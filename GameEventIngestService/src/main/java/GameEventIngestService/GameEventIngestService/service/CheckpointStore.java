@@ -0,0 +1,65 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.config.GameLogsConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Remembers, per game, the byte offset in its log up to which every event has
+ * been acknowledged by Kafka. Each game's offset is one small text file,
+ * replaced atomically so a crash leaves either the old or the new value.
+ */
+@Service
+public class CheckpointStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckpointStore.class);
+
+    private final Path directory;
+
+    @Autowired
+    public CheckpointStore(GameLogsConfig gameLogsConfig) {
+        this(Paths.get(gameLogsConfig.getCheckpointDir()));
+    }
+
+    CheckpointStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the committed offset for the game, or 0 if there is none.
+     */
+    public long load(String gameId) throws IOException {
+        Path file = fileOf(gameId);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        String content = Files.readString(file, StandardCharsets.US_ASCII).trim();
+        try {
+            return Long.parseLong(content);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring corrupt checkpoint {}: '{}'", file, content);
+            return 0;
+        }
+    }
+
+    public void commit(String gameId, long offset) throws IOException {
+        Files.createDirectories(directory);
+        Path file = fileOf(gameId);
+        Path temp = directory.resolve(gameId + ".offset.tmp");
+        Files.writeString(temp, Long.toString(offset), StandardCharsets.US_ASCII);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path fileOf(String gameId) {
+        return directory.resolve(gameId + ".offset");
+    }
+}
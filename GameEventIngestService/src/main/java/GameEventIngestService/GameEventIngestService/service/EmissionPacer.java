@@ -0,0 +1,53 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds each event back until its time on the game clock, scaled by a speed
+ * multiplier. The schedule is fixed from the first event, so a slow send delays
+ * only the events behind it; the pacer then catches up instead of drifting.
+ */
+class EmissionPacer {
+
+    private final double speed;
+    private int firstGameSeconds = -1;
+    private long startNanos;
+    private long maxLagNanos;
+
+    EmissionPacer(double speed) {
+        this.speed = speed;
+    }
+
+    /**
+     * Sleeps until an event at {@code gameSeconds} is due; returns at once when unpaced.
+     *
+     * @return how far behind its due time the event is, in nanoseconds; 0 when on time.
+     */
+    long awaitTurn(int gameSeconds) throws InterruptedException {
+        if (speed <= 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        if (firstGameSeconds < 0) {
+            firstGameSeconds = gameSeconds;
+            startNanos = now;
+            return 0;
+        }
+        long due = startNanos + (long) ((gameSeconds - firstGameSeconds) * 1_000_000_000L / speed);
+        if (due > now) {
+            TimeUnit.NANOSECONDS.sleep(due - now);
+            return 0;
+        }
+        maxLagNanos = Math.max(maxLagNanos, now - due);
+        return now - due;
+    }
+
+    boolean isPaced() {
+        return speed > 0;
+    }
+
+    /** Furthest any event fell behind its due time. */
+    long getMaxLagNanos() {
+        return maxLagNanos;
+    }
+}
@@ -0,0 +1,132 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.model.EventType;
+
+import java.util.Arrays;
+
+/**
+ * The stages of ingesting one game. The caller's thread reads and parses the log
+ * (the scanner does both in one pass over the mapped file) and publishes each
+ * event to an {@link EventRing}. Sinks consume the ring on their own threads, in
+ * batches of whatever has been published since they last looked:
+ * <ul>
+ *     <li>the Kafka sink sends every event and snapshot to every key. The reader
+ *     waits for it when the ring is full, so Kafka's in-flight limit is what
+ *     holds ingest back;</li>
+ *     <li>the optional {@link GameEventTableSink} writes {@code game_events}. It
+ *     is never waited for: if it falls a full ring behind, it is detached and
+ *     catches up from the log.</li>
+ * </ul>
+ */
+final class EventPipeline {
+
+    private static final int KAFKA = 0;
+    private static final int DATABASE = 1;
+
+    private final String topic;
+    private final String[] keys;
+    private final KafkaProducerService kafkaProducerService;
+    private final IngestMetrics metrics;
+    private final EventRing ring;
+    private final Thread kafkaSink;
+    private final EventRing.Consumer database;
+    private volatile RuntimeException kafkaFailure;
+
+    /**
+     * @param withDatabase whether a {@link GameEventTableSink} will consume the
+     *                     ring, as its detachable second consumer.
+     */
+    EventPipeline(String gameId, String topic, String[] keys, int ringSize, boolean withDatabase,
+                  KafkaProducerService kafkaProducerService, IngestMetrics metrics) {
+        this.topic = topic;
+        this.keys = keys;
+        this.kafkaProducerService = kafkaProducerService;
+        this.metrics = metrics;
+        this.ring = withDatabase ? new EventRing(ringSize, false, true) : new EventRing(ringSize, false);
+        this.database = withDatabase ? ring.consumer(DATABASE) : null;
+        this.kafkaSink = new Thread(this::drainToKafka, "kafka-sink-" + gameId);
+        kafkaSink.setDaemon(true);
+        kafkaSink.start();
+    }
+
+    EventRing getRing() {
+        return ring;
+    }
+
+    EventRing.Consumer getDatabaseConsumer() {
+        return database;
+    }
+
+    /**
+     * Publishes the scanner's current event. Player fields, which only the
+     * database sink needs, are not built once it has been detached.
+     */
+    void publishEvent(GameLogScanner scanner, int gameSeconds, EventType type, byte[] record, int length)
+            throws InterruptedException {
+        // The ring hands events to another thread, so each needs its own copy; amplified copies share it
+        byte[] event = Arrays.copyOf(record, length);
+        if (database != null && !database.isDetached()) {
+            ring.publish(EventRing.EVENT, gameSeconds, event, type, scanner.getFirstName(), scanner.getLastName(),
+                    scanner.getPlayerNumber(), scanner.getLineEnd());
+        } else {
+            ring.publish(EventRing.EVENT, gameSeconds, event, type, null, null, null, -1);
+        }
+    }
+
+    void publishSnapshot(byte[] snapshot) throws InterruptedException {
+        ring.publish(EventRing.SNAPSHOT, 0, snapshot, null, null, null, null, -1);
+    }
+
+    /**
+     * Waits for the Kafka sink to send everything published. The database sink may
+     * still be running.
+     *
+     * @throws RuntimeException the Kafka sink's failure, if it failed.
+     */
+    void finish() throws InterruptedException {
+        ring.close();
+        kafkaSink.join();
+        metrics.ringWaited(ring.getWaitNanos());
+        if (kafkaFailure != null) {
+            throw kafkaFailure;
+        }
+    }
+
+    /** Stops the Kafka sink without waiting for it to drain the ring. */
+    void abort() {
+        ring.close();
+        kafkaSink.interrupt();
+    }
+
+    private void drainToKafka() {
+        EventRing.Consumer consumer = ring.consumer(KAFKA);
+        long next = 0;
+        try {
+            while (true) {
+                long available = ring.waitFor(next);
+                if (available < 0) {
+                    return;
+                }
+                for (long sequence = next; sequence <= available; sequence++) {
+                    EventRing.Entry entry = ring.get(sequence);
+                    for (String key : keys) {
+                        if (entry.kind() == EventRing.SNAPSHOT) {
+                            kafkaProducerService.sendSnapshot(topic, key, entry.value());
+                        } else {
+                            kafkaProducerService.send(topic, key, entry.value());
+                        }
+                    }
+                }
+                metrics.sinkBatch(IngestMetrics.SINK_KAFKA, (available - next + 1) * keys.length);
+                next = available + 1;
+                consumer.consumedUpTo(next);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // The producer itself is failing; the reader rethrows this instead of waiting for slots
+            kafkaFailure = e;
+            ring.fail(e);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.model.EventType;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Single-producer, multi-consumer ring of events, after the LMAX Disruptor. The
+ * producer claims sequence numbers and publishes by advancing a cursor; each
+ * consumer keeps its own sequence and reads every event published so far in one
+ * batch. The producer only waits for the consumers it is gated on, and they only
+ * wait for the cursor. Nothing is locked while events flow: a side that is still
+ * waiting after a short spin blocks on a condition, and the other side takes the
+ * lock to signal it only when it sees that.
+ * <p>
+ * A consumer may be registered as detachable. Instead of holding the producer
+ * back once it is a full ring behind, it is detached: the producer stops waiting
+ * for it and overwrites its events. Entries are immutable and carry their
+ * sequence, so a detached consumer can tell an overwritten slot from the one it
+ * expected and recover elsewhere.
+ */
+final class EventRing {
+
+    static final int EVENT = 0;
+    static final int SNAPSHOT = 1;
+
+    /** One published entry. Player fields are only set for consumers that need them. */
+    record Entry(long sequence, int kind, int gameSeconds, byte[] value, EventType type,
+                 String firstName, String lastName, String playerNumber, long lineEnd) {
+    }
+
+    /** A consumer's position: the number of entries it has consumed. */
+    final class Consumer {
+        private final AtomicLong consumed = new AtomicLong();
+        private final AtomicBoolean detached = new AtomicBoolean();
+        private final boolean detachable;
+
+        private Consumer(boolean detachable) {
+            this.detachable = detachable;
+        }
+
+        long getConsumed() {
+            return consumed.get();
+        }
+
+        /** Frees every slot before {@code sequence}. */
+        void consumedUpTo(long sequence) {
+            // A full volatile write, so either this sees producerWaiting or the producer sees the new position
+            consumed.set(sequence);
+            if (producerWaiting) {
+                signalAll(freed);
+            }
+        }
+
+        boolean isDetached() {
+            return detached.get();
+        }
+
+        /** Stops the producer from waiting for this consumer; its unread entries may be overwritten. */
+        void detach() {
+            detached.set(true);
+        }
+    }
+
+    private static final int SPINS = 100;
+
+    private final Entry[] entries;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final Consumer[] consumers;
+    private volatile boolean closed;
+    private volatile RuntimeException failure;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition cursorMoved = lock.newCondition();
+    private final Condition freed = lock.newCondition();
+    // Set before re-checking under the lock, so the other side knows to signal.
+    private final AtomicInteger consumersWaiting = new AtomicInteger();
+    private volatile boolean producerWaiting;
+    private long next;
+    private long waitNanos;
+
+    /**
+     * @param capacity rounded up to a power of two.
+     * @param detachable for each consumer, whether it may be detached.
+     */
+    EventRing(int capacity, boolean... detachable) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.entries = new Entry[size];
+        this.mask = size - 1;
+        this.consumers = new Consumer[detachable.length];
+        for (int i = 0; i < detachable.length; i++) {
+            consumers[i] = new Consumer(detachable[i]);
+        }
+    }
+
+    int capacity() {
+        return entries.length;
+    }
+
+    Consumer consumer(int index) {
+        return consumers[index];
+    }
+
+    /**
+     * Publishes one entry, first waiting for a free slot. Only the producer thread
+     * may call this.
+     *
+     * @throws RuntimeException the failure a consumer reported through {@link #fail}.
+     */
+    void publish(int kind, int gameSeconds, byte[] value, EventType type,
+                 String firstName, String lastName, String playerNumber, long lineEnd) throws InterruptedException {
+        long sequence = next++;
+        awaitSlot(sequence - entries.length);
+        entries[(int) sequence & mask] = new Entry(sequence, kind, gameSeconds, value, type,
+                firstName, lastName, playerNumber, lineEnd);
+        cursor.set(sequence);
+        if (consumersWaiting.get() > 0) {
+            signalAll(cursorMoved);
+        }
+    }
+
+    private void awaitSlot(long wrapPoint) throws InterruptedException {
+        if (wrapPoint < 0) {
+            return;
+        }
+        long waitStarted = 0;
+        int spins = 0;
+        while (true) {
+            RuntimeException failed = failure;
+            if (failed != null) {
+                throw failed;
+            }
+            if (isFree(wrapPoint)) {
+                break;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (waitStarted == 0) {
+                waitStarted = System.nanoTime();
+            }
+            if (++spins < SPINS) {
+                Thread.onSpinWait();
+                continue;
+            }
+            lock.lockInterruptibly();
+            try {
+                producerWaiting = true;
+                if (failure == null && !isFree(wrapPoint)) {
+                    freed.await();
+                }
+            } finally {
+                producerWaiting = false;
+                lock.unlock();
+            }
+        }
+        if (waitStarted != 0) {
+            waitNanos += System.nanoTime() - waitStarted;
+        }
+    }
+
+    /** Whether every consumer is past {@code wrapPoint}, detaching the detachable ones that are not. */
+    private boolean isFree(long wrapPoint) {
+        boolean free = true;
+        for (Consumer consumer : consumers) {
+            if (consumer.consumed.get() > wrapPoint || consumer.detached.get()) {
+                continue;
+            }
+            if (consumer.detachable) {
+                consumer.detach();
+            } else {
+                free = false;
+            }
+        }
+        return free;
+    }
+
+    private void signalAll(Condition condition) {
+        lock.lock();
+        try {
+            condition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Marks the end of the stream; consumers drain what is left and then see -1. */
+    void close() {
+        closed = true;
+        signalAll(cursorMoved);
+    }
+
+    /**
+     * Called by a consumer that cannot go on. The producer rethrows it from its
+     * next {@link #publish} instead of waiting for the consumer forever.
+     */
+    void fail(RuntimeException failure) {
+        this.failure = failure;
+        signalAll(freed);
+    }
+
+    /**
+     * Waits until the entry at {@code sequence} is published.
+     *
+     * @return the highest published sequence, which is at least {@code sequence},
+     * or -1 if the ring is closed and nothing at or after {@code sequence} will come.
+     */
+    long waitFor(long sequence) throws InterruptedException {
+        int spins = 0;
+        while (true) {
+            long published = cursor.get();
+            if (published >= sequence) {
+                return published;
+            }
+            if (closed) {
+                published = cursor.get();
+                return published >= sequence ? published : -1;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (++spins < SPINS) {
+                Thread.onSpinWait();
+                continue;
+            }
+            lock.lockInterruptibly();
+            consumersWaiting.incrementAndGet();
+            try {
+                if (cursor.get() < sequence && !closed) {
+                    cursorMoved.await();
+                }
+            } finally {
+                consumersWaiting.decrementAndGet();
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * The entry in the slot of {@code sequence}. For a detached consumer it may be
+     * a later entry that overwrote it; compare {@link Entry#sequence()}.
+     */
+    Entry get(long sequence) {
+        return entries[(int) sequence & mask];
+    }
+
+    /** Time the producer spent waiting for slots; read it on the producer thread. */
+    long getWaitNanos() {
+        return waitNanos;
+    }
+}
@@ -0,0 +1,195 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.model.EventFormat;
+import GameEventIngestService.GameEventIngestService.model.EventType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes one game event at a time into a reusable buffer, copying the text fields
+ * straight from the log bytes. Fields are given in a fixed order:
+ * {@link #start}, {@link #firstName}, {@link #lastNameWord} (zero or more times),
+ * {@link #number}, {@link #clock}.
+ * <p>
+ * Binary layout, version 1 (all integers big-endian):
+ * <pre>
+ *   u8   version (1); JSON values start with '{', so readers can tell the two apart
+ *   u16  game clock in seconds
+ *   u8   event type code ({@link EventType#getCode()})
+ *   str  first name
+ *   str  last name, words separated by single spaces
+ *   str  player number as written ("00" and "0" are different jerseys)
+ * </pre>
+ * where {@code str} is a u8 length followed by that many UTF-8 bytes.
+ * <p>
+ * Not thread-safe; the buffer is overwritten by the next event.
+ */
+class GameEventEncoder {
+
+    static final byte VERSION = 1;
+    static final int MAX_FIELD_BYTES = 0xFF;
+    static final int MAX_CLOCK_SECONDS = 0xFFFF;
+
+    private static final byte[] FIRSTNAME = bytes("{\"firstname\":\"");
+    private static final byte[] LASTNAME = bytes("\",\"lastname\":\"");
+    private static final byte[] PLAYER_NUMBER = bytes("\",\"player_number\":\"");
+    private static final byte[] EVENT_TYPE = bytes("\",\"event_type\":\"");
+    private static final byte[] TIMESTAMP = bytes("\",\"timestamp\":\"");
+    private static final byte[] END = bytes("\"}");
+    private static final byte[] UNICODE_ESCAPE = bytes("\\u00");
+    private static final byte[] HEX = bytes("0123456789abcdef");
+
+    private final EventFormat format;
+    private byte[] buffer = new byte[256];
+    private int length;
+    private EventType type;
+    private int fieldStart;
+    private boolean lastNameStarted;
+    private boolean tooLong;
+
+    GameEventEncoder(EventFormat format) {
+        this.format = format;
+    }
+
+    EventFormat getFormat() {
+        return format;
+    }
+
+    void start(int gameSeconds, EventType type) {
+        length = 0;
+        this.type = type;
+        lastNameStarted = false;
+        tooLong = gameSeconds > MAX_CLOCK_SECONDS && format == EventFormat.BINARY;
+        if (format == EventFormat.BINARY) {
+            ensureCapacity(4);
+            buffer[length++] = VERSION;
+            buffer[length++] = (byte) (gameSeconds >> 8);
+            buffer[length++] = (byte) gameSeconds;
+            buffer[length++] = (byte) type.getCode();
+        } else {
+            append(FIRSTNAME);
+        }
+    }
+
+    void firstName(ByteBuffer source, int start, int end) {
+        if (format == EventFormat.BINARY) {
+            beginField();
+            appendRaw(source, start, end);
+            endField();
+            beginField();
+        } else {
+            appendEscaped(source, start, end);
+            append(LASTNAME);
+        }
+    }
+
+    void lastNameWord(ByteBuffer source, int start, int end) {
+        if (lastNameStarted) {
+            appendByte((byte) ' ');
+        }
+        lastNameStarted = true;
+        if (format == EventFormat.BINARY) {
+            appendRaw(source, start, end);
+        } else {
+            appendEscaped(source, start, end);
+        }
+    }
+
+    void number(ByteBuffer source, int start, int end) {
+        if (format == EventFormat.BINARY) {
+            endField();
+            beginField();
+            appendRaw(source, start, end);
+            endField();
+        } else {
+            append(PLAYER_NUMBER);
+            appendEscaped(source, start, end);
+            append(EVENT_TYPE);
+            append(type.getWireBytes());
+            append(TIMESTAMP);
+        }
+    }
+
+    void clock(ByteBuffer source, int start, int end) {
+        if (format == EventFormat.JSON) {
+            appendEscaped(source, start, end);
+            append(END);
+        }
+    }
+
+    /**
+     * @return false if the event does not fit the binary layout (a field over 255
+     * bytes or a clock past 65535 seconds).
+     */
+    boolean isValid() {
+        return !tooLong;
+    }
+
+    /** The encoded event; valid until the next {@link #start}. */
+    byte[] getBuffer() {
+        return buffer;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    private void beginField() {
+        fieldStart = length;
+        appendByte((byte) 0);
+    }
+
+    private void endField() {
+        int fieldLength = length - fieldStart - 1;
+        if (fieldLength > MAX_FIELD_BYTES) {
+            tooLong = true;
+        }
+        buffer[fieldStart] = (byte) fieldLength;
+    }
+
+    private void appendRaw(ByteBuffer source, int start, int end) {
+        ensureCapacity(end - start);
+        source.get(start, buffer, length, end - start);
+        length += end - start;
+    }
+
+    private void appendEscaped(ByteBuffer source, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = source.get(i);
+            if (b == '"' || b == '\\') {
+                appendByte((byte) '\\');
+                appendByte(b);
+            } else if (b >= 0 && b < 0x20) {
+                append(UNICODE_ESCAPE);
+                appendByte(HEX[b >> 4]);
+                appendByte(HEX[b & 0xF]);
+            } else {
+                // UTF-8 continuation bytes are copied as they are
+                appendByte(b);
+            }
+        }
+    }
+
+    private void append(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void appendByte(byte b) {
+        ensureCapacity(1);
+        buffer[length++] = b;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
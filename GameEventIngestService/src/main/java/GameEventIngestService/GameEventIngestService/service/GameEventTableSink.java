@@ -0,0 +1,154 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.model.EventFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Consumes one game's {@link EventRing} into {@code game_events}, in JDBC batches
+ * of up to {@code batchSize} rows. A batch is also written whenever the sink has
+ * caught up with the ring, so batches grow when the database is slow.
+ * <p>
+ * The sink is a detachable consumer: when the database falls a full ring behind,
+ * the producer overwrites its events instead of waiting. The sink then reads the
+ * rest of the log itself, from just after the last event it stored. It runs on the
+ * database writer pool; if it has not started when the game's Kafka side is done,
+ * it never uses the ring and reads the log from the start.
+ */
+class GameEventTableSink implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(GameEventTableSink.class);
+
+    private final GameEventTableWriter writer;
+    private final String gameId;
+    private final GameLogSource source;
+    private final EventFormat format;
+    private final int batchSize;
+    private final IngestMetrics metrics;
+    private final EventRing.Consumer consumer;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile EventRing ring;
+    private List<Object[]> rows;
+
+    GameEventTableSink(GameEventTableWriter writer, String gameId, GameLogSource source, EventFormat format, int batchSize,
+                       IngestMetrics metrics, EventRing ring, EventRing.Consumer consumer) {
+        this.writer = writer;
+        this.gameId = gameId;
+        this.source = source;
+        this.format = format;
+        this.batchSize = batchSize;
+        this.metrics = metrics;
+        this.ring = ring;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Called once the producer is done. A sink that has not started yet lets go of
+     * the ring and will read the log instead.
+     */
+    void release() {
+        if (started.compareAndSet(false, true)) {
+            consumer.detach();
+            ring = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        EventRing events = started.compareAndSet(false, true) ? ring : null;
+        GameEventTableWriter.Game game;
+        try {
+            game = writer.open(gameId);
+        } catch (DataAccessException e) {
+            consumer.detach();
+            log.error("{}: cannot write game_events: {}", gameId, e.getMessage());
+            metrics.sinkFailed(IngestMetrics.SINK_DATABASE);
+            return;
+        }
+        if (game == null) {
+            consumer.detach();
+            log.warn("{}: no matching row in games; not writing game_events", gameId);
+            return;
+        }
+        rows = new ArrayList<>(batchSize);
+        try {
+            long resumeAt = events != null ? drainRing(events, game) : 0;
+            if (resumeAt >= 0) {
+                if (events != null) {
+                    metrics.sinkDetached();
+                    log.info("{}: game_events fell a ring behind; reading the log from byte {}", gameId, resumeAt);
+                }
+                readLog(game, resumeAt);
+            }
+            flush();
+        } catch (DataAccessException | IOException e) {
+            consumer.detach();
+            log.error("{}: writing game_events failed: {}", gameId, e.getMessage());
+            metrics.sinkFailed(IngestMetrics.SINK_DATABASE);
+        } catch (InterruptedException e) {
+            consumer.detach();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the log offset to read the rest from if the ring overwrote events
+     * this sink had not read, or -1 if it read them all.
+     */
+    private long drainRing(EventRing source, GameEventTableWriter.Game game) throws InterruptedException {
+        long next = 0;
+        long lineEnd = 0;
+        while (true) {
+            long available = source.waitFor(next);
+            if (available < 0) {
+                return -1;
+            }
+            for (long sequence = next; sequence <= available; sequence++) {
+                EventRing.Entry entry = source.get(sequence);
+                // Overwritten, or published after this sink was detached and so without player fields
+                if (entry.sequence() != sequence || entry.kind() == EventRing.EVENT && entry.firstName() == null) {
+                    consumer.consumedUpTo(next);
+                    return lineEnd;
+                }
+                if (entry.kind() == EventRing.EVENT) {
+                    rows.add(game.row(entry.gameSeconds(), entry.type(), entry.firstName(), entry.lastName(),
+                            entry.playerNumber()));
+                    lineEnd = entry.lineEnd();
+                }
+                next = sequence + 1;
+                if (rows.size() >= batchSize) {
+                    consumer.consumedUpTo(next);
+                    flush();
+                }
+            }
+            consumer.consumedUpTo(next);
+            flush();
+        }
+    }
+
+    private void readLog(GameEventTableWriter.Game game, long offset) throws IOException, InterruptedException {
+        GameLogScanner scanner = new GameLogScanner(format);
+        source.scan(scanner, offset, (gameSeconds, playerNumber, type, record, length) -> {
+            rows.add(game.row(gameSeconds, type, scanner.getFirstName(), scanner.getLastName(),
+                    scanner.getPlayerNumber()));
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        });
+    }
+
+    private void flush() {
+        if (rows.isEmpty()) {
+            return;
+        }
+        writer.insert(rows);
+        metrics.sinkBatch(IngestMetrics.SINK_DATABASE, rows.size());
+        rows.clear();
+    }
+}
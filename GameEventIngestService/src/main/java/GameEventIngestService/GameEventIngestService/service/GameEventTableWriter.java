@@ -0,0 +1,170 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.model.EventType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Writes game log events into the {@code game_events} table of the GameInfoService
+ * database (see {@code GameInfoService/init.sql}). A log's game ID is matched to a
+ * row of {@code games} by its number, so {@code game3} is game 3. Players are
+ * matched by name and jersey number; unknown players are stored without a
+ * player ID.
+ */
+@Service
+public class GameEventTableWriter {
+
+    static final String INSERT_SQL = "INSERT INTO game_events (game_id, player_id, event_type, event_time, quarter, "
+            + "time_remaining, description, points) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final Pattern GAME_NUMBER = Pattern.compile("^\\D*(\\d+)$");
+    private static final int QUARTER_SECONDS = 12 * 60;
+    private static final int OVERTIME_SECONDS = 5 * 60;
+    private static final int REGULATION_SECONDS = 4 * QUARTER_SECONDS;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Map<String, Integer> playerIds;
+
+    public GameEventTableWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Looks up the game and deletes the events an earlier run stored for it, so a
+     * log can be ingested again without duplicating rows.
+     *
+     * @return null if the game ID has no number or no game has that number.
+     */
+    public Game open(String gameId) {
+        Integer number = gameNumber(gameId);
+        if (number == null) {
+            return null;
+        }
+        List<LocalDateTime> tipOff = jdbcTemplate.query("SELECT game_date, game_time FROM games WHERE game_id = ?",
+                (rs, row) -> {
+                    LocalDate date = rs.getObject(1, LocalDate.class);
+                    LocalTime time = rs.getObject(2, LocalTime.class);
+                    return time != null ? date.atTime(time) : date.atStartOfDay();
+                }, number);
+        if (tipOff.isEmpty()) {
+            return null;
+        }
+        jdbcTemplate.update("DELETE FROM game_events WHERE game_id = ?", number);
+        return new Game(number, tipOff.get(0), playerIds());
+    }
+
+    /** Inserts the rows built by {@link Game#row} as one JDBC batch. */
+    public void insert(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    static Integer gameNumber(String gameId) {
+        Matcher matcher = GAME_NUMBER.matcher(gameId);
+        return matcher.matches() ? Integer.valueOf(matcher.group(1)) : null;
+    }
+
+    private Map<String, Integer> playerIds() {
+        Map<String, Integer> ids = playerIds;
+        if (ids == null) {
+            Map<String, Integer> loaded = new HashMap<>();
+            jdbcTemplate.query("SELECT player_id, player_name, jersey_number FROM players", rs -> {
+                loaded.put(playerKey(rs.getString(2), rs.getString(3)), rs.getInt(1));
+            });
+            playerIds = ids = loaded;
+        }
+        return ids;
+    }
+
+    private static String playerKey(String name, String number) {
+        return name + '#' + number;
+    }
+
+    /** Drops leading zeros from a numeric jersey number; anything else (e.g. "?") is kept and matches no player. */
+    private static String jerseyNumber(String number) {
+        int start = 0;
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (c < '0' || c > '9') {
+                return number;
+            }
+            if (c == '0' && start == i && i < number.length() - 1) {
+                start++;
+            }
+        }
+        return number.substring(start);
+    }
+
+    /** One game's rows; the game clock is counted from its scheduled tip-off. */
+    public static final class Game {
+        private final int id;
+        private final LocalDateTime tipOff;
+        private final Map<String, Integer> playerIds;
+
+        Game(int id, LocalDateTime tipOff, Map<String, Integer> playerIds) {
+            this.id = id;
+            this.tipOff = tipOff;
+            this.playerIds = playerIds;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        /** The parameters of one {@link #INSERT_SQL} row. */
+        public Object[] row(int gameSeconds, EventType type, String firstName, String lastName, String playerNumber) {
+            String name = lastName.isEmpty() ? firstName : firstName + ' ' + lastName;
+            int quarter;
+            int quarterEnd;
+            if (gameSeconds < REGULATION_SECONDS) {
+                quarter = gameSeconds / QUARTER_SECONDS + 1;
+                quarterEnd = quarter * QUARTER_SECONDS;
+            } else {
+                int overtime = (gameSeconds - REGULATION_SECONDS) / OVERTIME_SECONDS;
+                quarter = 5 + overtime;
+                quarterEnd = REGULATION_SECONDS + (overtime + 1) * OVERTIME_SECONDS;
+            }
+            int remaining = quarterEnd - gameSeconds;
+            return new Object[]{
+                    id,
+                    playerIds.get(playerKey(name, jerseyNumber(playerNumber))),
+                    tableName(type),
+                    Timestamp.valueOf(tipOff.plusSeconds(gameSeconds)),
+                    quarter,
+                    String.format("%02d:%02d", remaining / 60, remaining % 60),
+                    name + ' ' + description(type),
+                    type.getPoints()
+            };
+        }
+    }
+
+    private static String tableName(EventType type) {
+        return switch (type) {
+            case SCORE_1 -> "FREE_THROW_MADE";
+            case SCORE_2 -> "2PT_MADE";
+            case SCORE_3 -> "3PT_MADE";
+            case ASSIST -> "ASSIST";
+            case REBOUND -> "REBOUND";
+            case FOUL -> "FOUL";
+        };
+    }
+
+    private static String description(EventType type) {
+        return switch (type) {
+            case SCORE_1 -> "makes free throw";
+            case SCORE_2 -> "makes 2-pointer";
+            case SCORE_3 -> "makes 3-pointer";
+            case ASSIST -> "assists";
+            case REBOUND -> "rebounds";
+            case FOUL -> "commits a foul";
+        };
+    }
+}
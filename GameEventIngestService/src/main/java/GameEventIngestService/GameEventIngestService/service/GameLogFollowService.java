@@ -0,0 +1,132 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.config.GameEventConfig;
+import GameEventIngestService.GameEventIngestService.config.GameLogsConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows a game log that is still being written. New lines are sent as soon as
+ * they appear; the directory is watched for changes, with polling as a fallback
+ * for file systems that do not report them. After each pass the producer is
+ * flushed and, once everything is acknowledged, the offset reached is committed
+ * to the {@link CheckpointStore}. A restart resumes from that offset. If a
+ * delivery fails, the pass is re-read from the last checkpoint, so events may be
+ * sent twice but are never lost.
+ */
+@Service
+public class GameLogFollowService {
+
+    private static final Logger log = LoggerFactory.getLogger(GameLogFollowService.class);
+
+    private final KafkaProducerService kafkaProducerService;
+    private final CheckpointStore checkpointStore;
+    private final GameEventConfig gameEventConfig;
+    private final GameLogsConfig gameLogsConfig;
+    private final IngestMetrics metrics;
+
+    public GameLogFollowService(KafkaProducerService kafkaProducerService, CheckpointStore checkpointStore,
+                                GameEventConfig gameEventConfig, GameLogsConfig gameLogsConfig, IngestMetrics metrics) {
+        this.kafkaProducerService = kafkaProducerService;
+        this.checkpointStore = checkpointStore;
+        this.gameEventConfig = gameEventConfig;
+        this.gameLogsConfig = gameLogsConfig;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Follows the log until the thread is interrupted or, if
+     * {@code game.events.logs.follow-idle-timeout-ms} is set, until the log has
+     * not grown for that long.
+     *
+     * @return the number of events sent.
+     */
+    public long follow(Path logPath, String gameId) throws IOException, InterruptedException {
+        String topic = gameEventConfig.getKafka().getTopic();
+        long pollMillis = gameLogsConfig.getFollowPollMs();
+        long idleTimeoutMillis = gameLogsConfig.getFollowIdleTimeoutMs();
+        long flushTimeoutMillis = gameEventConfig.getKafka().getFlushTimeoutMs();
+
+        long started = System.nanoTime();
+        long committed = checkpointStore.load(gameId);
+        if (Files.exists(logPath) && Files.size(logPath) < committed) {
+            log.warn("{}: log is shorter than its checkpoint ({} < {}), assuming it was replaced; starting over",
+                    gameId, Files.size(logPath), committed);
+            committed = 0;
+        }
+        log.info("{}: following {} from byte {}", gameId, logPath, committed);
+
+        GameLogScanner scanner = new GameLogScanner(gameEventConfig.getKafka().getFormat());
+        long events = 0;
+        long passes = 0;
+        long latencyTotalNanos = 0;
+        long latencyMaxNanos = 0;
+        boolean caughtUp = false;
+        long lastGrowth = System.nanoTime();
+        Path directory = logPath.toAbsolutePath().getParent();
+        try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            directory.register(watcher, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            while (!Thread.currentThread().isInterrupted()) {
+                long size = Files.exists(logPath) ? Files.size(logPath) : 0;
+                if (size > committed) {
+                    long detected = System.nanoTime();
+                    long failedBefore = kafkaProducerService.getFailed();
+                    long malformedBefore = scanner.getMalformed();
+                    int sent = scanner.scan(logPath, committed, true, (gameSeconds, playerNumber, type, record, length) -> {
+                        metrics.lineRead();
+                        kafkaProducerService.send(topic, gameId, Arrays.copyOf(record, length));
+                    });
+                    metrics.linesMalformed(scanner.getMalformed() - malformedBefore);
+                    if (scanner.getPosition() > committed) {
+                        if (!kafkaProducerService.flush(flushTimeoutMillis)
+                                || kafkaProducerService.getFailed() > failedBefore) {
+                            log.warn("{}: events from byte {} were not acknowledged; re-reading them", gameId, committed);
+                        } else {
+                            committed = scanner.getPosition();
+                            checkpointStore.commit(gameId, committed);
+                            events += sent;
+                            passes++;
+                            long latency = System.nanoTime() - detected;
+                            latencyTotalNanos += latency;
+                            latencyMaxNanos = Math.max(latencyMaxNanos, latency);
+                            metrics.followPass(sent, latency);
+                            lastGrowth = System.nanoTime();
+                            log.debug("{}: {} events acknowledged {} ms after the append was seen, committed byte {}",
+                                    gameId, sent, TimeUnit.NANOSECONDS.toMillis(latency), committed);
+                        }
+                    }
+                }
+                if (!caughtUp) {
+                    caughtUp = true;
+                    log.info("{}: caught up to byte {} in {} ms ({} events)", gameId, committed,
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), events);
+                }
+                if (idleTimeoutMillis > 0
+                        && TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastGrowth) >= idleTimeoutMillis) {
+                    log.info("{}: no new events for {} ms, stopping", gameId, idleTimeoutMillis);
+                    break;
+                }
+                WatchKey key = watcher.poll(pollMillis, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+            }
+        }
+        log.info("{}: followed {} events in {} passes; append-to-ack latency avg {} ms, max {} ms", gameId, events,
+                passes, passes > 0 ? TimeUnit.NANOSECONDS.toMillis(latencyTotalNanos / passes) : 0,
+                TimeUnit.NANOSECONDS.toMillis(latencyMaxNanos));
+        return events;
+    }
+}
@@ -0,0 +1,184 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.model.EventType;
+import GameEventIngestService.GameEventIngestService.model.Roster;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Makes synthetic game logs for scale testing, in the same
+ * {@code MM:SS <name> <number> <event-type>} lines as the real ones. Players come
+ * from the roster; teams take turns at home. Each game is drawn from its own
+ * random stream derived from the seed and the game number, so a game is the same
+ * whichever other games are generated and in whatever order.
+ * <p>
+ * A game is a sequence of plays spread over 48 minutes of clock: made shots,
+ * often with an assist by a teammate; defensive fouls followed by free throws;
+ * rebounds; and other fouls. Lines of one play share a clock second.
+ */
+public class GameLogGenerator {
+
+    static final int GAME_SECONDS = 48 * 60;
+    private static final long GAME_STREAM = 0x9E3779B97F4A7C15L;
+
+    private final List<String> teams;
+    private final List<List<Roster.Player>> players = new ArrayList<>();
+    private final long seed;
+
+    /**
+     * @throws IllegalArgumentException if the roster has fewer than two teams.
+     */
+    public GameLogGenerator(Roster roster, long seed) {
+        this.teams = roster.getTeams();
+        if (teams.size() < 2) {
+            throw new IllegalArgumentException("Generating games needs a roster of at least two teams, got " + teams);
+        }
+        for (String team : teams) {
+            players.add(roster.getPlayers().stream().filter(player -> player.team().equals(team)).toList());
+        }
+        this.seed = seed;
+    }
+
+    /**
+     * ID of generated game {@code n}. It has no trailing game number, so it never
+     * matches a row of {@code games} and a generated game cannot replace the
+     * {@code game_events} of a real one.
+     */
+    public String gameId(int n) {
+        return "sim" + seed + "-" + n;
+    }
+
+    public String homeTeam(int n) {
+        return teams.get(home(n));
+    }
+
+    public String awayTeam(int n) {
+        return teams.get(away(n));
+    }
+
+    private int home(int n) {
+        return Math.floorMod(n, teams.size());
+    }
+
+    /** Every other team in turn, so with two teams they simply alternate at home. */
+    private int away(int n) {
+        int others = teams.size() - 1;
+        return Math.floorMod(home(n) + 1 + Math.floorDiv(n, teams.size()) % others, teams.size());
+    }
+
+    /**
+     * Generates game {@code n} with exactly {@code events} lines.
+     *
+     * @return the log, UTF-8 encoded and ending with a newline.
+     * @throws IllegalArgumentException if {@code events} is negative.
+     */
+    public byte[] game(int n, int events) {
+        if (events < 0) {
+            throw new IllegalArgumentException("A game needs zero or more events, got " + events);
+        }
+        SplittableRandom random = new SplittableRandom(seed ^ (n + 1) * GAME_STREAM);
+        int[] clock = new int[events];
+        for (int i = 0; i < events; i++) {
+            clock[i] = random.nextInt(GAME_SECONDS);
+        }
+        Arrays.sort(clock);
+
+        List<Roster.Player> home = players.get(home(n));
+        List<Roster.Player> away = players.get(away(n));
+        StringBuilder log = new StringBuilder(events * 32);
+        int line = 0;
+        while (line < events) {
+            int second = clock[line];
+            boolean homeBall = random.nextBoolean();
+            List<Roster.Player> offense = homeBall ? home : away;
+            List<Roster.Player> defense = homeBall ? away : home;
+            Roster.Player shooter = pick(random, offense);
+            int play = random.nextInt(100);
+            if (play < 30) {
+                line = append(log, line, events, second, shooter, EventType.SCORE_2);
+                if (random.nextInt(100) < 55) {
+                    line = append(log, line, events, second, teammate(random, offense, shooter), EventType.ASSIST);
+                }
+            } else if (play < 42) {
+                line = append(log, line, events, second, shooter, EventType.SCORE_3);
+                if (random.nextInt(100) < 80) {
+                    line = append(log, line, events, second, teammate(random, offense, shooter), EventType.ASSIST);
+                }
+            } else if (play < 53) {
+                line = append(log, line, events, second, pick(random, defense), EventType.FOUL);
+                int shots = random.nextInt(100) < 15 ? 3 : 2;
+                for (int shot = 0; shot < shots; shot++) {
+                    if (random.nextInt(100) < 78) {
+                        line = append(log, line, events, second, shooter, EventType.SCORE_1);
+                    }
+                }
+            } else if (play < 88) {
+                line = append(log, line, events, second, shooter, EventType.REBOUND);
+            } else {
+                line = append(log, line, events, second, pick(random, defense), EventType.FOUL);
+            }
+        }
+        return log.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes games {@code 1..games} to {@code <dir>/<gameId>.log}.
+     *
+     * @return the files written.
+     * @throws IllegalArgumentException if {@code games} or {@code eventsPerGame} is negative.
+     */
+    public List<Path> writeSeason(Path dir, int games, int eventsPerGame) throws IOException {
+        if (games < 0 || eventsPerGame < 0) {
+            throw new IllegalArgumentException("A season needs zero or more games and events per game, got "
+                    + games + " games of " + eventsPerGame + " events");
+        }
+        Files.createDirectories(dir);
+        List<Path> written = new ArrayList<>(games);
+        for (int n = 1; n <= games; n++) {
+            Path file = dir.resolve(gameId(n) + ".log");
+            Files.write(file, game(n, eventsPerGame));
+            written.add(file);
+        }
+        return written;
+    }
+
+    /** Appends one line unless the game already has all its lines. */
+    private static int append(StringBuilder log, int line, int events, int second, Roster.Player player,
+                              EventType type) {
+        if (line == events) {
+            return line;
+        }
+        int minutes = second / 60;
+        int seconds = second % 60;
+        log.append(minutes < 10 ? "0" : "").append(minutes).append(':')
+                .append(seconds < 10 ? "0" : "").append(seconds).append(' ')
+                .append(player.firstName());
+        if (!player.lastName().isEmpty()) {
+            log.append(' ').append(player.lastName());
+        }
+        log.append(' ').append(player.number()).append(' ').append(type.getWireName()).append('\n');
+        return line + 1;
+    }
+
+    private static Roster.Player pick(SplittableRandom random, List<Roster.Player> team) {
+        return team.get(random.nextInt(team.size()));
+    }
+
+    private static Roster.Player teammate(SplittableRandom random, List<Roster.Player> team, Roster.Player player) {
+        if (team.size() == 1) {
+            return player;
+        }
+        Roster.Player teammate;
+        do {
+            teammate = pick(random, team);
+        } while (teammate == player);
+        return teammate;
+    }
+}
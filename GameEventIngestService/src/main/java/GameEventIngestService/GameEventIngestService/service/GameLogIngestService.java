@@ -0,0 +1,198 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.config.GameEventConfig;
+import GameEventIngestService.GameEventIngestService.model.Roster;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Turns one game log into keyed Kafka records, optionally on the game clock and
+ * as several synthetic games, and optionally into {@code game_events} rows. Each
+ * game runs through its own {@link EventPipeline}, so several games can be
+ * ingested concurrently.
+ */
+@Service
+public class GameLogIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(GameLogIngestService.class);
+
+    private final KafkaProducerService kafkaProducerService;
+    private final GameEventConfig gameEventConfig;
+    private final IngestMetrics metrics;
+    private final GameEventTableWriter tableWriter;
+    private final Roster roster;
+    private final ExecutorService databaseWriters;
+    private final Queue<Future<?>> databaseGames = new ConcurrentLinkedQueue<>();
+
+    public GameLogIngestService(KafkaProducerService kafkaProducerService, GameEventConfig gameEventConfig,
+                                IngestMetrics metrics, GameEventTableWriter tableWriter) throws IOException {
+        this.kafkaProducerService = kafkaProducerService;
+        this.gameEventConfig = gameEventConfig;
+        this.metrics = metrics;
+        this.tableWriter = tableWriter;
+        this.roster = Roster.loadDefault();
+        if (roster.isEmpty()) {
+            log.warn("No {} on the classpath; snapshots will have no team scores", Roster.DEFAULT_RESOURCE);
+        }
+        this.databaseWriters = gameEventConfig.getDatabase().isEnabled()
+                ? Executors.newFixedThreadPool(Math.max(1, gameEventConfig.getDatabase().getWriters()), runnable -> {
+                    Thread writer = new Thread(runnable, "game-events-writer");
+                    writer.setDaemon(true);
+                    return writer;
+                })
+                : null;
+    }
+
+    /**
+     * Sends every event of the given log, keyed by {@code gameId}, paced and
+     * amplified as configured (see {@link GameEventConfig#getSpeed()} and
+     * {@link GameEventConfig#getAmplify()}). Amplified copies are sent together, so
+     * they behave like that many games played at the same moment. Box-score
+     * snapshots are sent before the first event, every
+     * {@link GameEventConfig#getSnapshotIntervalSeconds()} of game clock, and after
+     * the last event. With the database enabled, the log's events are also queued
+     * for {@code game_events}, once however far they are amplified; see
+     * {@link #awaitDatabase}.
+     *
+     * @return the number of events sent, counting every copy.
+     */
+    public int ingest(Path logPath, String gameId) throws IOException, InterruptedException {
+        if (!Files.exists(logPath)) {
+            log.error("Game log file not found at path: {}", logPath);
+            throw new IOException("Game log file not found: " + logPath);
+        }
+        return ingest(GameLogSource.file(logPath), gameId);
+    }
+
+    /**
+     * Sends every event of a log held in memory, such as one made by
+     * {@link GameLogGenerator}, exactly as {@link #ingest(Path, String)} sends a file.
+     *
+     * @return the number of events sent, counting every copy.
+     */
+    public int ingest(String gameId, ByteBuffer log) throws IOException, InterruptedException {
+        return ingest(GameLogSource.memory(log, gameId), gameId);
+    }
+
+    private int ingest(GameLogSource source, String gameId) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        String[] keys = keysFor(gameId, gameEventConfig.getAmplify());
+        EmissionPacer pacer = new EmissionPacer(gameEventConfig.getSpeed());
+        GameLogScanner scanner = new GameLogScanner(gameEventConfig.getKafka().getFormat());
+        int interval = gameEventConfig.getSnapshotIntervalSeconds();
+        BoxScoreTracker boxScore = interval > 0 ? new BoxScoreTracker(roster, interval) : null;
+        int[] lastGameSeconds = {0};
+
+        EventPipeline pipeline = new EventPipeline(gameId, gameEventConfig.getKafka().getTopic(), keys,
+                gameEventConfig.getRingSize(), databaseWriters != null, kafkaProducerService, metrics);
+        GameEventTableSink tableSink = null;
+        if (databaseWriters != null) {
+            tableSink = new GameEventTableSink(tableWriter, gameId, source, gameEventConfig.getKafka().getFormat(),
+                    gameEventConfig.getDatabase().getBatchSize(), metrics, pipeline.getRing(),
+                    pipeline.getDatabaseConsumer());
+            databaseGames.add(databaseWriters.submit(tableSink));
+        }
+        int events;
+        try {
+            if (boxScore != null) {
+                publishSnapshot(pipeline, boxScore.initialSnapshot());
+            }
+            events = source.scan(scanner, 0, (gameSeconds, playerNumber, type, record, length) -> {
+                metrics.lineRead();
+                long lag = pacer.awaitTurn(gameSeconds);
+                if (pacer.isPaced()) {
+                    metrics.recordLag(gameId, lag);
+                }
+                if (boxScore != null) {
+                    publishSnapshot(pipeline, boxScore.beforeEvent(gameSeconds));
+                    boxScore.apply(scanner, type);
+                    lastGameSeconds[0] = gameSeconds;
+                }
+                pipeline.publishEvent(scanner, gameSeconds, type, record, length);
+            });
+            if (boxScore != null) {
+                publishSnapshot(pipeline, boxScore.finalSnapshot(lastGameSeconds[0]));
+            }
+            pipeline.finish();
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            pipeline.abort();
+            throw e;
+        } finally {
+            if (tableSink != null) {
+                tableSink.release();
+            }
+        }
+        metrics.linesMalformed(scanner.getMalformed());
+        metrics.gameIngested(System.nanoTime() - started);
+        if (scanner.getMalformed() > 0) {
+            log.warn("{}: skipped {} malformed lines", gameId, scanner.getMalformed());
+        }
+        if (pacer.isPaced()) {
+            log.info("{}: paced at {}x as {} game(s); furthest behind schedule {} ms", gameId,
+                    gameEventConfig.getSpeed(), keys.length, TimeUnit.NANOSECONDS.toMillis(pacer.getMaxLagNanos()));
+        }
+        return events * keys.length;
+    }
+
+    /**
+     * Waits for {@code game_events} to catch up with every game ingested so far.
+     * Kafka never waits for the database, so at the end of a run it may still be
+     * writing.
+     *
+     * @return false if writes were still going on after {@code timeoutMillis}.
+     */
+    public boolean awaitDatabase(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Future<?> game;
+        while ((game = databaseGames.peek()) != null) {
+            try {
+                game.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return false;
+            } catch (ExecutionException e) {
+                log.error("game_events writer failed: {}", e.getCause().getMessage(), e.getCause());
+            }
+            databaseGames.remove(game);
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (databaseWriters != null) {
+            databaseWriters.shutdownNow();
+        }
+    }
+
+    private static void publishSnapshot(EventPipeline pipeline, byte[] snapshot) throws InterruptedException {
+        if (snapshot != null) {
+            pipeline.publishSnapshot(snapshot);
+        }
+    }
+
+    static String[] keysFor(String gameId, int copies) {
+        if (copies <= 1) {
+            return new String[]{gameId};
+        }
+        String[] keys = new String[copies];
+        for (int i = 0; i < copies; i++) {
+            keys[i] = gameId + "-" + (i + 1);
+        }
+        return keys;
+    }
+}
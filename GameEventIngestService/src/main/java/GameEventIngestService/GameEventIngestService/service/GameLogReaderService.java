@@ -10,6 +10,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
@@ -20,19 +22,27 @@ public class GameLogReaderService {
     @Autowired
     private GameLogsConfig gameLogsConfig;
     
-    public Stream<String> streamGameEvents() throws IOException {
-        String fullPath = gameLogsConfig.getFullPath();
-        log.info("Attempting to stream game events from: {}", fullPath);
-        
-        Path logPath = Paths.get(fullPath);
-        
-        if (!Files.exists(logPath)) {
-            log.error("Game log file not found at path: {}", fullPath);
-            throw new IOException("Game log file not found: " + fullPath);
+    /**
+     * Finds every {@code *.log} file directly under the configured base path, sorted by name.
+     */
+    public List<Path> discoverGameLogs() throws IOException {
+        Path basePath = Paths.get(gameLogsConfig.getBasePath());
+        if (!Files.isDirectory(basePath)) {
+            throw new IOException("Game log directory not found: " + basePath);
         }
-        
-        log.info("Streaming game events from file...");
-        return Files.lines(logPath);
+        try (Stream<Path> files = Files.list(basePath)) {
+            return files.filter(path -> Files.isRegularFile(path) && path.getFileName().toString().endsWith(".log"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+    
+    /**
+     * Game ID of a log file: its name without the extension ("game1.log" -> "game1").
+     */
+    public static String gameIdOf(Path logPath) {
+        String name = logPath.getFileName().toString();
+        return name.endsWith(".log") ? name.substring(0, name.length() - 4) : name;
     }
     
     public String getGameId() {
@@ -0,0 +1,353 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.model.EventFormat;
+import GameEventIngestService.GameEventIngestService.model.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a game log by memory-mapping it (or from a buffer already in memory, such
+ * as a generated game) and tokenizing each line in place. Lines
+ * have the form {@code MM:SS <name...> <number> <event-type>}. The name may have
+ * any number of words: the first is the first name and the rest are the last name
+ * ("Dereck Lively II" gives "Dereck" and "Lively II"). The number may be written
+ * as {@code (77)}.
+ * <p>
+ * Each event is encoded by a {@link GameEventEncoder} into one reusable buffer.
+ * Nothing is allocated per line except on the error path. Large logs are mapped
+ * one window at a time. A scanner is not thread-safe; use one per file.
+ */
+public class GameLogScanner {
+
+    private static final Logger log = LoggerFactory.getLogger(GameLogScanner.class);
+
+    static final int DEFAULT_WINDOW_BYTES = 64 << 20;
+    private static final int MAX_TOKENS = 16;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Receives one event; {@code record[0, length)} is only valid during the call. The record carries the player
+     * number as written, so {@code playerNumber} is -1 when it is not numeric (e.g. "?").
+     */
+    @FunctionalInterface
+    public interface EventSink {
+        void accept(int gameSeconds, int playerNumber, EventType type, byte[] record, int length)
+                throws InterruptedException;
+    }
+
+    private final int windowBytes;
+    private final int[] tokenStarts = new int[MAX_TOKENS];
+    private final int[] tokenEnds = new int[MAX_TOKENS];
+    private final GameEventEncoder encoder;
+    // The line being passed to the sink, for the player accessors below
+    private ByteBuffer line;
+    private int tokens;
+    private int numberStart;
+    private int numberEnd;
+    private long lineEndOffset;
+    private long position;
+    /** Lines seen by this scanner; after a resume, counted from the resume offset. */
+    private long lineNumber;
+    private long malformed;
+
+    public GameLogScanner(EventFormat format) {
+        this(format, DEFAULT_WINDOW_BYTES);
+    }
+
+    GameLogScanner(EventFormat format, int windowBytes) {
+        this.encoder = new GameEventEncoder(format);
+        this.windowBytes = windowBytes;
+    }
+
+    /**
+     * Scans the whole log, passing every well-formed line to {@code sink}.
+     * Malformed lines are logged and counted (see {@link #getMalformed()}).
+     *
+     * @return the number of events passed to the sink.
+     */
+    public int scan(Path logPath, EventSink sink) throws IOException, InterruptedException {
+        return scan(logPath, 0, false, sink);
+    }
+
+    /**
+     * Scans the log from byte {@code offset}. With {@code wholeLinesOnly} a last line
+     * without its newline is left for a later scan, as it may still be being written.
+     * Afterwards {@link #getPosition()} is the offset just past the last line consumed.
+     *
+     * @return the number of events passed to the sink.
+     */
+    public int scan(Path logPath, long offset, boolean wholeLinesOnly, EventSink sink)
+            throws IOException, InterruptedException {
+        int events = 0;
+        position = offset;
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            while (position < size) {
+                int mapped = (int) Math.min(windowBytes, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, mapped);
+                boolean last = position + mapped == size;
+                // Only whole lines are scanned; a line cut by the window end starts the next window.
+                int limit = mapped;
+                if (!last || wholeLinesOnly) {
+                    while (limit > 0 && window.get(limit - 1) != '\n') {
+                        limit--;
+                    }
+                    if (limit == 0) {
+                        if (last) {
+                            break;
+                        }
+                        throw new IOException("Line longer than " + windowBytes + " bytes at offset " + position
+                                + " in " + logPath);
+                    }
+                }
+                events += scanLines(window, limit, size, sink, logPath.getFileName().toString());
+                position += limit;
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Scans a log held in memory, such as a generated game, from byte {@code offset}
+     * to its limit. Afterwards {@link #getPosition()} is the offset just past it.
+     *
+     * @return the number of events passed to the sink.
+     */
+    public int scan(ByteBuffer log, long offset, String source, EventSink sink) throws InterruptedException {
+        ByteBuffer lines = log.duplicate().position((int) offset).slice();
+        position = offset;
+        int events = scanLines(lines, lines.limit(), offset + lines.limit(), sink, source);
+        position += lines.limit();
+        return events;
+    }
+
+    /** Scans {@code window[0, limit)}, which starts at {@link #position} of a log of {@code size} bytes. */
+    private int scanLines(ByteBuffer window, int limit, long size, EventSink sink, String source)
+            throws InterruptedException {
+        int events = 0;
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && window.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            lineNumber++;
+            lineEndOffset = Math.min(position + lineEnd + 1, size);
+            if (scanLine(window, lineStart, lineEnd, sink, source, lineNumber)) {
+                events++;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return events;
+    }
+
+    /**
+     * Byte offset just past the current event's line, where a scan can resume after
+     * it. Only valid inside the sink.
+     */
+    public long getLineEnd() {
+        return lineEndOffset;
+    }
+
+    /** Byte offset just past the last line consumed by the latest scan. */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Hash identifying the current event's player by name and number, computed
+     * without allocating. Equal to {@link #playerKey(String, String, String)} of the
+     * same fields. Only valid inside the sink.
+     */
+    public long getPlayerKey() {
+        long hash = FNV_OFFSET;
+        hash = hashBytes(hash, line, tokenStarts[1], tokenEnds[1]);
+        hash = (hash ^ 0) * FNV_PRIME;
+        for (int t = 2; t < tokens - 2; t++) {
+            if (t > 2) {
+                hash = (hash ^ ' ') * FNV_PRIME;
+            }
+            hash = hashBytes(hash, line, tokenStarts[t], tokenEnds[t]);
+        }
+        hash = (hash ^ 0) * FNV_PRIME;
+        return hashBytes(hash, line, numberStart, numberEnd);
+    }
+
+    /** First name of the current event's player; allocates. Only valid inside the sink. */
+    public String getFirstName() {
+        return text(tokenStarts[1], tokenEnds[1]);
+    }
+
+    /** Last name of the current event's player, words separated by single spaces; allocates. */
+    public String getLastName() {
+        StringBuilder lastName = new StringBuilder();
+        for (int t = 2; t < tokens - 2; t++) {
+            if (t > 2) {
+                lastName.append(' ');
+            }
+            lastName.append(text(tokenStarts[t], tokenEnds[t]));
+        }
+        return lastName.toString();
+    }
+
+    /** Jersey number of the current event's player as written; allocates. */
+    public String getPlayerNumber() {
+        return text(numberStart, numberEnd);
+    }
+
+    /**
+     * The key {@link #getPlayerKey()} returns for a player with these fields.
+     */
+    public static long playerKey(String firstName, String lastName, String number) {
+        long hash = FNV_OFFSET;
+        for (byte b : firstName.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        hash = (hash ^ 0) * FNV_PRIME;
+        for (byte b : lastName.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        hash = (hash ^ 0) * FNV_PRIME;
+        for (byte b : number.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long hashBytes(long hash, ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ (buffer.get(i) & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private String text(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        line.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Lines skipped because they could not be parsed, across all scans. */
+    public long getMalformed() {
+        return malformed;
+    }
+
+    private boolean scanLine(ByteBuffer line, int start, int end, EventSink sink, String source, long lineNumber)
+            throws InterruptedException {
+        int tokens = 0;
+        int i = start;
+        while (i < end) {
+            byte b = line.get(i);
+            if (b == ' ' || b == '\t' || b == '\r') {
+                i++;
+                continue;
+            }
+            if (tokens == MAX_TOKENS) {
+                return malformed(line, start, end, source, lineNumber, "too many fields");
+            }
+            tokenStarts[tokens] = i;
+            while (i < end && (b = line.get(i)) != ' ' && b != '\t' && b != '\r') {
+                i++;
+            }
+            tokenEnds[tokens++] = i;
+        }
+        if (tokens == 0) {
+            return false;
+        }
+        if (tokens < 4) {
+            return malformed(line, start, end, source, lineNumber, "expected clock, name, number and event type");
+        }
+
+        int clock = tokenStarts[0];
+        int gameSeconds = parseClock(line, clock, tokenEnds[0]);
+        if (gameSeconds < 0) {
+            return malformed(line, start, end, source, lineNumber, "bad game clock");
+        }
+        int numberStart = tokenStarts[tokens - 2];
+        int numberEnd = tokenEnds[tokens - 2];
+        if (numberEnd - numberStart > 2 && line.get(numberStart) == '(' && line.get(numberEnd - 1) == ')') {
+            numberStart++;
+            numberEnd--;
+        }
+        int playerNumber = parseNumber(line, numberStart, numberEnd);
+        int typeStart = tokenStarts[tokens - 1];
+        EventType type = EventType.match(line, typeStart, tokenEnds[tokens - 1] - typeStart);
+        if (type == null) {
+            return malformed(line, start, end, source, lineNumber, "unknown event type");
+        }
+
+        encoder.start(gameSeconds, type);
+        encoder.firstName(line, tokenStarts[1], tokenEnds[1]);
+        // Everything between the first name and the number, single spaces between words
+        for (int t = 2; t < tokens - 2; t++) {
+            encoder.lastNameWord(line, tokenStarts[t], tokenEnds[t]);
+        }
+        encoder.number(line, numberStart, numberEnd);
+        encoder.clock(line, clock, tokenEnds[0]);
+        if (!encoder.isValid()) {
+            return malformed(line, start, end, source, lineNumber, "too long for the " + encoder.getFormat() + " format");
+        }
+
+        this.line = line;
+        this.tokens = tokens;
+        this.numberStart = numberStart;
+        this.numberEnd = numberEnd;
+        sink.accept(gameSeconds, playerNumber, type, encoder.getBuffer(), encoder.getLength());
+        return true;
+    }
+
+    /** Parses {@code M:SS} or {@code MM:SS} into seconds, or returns -1. */
+    static int parseClock(ByteBuffer buffer, int start, int end) {
+        int minutes = 0;
+        int i = start;
+        while (i < end && buffer.get(i) != ':') {
+            int digit = buffer.get(i++) - '0';
+            if (digit < 0 || digit > 9 || i - start > 4) {
+                return -1;
+            }
+            minutes = minutes * 10 + digit;
+        }
+        if (i == start || end - i != 3) {
+            return -1;
+        }
+        int tens = buffer.get(i + 1) - '0';
+        int ones = buffer.get(i + 2) - '0';
+        if (tens < 0 || tens > 5 || ones < 0 || ones > 9) {
+            return -1;
+        }
+        return minutes * 60 + tens * 10 + ones;
+    }
+
+    private static int parseNumber(ByteBuffer buffer, int start, int end) {
+        if (end - start > 3) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private boolean malformed(ByteBuffer buffer, int start, int end, String source, long lineNumber, String reason) {
+        malformed++;
+        byte[] raw = new byte[end - start];
+        buffer.get(start, raw);
+        log.warn("{}:{}: skipping line ({}): '{}'", source, lineNumber, reason,
+                new String(raw, StandardCharsets.UTF_8).trim());
+        return false;
+    }
+}
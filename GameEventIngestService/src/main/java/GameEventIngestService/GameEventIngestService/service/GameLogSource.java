@@ -0,0 +1,42 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Where a game's log lines come from: a file, or a buffer such as a generated
+ * game. Either can be scanned again from an offset.
+ */
+final class GameLogSource {
+
+    private final Path path;
+    private final ByteBuffer content;
+    private final String name;
+
+    private GameLogSource(Path path, ByteBuffer content, String name) {
+        this.path = path;
+        this.content = content;
+        this.name = name;
+    }
+
+    static GameLogSource file(Path path) {
+        return new GameLogSource(path, null, path.getFileName().toString());
+    }
+
+    static GameLogSource memory(ByteBuffer content, String name) {
+        return new GameLogSource(null, content, name);
+    }
+
+    int scan(GameLogScanner scanner, long offset, GameLogScanner.EventSink sink)
+            throws IOException, InterruptedException {
+        return path != null
+                ? scanner.scan(path, offset, false, sink)
+                : scanner.scan(content, offset, name, sink);
+    }
+
+    @Override
+    public String toString() {
+        return path != null ? path.toString() : name;
+    }
+}
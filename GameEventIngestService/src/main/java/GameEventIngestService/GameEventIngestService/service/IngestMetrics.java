@@ -0,0 +1,238 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Supplier;
+
+/**
+ * Meters of the ingest pipeline, from lines read to records acknowledged. They
+ * are scraped from {@code /metrics} while the service runs (see
+ * {@link MetricsServer}) and summarized in the log at the end of a run, so a slow
+ * backfill shows whether reading, pacing or the broker is holding it back.
+ */
+@Service
+public class IngestMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestMetrics.class);
+
+    static final String SINK_KAFKA = "kafka";
+    static final String SINK_DATABASE = "game_events";
+
+    private final MeterRegistry registry;
+    private final Counter linesRead;
+    private final Counter linesMalformed;
+    private final Timer acknowledged;
+    private final Timer failed;
+    private final DistributionSummary recordBytes;
+    private final LongAccumulator maxInFlight = new LongAccumulator(Math::max, 0);
+    private final Timer gameDuration;
+    private final DistributionSummary followBatch;
+    private final Timer followLatency;
+    private final Map<String, Timer> gameLag = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> sinkBatches = new ConcurrentHashMap<>();
+    private final Map<String, Counter> sinkFailures = new ConcurrentHashMap<>();
+    private final Timer ringWait;
+    private final Counter sinkDetached;
+
+    public IngestMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.linesRead = Counter.builder("ingest.lines.read")
+                .description("Log lines read, including malformed ones")
+                .register(registry);
+        this.linesMalformed = Counter.builder("ingest.lines.malformed")
+                .description("Log lines skipped because they did not parse")
+                .register(registry);
+        this.acknowledged = sendTimer("acknowledged");
+        this.failed = sendTimer("failed");
+        this.recordBytes = DistributionSummary.builder("ingest.record.bytes")
+                .description("Record value size before compression")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("ingest.in.flight.max", maxInFlight, LongAccumulator::get)
+                .description("Most records unacknowledged at once")
+                .register(registry);
+        this.gameDuration = Timer.builder("ingest.game.duration")
+                .description("Time to read and send one game log")
+                .register(registry);
+        this.followBatch = DistributionSummary.builder("ingest.follow.batch")
+                .description("Events sent per pass over a followed log")
+                .baseUnit("events")
+                .register(registry);
+        this.followLatency = Timer.builder("ingest.follow.latency")
+                .description("Time from new log bytes being seen to their events being acknowledged")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.ringWait = Timer.builder("ingest.ring.wait")
+                .description("Time the reader waited for a sink to free ring slots, per game")
+                .register(registry);
+        this.sinkDetached = Counter.builder("ingest.sink.detached")
+                .description("Games whose game_events sink fell a ring behind and read the log itself")
+                .register(registry);
+    }
+
+    private Timer sendTimer(String outcome) {
+        return Timer.builder("ingest.send.latency")
+                .description("Time from handing a record to the producer to its acknowledgment")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /** Reports the producer's unacknowledged records as {@code ingest.in.flight}. */
+    void bindInFlight(Supplier<Number> inFlight) {
+        Gauge.builder("ingest.in.flight", inFlight)
+                .description("Records handed to the producer and not yet acknowledged")
+                .register(registry);
+    }
+
+    void lineRead() {
+        linesRead.increment();
+    }
+
+    void linesMalformed(long count) {
+        if (count > 0) {
+            linesRead.increment(count);
+            linesMalformed.increment(count);
+        }
+    }
+
+    void recordQueued(int bytes, int inFlight) {
+        recordBytes.record(bytes);
+        maxInFlight.accumulate(inFlight);
+    }
+
+    void recordSent(long latencyNanos, boolean delivered) {
+        (delivered ? acknowledged : failed).record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void gameIngested(long durationNanos) {
+        gameDuration.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * How far behind its schedule an event of a paced game was sent, tagged by
+     * game; 0 when it was on time.
+     */
+    void recordLag(String gameId, long lagNanos) {
+        gameLag.computeIfAbsent(gameId, game -> Timer.builder("ingest.game.lag")
+                        .description("How far behind the game clock events were sent")
+                        .tag("game", game)
+                        .register(registry))
+                .record(lagNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a batch a sink consumed: Kafka records sent, or rows written. The
+     * batch count gives each sink's throughput.
+     */
+    void sinkBatch(String sink, long records) {
+        sinkBatches.computeIfAbsent(sink, name -> DistributionSummary.builder("ingest.sink.batch")
+                        .description("Records a sink took from the ring or wrote at once")
+                        .baseUnit("records")
+                        .tag("sink", name)
+                        .register(registry))
+                .record(records);
+    }
+
+    void sinkFailed(String sink) {
+        sinkFailures.computeIfAbsent(sink, name -> Counter.builder("ingest.sink.failed")
+                        .description("Games a sink gave up on")
+                        .tag("sink", name)
+                        .register(registry))
+                .increment();
+    }
+
+    void sinkDetached() {
+        sinkDetached.increment();
+    }
+
+    void ringWaited(long nanos) {
+        ringWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void followPass(int events, long latencyNanos) {
+        followBatch.record(events);
+        followLatency.record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Logs where the time of a run went. Percentiles and maxima cover roughly the
+     * last two minutes; counts cover the whole run.
+     */
+    public void logSummary(double seconds) {
+        long lines = (long) linesRead.count();
+        log.info("Lines: {} read ({}/s), {} malformed", lines,
+                String.format("%.0f", seconds > 0 ? lines / seconds : 0), (long) linesMalformed.count());
+        log.info("Sends: {} acknowledged, {} failed; latency {}max {} ms; up to {} in flight; {} bytes/record",
+                acknowledged.count(), failed.count(), percentiles(acknowledged),
+                format(acknowledged.max(TimeUnit.MILLISECONDS)), maxInFlight.get(), format(recordBytes.mean()));
+        Double batchSize = kafkaGauge("kafka.producer.batch.size.avg");
+        Double queueTime = kafkaGauge("kafka.producer.record.queue.time.avg");
+        if (batchSize != null && queueTime != null) {
+            log.info("Producer: {} bytes/batch, {} ms average queue time before sending",
+                    format(batchSize), format(queueTime));
+        }
+        Set<String> sinks = new TreeSet<>(sinkBatches.keySet());
+        sinks.addAll(sinkFailures.keySet());
+        for (String sink : sinks) {
+            DistributionSummary batches = sinkBatches.get(sink);
+            Counter failures = sinkFailures.get(sink);
+            double records = batches != null ? batches.totalAmount() : 0;
+            log.info("Sink {}: {} records ({}/s) in {} batches of {} on average; {} games failed", sink,
+                    (long) records, String.format("%.0f", seconds > 0 ? records / seconds : 0),
+                    batches != null ? batches.count() : 0, format(batches != null ? batches.mean() : 0),
+                    failures != null ? (long) failures.count() : 0);
+        }
+        if (sinkDetached.count() > 0 || ringWait.totalTime(TimeUnit.MILLISECONDS) >= 1) {
+            log.info("Ring: reader waited {} ms for Kafka in total; {} games caught up on game_events from the log",
+                    format(ringWait.totalTime(TimeUnit.MILLISECONDS)), (long) sinkDetached.count());
+        }
+        if (gameDuration.count() > 0) {
+            log.info("Games: {}, {} ms average, slowest {} ms", gameDuration.count(),
+                    format(gameDuration.mean(TimeUnit.MILLISECONDS)), format(gameDuration.max(TimeUnit.MILLISECONDS)));
+        }
+        gameLag.entrySet().stream()
+                .max((a, b) -> Double.compare(a.getValue().max(TimeUnit.MILLISECONDS), b.getValue().max(TimeUnit.MILLISECONDS)))
+                .ifPresent(worst -> log.info("Pacing: {} of {} games fell behind schedule, {} by up to {} ms",
+                        gameLag.values().stream().filter(lag -> lag.max(TimeUnit.NANOSECONDS) > 0).count(),
+                        gameLag.size(), worst.getKey(), format(worst.getValue().max(TimeUnit.MILLISECONDS))));
+        if (followBatch.count() > 0) {
+            log.info("Follow: {} passes, {} events/pass, append-to-ack {}max {} ms", followBatch.count(),
+                    format(followBatch.mean()), percentiles(followLatency),
+                    format(followLatency.max(TimeUnit.MILLISECONDS)));
+        }
+    }
+
+    private Double kafkaGauge(String name) {
+        Gauge gauge = registry.find(name).gauge();
+        return gauge != null && Double.isFinite(gauge.value()) ? gauge.value() : null;
+    }
+
+    private static String percentiles(Timer timer) {
+        StringBuilder text = new StringBuilder();
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            text.append('p').append(format(percentile.percentile() * 100).replaceAll("\\.0$", ""))
+                    .append(' ').append(format(percentile.value(TimeUnit.MILLISECONDS))).append(" ms, ");
+        }
+        return text.toString();
+    }
+
+    private static String format(double value) {
+        return String.format("%.1f", value);
+    }
+}
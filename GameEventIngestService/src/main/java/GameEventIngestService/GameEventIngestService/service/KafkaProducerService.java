@@ -1,21 +1,134 @@
 package GameEventIngestService.GameEventIngestService.service;
 
+import GameEventIngestService.GameEventIngestService.config.GameEventConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous, keyed producer. Records are keyed by game ID so all events of a
+ * game land on one partition and keep their order. Sends never wait for the
+ * broker; at most {@code game.events.kafka.max-in-flight} records may be
+ * unacknowledged, after which {@link #send} blocks until acknowledgments catch up.
+ * Batching and compression are producer settings (see application.properties).
+ */
 @Service
 public class KafkaProducerService {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaProducerService.class);
 
+    /** Header naming the kind of a non-event record; events carry no header. */
+    public static final String RECORD_TYPE_HEADER = "type";
+    private static final byte[] SNAPSHOT = "snapshot".getBytes(StandardCharsets.US_ASCII);
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder acknowledged = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final IngestMetrics metrics;
+
     @Autowired
-    private KafkaTemplate<String, String> kafkaTemplate;
+    public KafkaProducerService(KafkaTemplate<String, byte[]> kafkaTemplate, GameEventConfig gameEventConfig,
+                                IngestMetrics metrics) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.maxInFlight = gameEventConfig.getKafka().getMaxInFlight();
+        this.inFlight = new Semaphore(maxInFlight);
+        this.metrics = metrics;
+        metrics.bindInFlight(this::getInFlight);
+    }
+
+    /**
+     * Queues one record. Delivery failures are counted and logged, never thrown;
+     * only a failure to hand the record to the producer at all is.
+     */
+    public void send(String topic, String gameId, byte[] message) throws InterruptedException {
+        dispatch(gameId, message, () -> kafkaTemplate.send(topic, gameId, message));
+    }
+
+    /**
+     * Queues a box-score snapshot. It shares the game's key, and so its partition and
+     * ordering, and is marked with a {@value #RECORD_TYPE_HEADER} header so
+     * consumers can tell it from events.
+     */
+    public void sendSnapshot(String topic, String gameId, byte[] snapshot) throws InterruptedException {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, gameId, snapshot);
+        record.headers().add(RECORD_TYPE_HEADER, SNAPSHOT);
+        dispatch(gameId, snapshot, () -> kafkaTemplate.send(record));
+    }
+
+    private void dispatch(String gameId, byte[] message, Supplier<CompletableFuture<SendResult<String, byte[]>>> send)
+            throws InterruptedException {
+        inFlight.acquire();
+        log.debug("Producing {} byte message for {}", message.length, gameId);
+        metrics.recordQueued(message.length, getInFlight());
+        long queued = System.nanoTime();
+        try {
+            send.get().whenComplete((result, error) -> {
+                inFlight.release();
+                metrics.recordSent(System.nanoTime() - queued, error == null);
+                if (error == null) {
+                    acknowledged.increment();
+                } else {
+                    failed.increment();
+                    log.warn("Failed to deliver event for {}: {}", gameId, error.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            failed.increment();
+            metrics.recordSent(System.nanoTime() - queued, false);
+            throw e;
+        }
+        sent.increment();
+        bytes.add(message.length);
+    }
+
+    /**
+     * Flushes buffered batches and waits for every outstanding acknowledgment.
+     *
+     * @return false if acknowledgments were still missing after {@code timeoutMillis}.
+     */
+    public boolean flush(long timeoutMillis) throws InterruptedException {
+        kafkaTemplate.flush();
+        if (!inFlight.tryAcquire(maxInFlight, timeoutMillis, TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        inFlight.release(maxInFlight);
+        return true;
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    /** Value bytes handed to the producer, before compression. */
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    public long getAcknowledged() {
+        return acknowledged.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
 
-    public void sendMessage(String topic, String message) {
-        log.info("Producing message: {}", message);
-        kafkaTemplate.send(topic, message);
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
     }
-} 
\ No newline at end of file
+}
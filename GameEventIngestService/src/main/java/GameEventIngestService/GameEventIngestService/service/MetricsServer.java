@@ -0,0 +1,61 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.config.GameEventConfig;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves {@code GET /metrics} in the Prometheus text format on
+ * {@code game.events.metrics.port}. The service is a command-line job with no web
+ * stack, so this uses the JDK's HTTP server on one thread rather than an
+ * embedded servlet container.
+ */
+@Service
+public class MetricsServer {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsServer.class);
+
+    private final PrometheusMeterRegistry registry;
+    private final int port;
+    private HttpServer server;
+
+    public MetricsServer(PrometheusMeterRegistry registry, GameEventConfig gameEventConfig) {
+        this.registry = registry;
+        this.port = gameEventConfig.getMetrics().getPort();
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (port <= 0) {
+            return;
+        }
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        log.info("Serving metrics on http://localhost:{}/metrics", port);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.model.EventFormat;
+import GameEventIngestService.GameEventIngestService.model.Roster;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BoxScoreTrackerTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void foldsEventsIntoTeamAndPlayerTotals() throws Exception {
+		Roster roster = Roster.load(new ByteArrayInputStream(("# team,player,number\n"
+				+ "Celtics,Jrue Holiday,4\nMavericks,Dereck Lively II,2\n").getBytes(StandardCharsets.UTF_8)));
+		BoxScoreTracker tracker = new BoxScoreTracker(roster, 60);
+		Path log = dir.resolve("game1.log");
+		Files.writeString(log, "00:10 Jrue Holiday 4 score-3\n"
+				+ "00:59 Dereck Lively II 2 rebound\n"
+				+ "01:00 Dereck Lively II 2 score-2\n"
+				+ "03:30 Luka Doncic 77 score-1\n");
+		List<String> snapshots = new ArrayList<>();
+		GameLogScanner scanner = new GameLogScanner(EventFormat.BINARY);
+
+		scanner.scan(log, (gameSeconds, playerNumber, type, record, length) -> {
+			byte[] snapshot = tracker.beforeEvent(gameSeconds);
+			if (snapshot != null) {
+				snapshots.add(new String(snapshot, StandardCharsets.UTF_8));
+			}
+			tracker.apply(scanner, type);
+		});
+
+		// 00:10 to 01:00 fall in the first minute; 03:30 passes the 1, 2 and 3 minute marks at once
+		assertEquals(1, snapshots.size());
+		assertEquals("{\"game_seconds\":180,\"events\":3,"
+				+ "\"teams\":[{\"team\":\"Celtics\",\"points\":3},{\"team\":\"Mavericks\",\"points\":2}],"
+				+ "\"players\":[{\"firstname\":\"Jrue\",\"lastname\":\"Holiday\",\"player_number\":\"4\",\"team\":\"Celtics\","
+				+ "\"points\":3,\"rebounds\":0,\"assists\":0,\"fouls\":0},"
+				+ "{\"firstname\":\"Dereck\",\"lastname\":\"Lively II\",\"player_number\":\"2\",\"team\":\"Mavericks\","
+				+ "\"points\":2,\"rebounds\":1,\"assists\":0,\"fouls\":0}]}", snapshots.get(0));
+
+		String last = new String(tracker.finalSnapshot(210), StandardCharsets.UTF_8);
+		assertEquals(true, last.startsWith("{\"game_seconds\":210,\"events\":4,"));
+		assertEquals(true, last.endsWith("{\"firstname\":\"Luka\",\"lastname\":\"Doncic\",\"player_number\":\"77\",\"team\":\"\","
+				+ "\"points\":1,\"rebounds\":0,\"assists\":0,\"fouls\":0}]}"));
+		assertNull(tracker.finalSnapshot(210));
+	}
+}
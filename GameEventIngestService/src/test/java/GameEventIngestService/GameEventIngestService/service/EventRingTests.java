@@ -0,0 +1,114 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventRingTests {
+
+	@Test
+	void detachesALaggingConsumerInsteadOfWaiting() throws Exception {
+		EventRing ring = new EventRing(2, false, true);
+		publish(ring, 0);
+		publish(ring, 1);
+		assertEquals(1, ring.waitFor(0));
+		ring.consumer(0).consumedUpTo(2);
+
+		publish(ring, 2);
+
+		assertTrue(ring.consumer(1).isDetached());
+		assertEquals(2, ring.get(0).sequence());
+		assertEquals(1, ring.get(1).sequence());
+	}
+
+	@Test
+	void waitsForAConsumerThatCannotBeDetached() throws Exception {
+		EventRing ring = new EventRing(2, false);
+		publish(ring, 0);
+		publish(ring, 1);
+
+		AtomicBoolean published = new AtomicBoolean();
+		CountDownLatch done = new CountDownLatch(1);
+		Thread producer = new Thread(() -> {
+			try {
+				publish(ring, 2);
+				published.set(true);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			done.countDown();
+		});
+		producer.start();
+		assertFalse(done.await(100, TimeUnit.MILLISECONDS));
+		assertFalse(published.get());
+
+		ring.consumer(0).consumedUpTo(1);
+		assertTrue(done.await(1, TimeUnit.SECONDS));
+		assertTrue(published.get());
+		ring.close();
+		assertEquals(2, ring.waitFor(2));
+		assertEquals(-1, ring.waitFor(3));
+	}
+
+	@Test
+	void wakesABlockedConsumerWhenAnEventIsPublished() throws Exception {
+		EventRing ring = new EventRing(2, false);
+		long[] available = new long[2];
+		CountDownLatch done = new CountDownLatch(2);
+		Thread consumer = new Thread(() -> {
+			try {
+				available[0] = ring.waitFor(0);
+				done.countDown();
+				available[1] = ring.waitFor(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			done.countDown();
+		});
+		consumer.start();
+		// Long enough for the consumer to stop spinning and block
+		Thread.sleep(50);
+
+		publish(ring, 0);
+		ring.consumer(0).consumedUpTo(1);
+		Thread.sleep(50);
+		ring.close();
+
+		assertTrue(done.await(1, TimeUnit.SECONDS));
+		assertEquals(0, available[0]);
+		assertEquals(-1, available[1]);
+	}
+
+	@Test
+	void wakesABlockedProducerWhenAConsumerFails() throws Exception {
+		EventRing ring = new EventRing(2, false);
+		publish(ring, 0);
+		publish(ring, 1);
+
+		AtomicReference<Throwable> thrown = new AtomicReference<>();
+		CountDownLatch done = new CountDownLatch(1);
+		Thread producer = new Thread(() -> {
+			try {
+				publish(ring, 2);
+			} catch (Throwable e) {
+				thrown.set(e);
+			}
+			done.countDown();
+		});
+		producer.start();
+		assertFalse(done.await(50, TimeUnit.MILLISECONDS));
+
+		ring.fail(new IllegalStateException("sink down"));
+		assertTrue(done.await(1, TimeUnit.SECONDS));
+		assertEquals("sink down", thrown.get().getMessage());
+	}
+
+	private static void publish(EventRing ring, int gameSeconds) throws InterruptedException {
+		ring.publish(EventRing.EVENT, gameSeconds, new byte[0], null, null, null, null, gameSeconds);
+	}
+}
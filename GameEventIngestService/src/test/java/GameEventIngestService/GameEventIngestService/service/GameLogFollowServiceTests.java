@@ -0,0 +1,74 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.config.GameEventConfig;
+import GameEventIngestService.GameEventIngestService.config.GameLogsConfig;
+import GameEventIngestService.GameEventIngestService.model.EventFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class GameLogFollowServiceTests {
+
+	@TempDir
+	Path dir;
+
+	private final KafkaProducerService producer = mock(KafkaProducerService.class);
+
+	@Test
+	void resumesFromCheckpointAndLeavesPartialLines() throws Exception {
+		String first = "00:22 Luka Doncic 77 score-2\n";
+		String second = "00:30 Jrue Holiday 4 score-2\n";
+		Path log = dir.resolve("game1.log");
+		Files.writeString(log, first + second + "00:30 Derrick White 9 ass");
+		CheckpointStore checkpoints = new CheckpointStore(dir.resolve("checkpoints"));
+		checkpoints.commit("game1", first.length());
+		when(producer.flush(anyLong())).thenReturn(true);
+
+		long events = service(checkpoints).follow(log, "game1");
+
+		assertEquals(1, events);
+		verify(producer).send(eq("topic"), eq("game1"), containing("\"lastname\":\"Holiday\""));
+		verify(producer, times(1)).send(anyString(), anyString(), any(byte[].class));
+		assertEquals(first.length() + second.length(), checkpoints.load("game1"));
+	}
+
+	@Test
+	void doesNotCommitUnacknowledgedEvents() throws Exception {
+		Path log = dir.resolve("game1.log");
+		Files.writeString(log, "00:22 Luka Doncic 77 score-2\n");
+		CheckpointStore checkpoints = new CheckpointStore(dir.resolve("checkpoints"));
+		when(producer.flush(anyLong())).thenReturn(true);
+		when(producer.getFailed()).thenReturn(0L, 1L);
+
+		service(checkpoints).follow(log, "game1");
+
+		// The first pass failed and was re-read; the second was acknowledged
+		verify(producer, times(2)).send(eq("topic"), eq("game1"), containing("Doncic"));
+		assertEquals(Files.size(log), checkpoints.load("game1"));
+	}
+
+	private GameLogFollowService service(CheckpointStore checkpoints) {
+		GameEventConfig eventConfig = new GameEventConfig();
+		eventConfig.getKafka().setTopic("topic");
+		eventConfig.getKafka().setFormat(EventFormat.JSON);
+		GameLogsConfig logsConfig = new GameLogsConfig();
+		logsConfig.setFollowPollMs(10);
+		logsConfig.setFollowIdleTimeoutMs(200);
+		return new GameLogFollowService(producer, checkpoints, eventConfig, logsConfig,
+				new IngestMetrics(new SimpleMeterRegistry()));
+	}
+
+	private static byte[] containing(String text) {
+		return argThat(value -> new String(value, StandardCharsets.UTF_8).contains(text));
+	}
+}
@@ -0,0 +1,81 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.model.EventFormat;
+import GameEventIngestService.GameEventIngestService.model.Roster;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameLogGeneratorTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void generatesWellFormedGamesOnTheClock() throws Exception {
+		GameLogGenerator generator = new GameLogGenerator(Roster.loadDefault(), 7);
+		byte[] game = generator.game(3, 1000);
+		GameLogScanner scanner = new GameLogScanner(EventFormat.JSON);
+		List<Integer> seconds = new ArrayList<>();
+
+		int events = scanner.scan(ByteBuffer.wrap(game), 0, generator.gameId(3),
+				(gameSeconds, playerNumber, type, record, length) -> seconds.add(gameSeconds));
+
+		assertEquals(1000, events);
+		assertEquals(0, scanner.getMalformed());
+		for (int i = 1; i < seconds.size(); i++) {
+			assertTrue(seconds.get(i - 1) <= seconds.get(i), "clock went backwards at line " + (i + 1));
+		}
+		assertTrue(seconds.get(seconds.size() - 1) < GameLogGenerator.GAME_SECONDS);
+	}
+
+	@Test
+	void sameSeedGeneratesTheSameGames() throws Exception {
+		Roster roster = Roster.loadDefault();
+		GameLogGenerator generator = new GameLogGenerator(roster, 42);
+
+		assertArrayEquals(generator.game(5, 450), new GameLogGenerator(roster, 42).game(5, 450));
+		assertFalse(Arrays.equals(generator.game(5, 450), generator.game(6, 450)));
+		assertFalse(Arrays.equals(generator.game(5, 450), new GameLogGenerator(roster, 43).game(5, 450)));
+		assertNotEquals(generator.homeTeam(1), generator.homeTeam(2));
+		assertEquals(generator.homeTeam(1), generator.awayTeam(2));
+	}
+
+	@Test
+	void writesASeasonOfLogs() throws Exception {
+		GameLogGenerator generator = new GameLogGenerator(Roster.loadDefault(), 1);
+
+		List<Path> written = generator.writeSeason(dir, 3, 10);
+
+		assertEquals(List.of(dir.resolve("sim1-1.log"), dir.resolve("sim1-2.log"), dir.resolve("sim1-3.log")), written);
+		assertEquals(10, Files.readAllLines(written.get(1)).size());
+		assertArrayEquals(generator.game(2, 10), Files.readAllBytes(written.get(1)));
+		assertEquals("sim1-2", GameLogReaderService.gameIdOf(written.get(1)));
+		assertNull(GameEventTableWriter.gameNumber("sim1-2"));
+	}
+
+	@Test
+	void rejectsNegativeSizes() throws Exception {
+		GameLogGenerator generator = new GameLogGenerator(Roster.loadDefault(), 1);
+
+		assertThrows(IllegalArgumentException.class, () -> generator.game(1, -1));
+		assertThrows(IllegalArgumentException.class, () -> generator.writeSeason(dir, -1, 10));
+		assertThrows(IllegalArgumentException.class, () -> generator.writeSeason(dir, 3, -10));
+		assertEquals(0, generator.game(1, 0).length);
+		assertEquals(0, dir.toFile().list().length);
+	}
+}
@@ -0,0 +1,140 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.config.GameEventConfig;
+import GameEventIngestService.GameEventIngestService.model.EventFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import org.mockito.InOrder;
+
+class GameLogIngestServiceTests {
+
+	@TempDir
+	Path dir;
+
+	private final KafkaProducerService producer = mock(KafkaProducerService.class);
+	private final GameEventTableWriter tableWriter = mock(GameEventTableWriter.class);
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void amplifiesIntoDistinctGames() throws Exception {
+		Path log = dir.resolve("game1.log");
+		Files.writeString(log, "00:22 Luka Doncic 77 score-2\n00:30 Jrue Holiday 4 score-2\n");
+
+		int sent = service(0, 3).ingest(log, "game1");
+
+		assertEquals(6, sent);
+		for (String key : new String[]{"game1-1", "game1-2", "game1-3"}) {
+			verify(producer).send(eq("topic"), eq(key), containing("Doncic"));
+			verify(producer).send(eq("topic"), eq(key), containing("Holiday"));
+		}
+		verify(producer, never()).send(anyString(), eq("game1"), any(byte[].class));
+	}
+
+	@Test
+	void pacesOnTheGameClock() throws Exception {
+		Path log = dir.resolve("game1.log");
+		// 10 s of game clock at 50x is 200 ms
+		Files.writeString(log, "00:00 Luka Doncic 77 score-2\n00:05 Jrue Holiday 4 score-2\n00:10 Derrick White 9 assist\n");
+
+		long started = System.nanoTime();
+		service(50, 1).ingest(log, "game1");
+		long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+		assertTrue(elapsedMillis >= 190, "took " + elapsedMillis + " ms");
+		verify(producer, times(3)).send(eq("topic"), eq("game1"), any(byte[].class));
+		assertEquals(3, registry.get("ingest.lines.read").counter().count());
+		assertEquals(3, registry.get("ingest.game.lag").tag("game", "game1").timer().count());
+	}
+
+	@Test
+	void sendsSnapshotsOnTheGameClock() throws Exception {
+		Path log = dir.resolve("game1.log");
+		Files.writeString(log, "00:22 Luka Doncic 77 score-2\n05:00 Jrue Holiday 4 score-3\n05:01 Derrick White 9 assist\n");
+
+		service(0, 2).ingest(log, "game1");
+
+		for (String key : new String[]{"game1-1", "game1-2"}) {
+			InOrder order = inOrder(producer);
+			order.verify(producer).sendSnapshot(eq("topic"), eq(key), containing("\"game_seconds\":0,\"events\":0"));
+			order.verify(producer).send(eq("topic"), eq(key), containing("Doncic"));
+			order.verify(producer).send(eq("topic"), eq(key), containing("Holiday"));
+			order.verify(producer).sendSnapshot(eq("topic"), eq(key), containing("\"game_seconds\":300,\"events\":2"));
+			order.verify(producer).send(eq("topic"), eq(key), containing("White"));
+			order.verify(producer).sendSnapshot(eq("topic"), eq(key), containing("\"game_seconds\":301,\"events\":3"));
+		}
+	}
+
+	@Test
+	void writesGameEventsWithoutHoldingBackKafka() throws Exception {
+		Path log = dir.resolve("game1.log");
+		StringBuilder lines = new StringBuilder("00:22 Luka Doncic 77 score-2\n");
+		for (int i = 1; i < 200; i++) {
+			lines.append(String.format("%02d:%02d Jrue Holiday 4 rebound%n", 12 + i / 60, i % 60));
+		}
+		Files.writeString(log, lines);
+		when(tableWriter.open("game1")).thenReturn(new GameEventTableWriter.Game(1,
+				LocalDateTime.of(2024, 6, 6, 20, 0), Map.of("Luka Doncic#77", 109)));
+		List<Object[]> rows = Collections.synchronizedList(new ArrayList<>());
+		doAnswer(invocation -> {
+			// One slow batch per row: the database needs a second for the game
+			Thread.sleep(5);
+			rows.addAll(invocation.getArgument(0));
+			return null;
+		}).when(tableWriter).insert(anyList());
+
+		GameEventConfig config = config(0, 1);
+		config.setRingSize(2);
+		config.getDatabase().setEnabled(true);
+		config.getDatabase().setBatchSize(1);
+		GameLogIngestService service = new GameLogIngestService(producer, config, new IngestMetrics(registry), tableWriter);
+		long started = System.nanoTime();
+		service.ingest(log, "game1");
+		long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+		assertTrue(elapsedMillis < 500, "Kafka waited " + elapsedMillis + " ms for the database");
+		verify(producer, times(200)).send(eq("topic"), eq("game1"), any(byte[].class));
+		assertTrue(service.awaitDatabase(5000));
+		assertEquals(200, rows.size());
+		assertArrayEquals(new Object[]{1, 109, "2PT_MADE", Timestamp.valueOf("2024-06-06 20:00:22"), 1, "11:38",
+				"Luka Doncic makes 2-pointer", 2}, rows.get(0));
+		assertArrayEquals(new Object[]{1, null, "REBOUND", Timestamp.valueOf("2024-06-06 20:12:01"), 2, "11:59",
+				"Jrue Holiday rebounds", 0}, rows.get(1));
+		service.close();
+	}
+
+	private GameLogIngestService service(double speed, int amplify) throws Exception {
+		return new GameLogIngestService(producer, config(speed, amplify), new IngestMetrics(registry), tableWriter);
+	}
+
+	private static GameEventConfig config(double speed, int amplify) {
+		GameEventConfig config = new GameEventConfig();
+		config.getKafka().setTopic("topic");
+		config.getKafka().setFormat(EventFormat.JSON);
+		config.setSpeed(speed);
+		config.setAmplify(amplify);
+		return config;
+	}
+
+	private static byte[] containing(String text) {
+		return argThat(value -> new String(value, StandardCharsets.UTF_8).contains(text));
+	}
+}
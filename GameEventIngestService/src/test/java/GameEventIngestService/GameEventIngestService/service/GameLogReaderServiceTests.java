@@ -0,0 +1,36 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.config.GameLogsConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GameLogReaderServiceTests {
+
+	@TempDir
+	Path logs;
+
+	@Test
+	void discoversLogFilesSortedByName() throws Exception {
+		Files.writeString(logs.resolve("game2.log"), "00:22  Luka Doncic (77) score-2\n");
+		Files.writeString(logs.resolve("game1.log"), "01:12  P.J. Washington (25) rebound\n");
+		Files.writeString(logs.resolve("notes.txt"), "not a game");
+		Files.createDirectory(logs.resolve("archive.log"));
+
+		GameLogsConfig config = new GameLogsConfig();
+		config.setBasePath(logs.toString());
+		GameLogReaderService reader = new GameLogReaderService();
+		ReflectionTestUtils.setField(reader, "gameLogsConfig", config);
+
+		List<Path> found = reader.discoverGameLogs();
+
+		assertEquals(List.of(logs.resolve("game1.log"), logs.resolve("game2.log")), found);
+		assertEquals("game1", GameLogReaderService.gameIdOf(found.get(0)));
+	}
+}
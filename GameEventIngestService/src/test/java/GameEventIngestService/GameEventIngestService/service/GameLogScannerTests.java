@@ -0,0 +1,139 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.model.EventFormat;
+import GameEventIngestService.GameEventIngestService.model.EventType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GameLogScannerTests {
+
+	@TempDir
+	Path logs;
+
+	private final List<String> json = new ArrayList<>();
+	private final List<Integer> seconds = new ArrayList<>();
+	private final List<Integer> numbers = new ArrayList<>();
+	private final List<EventType> types = new ArrayList<>();
+
+	@Test
+	void handlesNamesOfAnyLength() throws Exception {
+		Path log = write("00:22 Luka Doncic 77 score-2\n"
+				+ "05:08 Dereck Lively II 2 rebound\r\n"
+				+ "06:02  Derrick Jones Jr. (55) foul\n"
+				+ "\n"
+				+ "47:59 Nene 31 assist");
+		GameLogScanner scanner = new GameLogScanner(EventFormat.JSON);
+
+		assertEquals(4, scanner.scan(log, this::collect));
+
+		assertEquals("{\"firstname\":\"Luka\",\"lastname\":\"Doncic\",\"player_number\":\"77\","
+				+ "\"event_type\":\"score-2\",\"timestamp\":\"00:22\"}", json.get(0));
+		assertEquals("{\"firstname\":\"Dereck\",\"lastname\":\"Lively II\",\"player_number\":\"2\","
+				+ "\"event_type\":\"rebound\",\"timestamp\":\"05:08\"}", json.get(1));
+		assertEquals("{\"firstname\":\"Derrick\",\"lastname\":\"Jones Jr.\",\"player_number\":\"55\","
+				+ "\"event_type\":\"foul\",\"timestamp\":\"06:02\"}", json.get(2));
+		assertEquals("{\"firstname\":\"Nene\",\"lastname\":\"\",\"player_number\":\"31\","
+				+ "\"event_type\":\"assist\",\"timestamp\":\"47:59\"}", json.get(3));
+		assertEquals(List.of(22, 308, 362, 2879), seconds);
+		assertEquals(List.of(77, 2, 55, 31), numbers);
+		assertEquals(List.of(EventType.SCORE_2, EventType.REBOUND, EventType.FOUL, EventType.ASSIST), types);
+		assertEquals(0, scanner.getMalformed());
+	}
+
+	@Test
+	void skipsMalformedLines() throws Exception {
+		Path log = write("0:6 Luka Doncic 77 score-2\n"
+				+ "00:30 Jrue Holiday 4 dunk\n"
+				+ "00:31 Jrue Holiday 4\n"
+				+ "00:32 Holiday assist\n"
+				+ "00:49 Kyrie \"Uncle Drew\" Irving 11 score-3\n");
+		GameLogScanner scanner = new GameLogScanner(EventFormat.JSON);
+
+		assertEquals(1, scanner.scan(log, this::collect));
+
+		assertEquals(4, scanner.getMalformed());
+		assertEquals("{\"firstname\":\"Kyrie\",\"lastname\":\"\\\"Uncle Drew\\\" Irving\",\"player_number\":\"11\","
+				+ "\"event_type\":\"score-3\",\"timestamp\":\"00:49\"}", json.get(0));
+	}
+
+	@Test
+	void passesNonNumericPlayerNumbersThrough() throws Exception {
+		Path log = write("13:24 Dante Exum ? rebound\n"
+				+ "13:25 Dante Exum 0011 foul\n");
+
+		assertEquals(2, new GameLogScanner(EventFormat.JSON).scan(log, this::collect));
+
+		assertEquals("{\"firstname\":\"Dante\",\"lastname\":\"Exum\",\"player_number\":\"?\","
+				+ "\"event_type\":\"rebound\",\"timestamp\":\"13:24\"}", json.get(0));
+		assertEquals(List.of(-1, -1), numbers);
+		assertEquals(List.of(804, 805), seconds);
+	}
+
+	@Test
+	void scansAcrossMappedWindows() throws Exception {
+		StringBuilder lines = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			lines.append(String.format("%02d:%02d Jayson Tatum 0 score-2%n", i / 60, i % 60));
+		}
+		// Windows much smaller than the file, and not aligned to lines
+		assertEquals(100, new GameLogScanner(EventFormat.JSON, 37).scan(write(lines.toString()), this::collect));
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, seconds.get(i));
+		}
+	}
+
+	@Test
+	void writesCompactBinaryRecords() throws Exception {
+		Path log = write("05:08 Dereck Lively II 00 rebound\n");
+
+		assertEquals(1, new GameLogScanner(EventFormat.BINARY).scan(log, this::collect));
+
+		byte[] record = json.get(0).getBytes(StandardCharsets.ISO_8859_1);
+		ByteBuffer buffer = ByteBuffer.wrap(record);
+		assertEquals(GameEventEncoder.VERSION, buffer.get());
+		assertEquals(308, buffer.getShort());
+		assertEquals(EventType.REBOUND.getCode(), buffer.get());
+		assertEquals("Dereck", readString(buffer));
+		assertEquals("Lively II", readString(buffer));
+		assertEquals("00", readString(buffer));
+		assertEquals(0, buffer.remaining());
+	}
+
+	@Test
+	void rejectsFieldsTooLongForBinary() throws Exception {
+		GameLogScanner scanner = new GameLogScanner(EventFormat.BINARY);
+
+		assertEquals(0, scanner.scan(write("00:22 Luka " + "D".repeat(300) + " 77 score-2\n"), this::collect));
+		assertEquals(1, scanner.getMalformed());
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.get() & 0xFF];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private void collect(int gameSeconds, int playerNumber, EventType type, byte[] bytes, int length) {
+		// ISO-8859-1 keeps binary records byte for byte; the JSON in these tests is ASCII
+		json.add(new String(bytes, 0, length, StandardCharsets.ISO_8859_1));
+		seconds.add(gameSeconds);
+		numbers.add(playerNumber);
+		types.add(type);
+	}
+
+	private Path write(String content) throws Exception {
+		Path log = logs.resolve("game1.log");
+		Files.writeString(log, content);
+		return log;
+	}
+}
@@ -0,0 +1,109 @@
+package GameEventIngestService.GameEventIngestService.service;
+
+import GameEventIngestService.GameEventIngestService.config.GameEventConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class KafkaProducerServiceTests {
+
+	@SuppressWarnings("unchecked")
+	private final KafkaTemplate<String, byte[]> kafkaTemplate = mock(KafkaTemplate.class);
+	private final List<CompletableFuture<SendResult<String, byte[]>>> pending = new ArrayList<>();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final IngestMetrics metrics = new IngestMetrics(registry);
+
+	@Test
+	void keysByGameAndCountsFailures() throws Exception {
+		KafkaProducerService producer = new KafkaProducerService(kafkaTemplate, config(10), metrics);
+		when(kafkaTemplate.send(eq("topic"), eq("game1"), any(byte[].class))).thenAnswer(invocation -> newPending());
+
+		producer.send("topic", "game1", bytes("{\"a\":1}"));
+		producer.send("topic", "game1", bytes("{\"a\":2}"));
+		assertEquals(2, producer.getInFlight());
+
+		pending.get(0).complete(null);
+		pending.get(1).completeExceptionally(new RuntimeException("broker down"));
+
+		assertTrue(producer.flush(100));
+		assertEquals(2, producer.getSent());
+		assertEquals(1, producer.getAcknowledged());
+		assertEquals(1, producer.getFailed());
+		assertEquals(14, producer.getBytes());
+		assertEquals(1, registry.get("ingest.send.latency").tag("outcome", "acknowledged").timer().count());
+		assertEquals(1, registry.get("ingest.send.latency").tag("outcome", "failed").timer().count());
+		assertEquals(2, registry.get("ingest.in.flight.max").gauge().value());
+		assertEquals(0, registry.get("ingest.in.flight").gauge().value());
+		verify(kafkaTemplate, times(2)).send(eq("topic"), eq("game1"), any(byte[].class));
+	}
+
+	@Test
+	void blocksOnceTheInFlightLimitIsReached() throws Exception {
+		KafkaProducerService producer = new KafkaProducerService(kafkaTemplate, config(1), metrics);
+		when(kafkaTemplate.send(anyString(), anyString(), any(byte[].class))).thenAnswer(invocation -> newPending());
+		producer.send("topic", "game1", bytes("first"));
+
+		AtomicBoolean secondSent = new AtomicBoolean();
+		Thread sender = new Thread(() -> {
+			try {
+				producer.send("topic", "game1", bytes("second"));
+				secondSent.set(true);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		sender.start();
+		TimeUnit.MILLISECONDS.sleep(100);
+		assertFalse(secondSent.get());
+		assertFalse(producer.flush(10));
+
+		pending.get(0).complete(null);
+		sender.join(1000);
+		assertTrue(secondSent.get());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void marksSnapshotsWithAHeader() throws Exception {
+		KafkaProducerService producer = new KafkaProducerService(kafkaTemplate, config(10), metrics);
+		when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> newPending());
+
+		producer.sendSnapshot("topic", "game1", bytes("{\"events\":0}"));
+
+		ArgumentCaptor<ProducerRecord<String, byte[]>> record = ArgumentCaptor.forClass(ProducerRecord.class);
+		verify(kafkaTemplate).send(record.capture());
+		assertEquals("game1", record.getValue().key());
+		assertEquals("snapshot", new String(record.getValue().headers()
+				.lastHeader(KafkaProducerService.RECORD_TYPE_HEADER).value(), StandardCharsets.US_ASCII));
+		assertEquals(1, producer.getInFlight());
+	}
+
+	private synchronized CompletableFuture<SendResult<String, byte[]>> newPending() {
+		CompletableFuture<SendResult<String, byte[]>> future = new CompletableFuture<>();
+		pending.add(future);
+		return future;
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static GameEventConfig config(int maxInFlight) {
+		GameEventConfig config = new GameEventConfig();
+		config.getKafka().setMaxInFlight(maxInFlight);
+		return config;
+	}
+}
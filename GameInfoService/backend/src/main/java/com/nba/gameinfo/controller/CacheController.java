@@ -0,0 +1,26 @@
+package com.nba.gameinfo.controller;
+
+import com.nba.gameinfo.service.ResponseCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin
+public class CacheController {
+    private final ResponseCache responseCache;
+    public CacheController(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return responseCache.getMetrics();
+    }
+    // For rows changed outside this service, e.g. straight in the database
+    @DeleteMapping
+    public ResponseEntity<Void> invalidate() {
+        responseCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+}
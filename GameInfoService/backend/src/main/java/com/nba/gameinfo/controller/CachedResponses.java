@@ -0,0 +1,23 @@
+package com.nba.gameinfo.controller;
+
+import com.nba.gameinfo.service.ResponseCache;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+final class CachedResponses {
+    private CachedResponses() {
+    }
+    /**
+     * Spring compares the ETag and Last-Modified with If-None-Match and
+     * If-Modified-Since, and answers 304 without writing the body when they match.
+     */
+    static ResponseEntity<byte[]> of(ResponseCache.Body body) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .cacheControl(CacheControl.noCache())
+            .eTag(body.etag())
+            .lastModified(body.lastModified())
+            .body(body.json());
+    }
+}
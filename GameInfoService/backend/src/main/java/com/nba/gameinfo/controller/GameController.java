@@ -0,0 +1,34 @@
+package com.nba.gameinfo.controller;
+
+import com.nba.gameinfo.dto.GameEventDTO;
+import com.nba.gameinfo.repository.GameEventRepository;
+import com.nba.gameinfo.repository.GameRepository;
+import com.nba.gameinfo.service.ResponseCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/games")
+@CrossOrigin
+public class GameController {
+    private final GameRepository gameRepository;
+    private final GameEventRepository gameEventRepository;
+    private final ResponseCache responseCache;
+    public GameController(GameRepository gameRepository, GameEventRepository gameEventRepository,
+                          ResponseCache responseCache) {
+        this.gameRepository = gameRepository;
+        this.gameEventRepository = gameEventRepository;
+        this.responseCache = responseCache;
+    }
+    @GetMapping
+    public ResponseEntity<byte[]> getAllGames() {
+        return CachedResponses.of(responseCache.get("games", gameRepository::findAllSummaries));
+    }
+
+    // The ingest service writes events straight to the database, so they are never cached
+    @GetMapping("/{gameId}/events")
+    public List<GameEventDTO> getPlayByPlay(@PathVariable Long gameId) {
+        return gameEventRepository.findPlayByPlay(gameId);
+    }
+}
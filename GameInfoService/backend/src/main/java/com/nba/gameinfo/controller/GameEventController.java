@@ -0,0 +1,64 @@
+package com.nba.gameinfo.controller;
+
+import com.nba.gameinfo.dto.GameEventDTO;
+import com.nba.gameinfo.dto.GameEventPage;
+import com.nba.gameinfo.repository.GameEventRepository;
+import com.nba.gameinfo.repository.GameEventSearch;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/game-events")
+@CrossOrigin
+public class GameEventController {
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final GameEventRepository gameEventRepository;
+    public GameEventController(GameEventRepository gameEventRepository) {
+        this.gameEventRepository = gameEventRepository;
+    }
+
+    /**
+     * Events in play order, optionally of one game, player or event type and within
+     * [from, to), one page at a time. Follow nextCursor for the next page.
+     */
+    @GetMapping
+    public GameEventPage getEvents(@RequestParam(required = false) Long gameId,
+                                   @RequestParam(required = false) Long playerId,
+                                   @RequestParam(required = false) String type,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                   @RequestParam(defaultValue = "100") int limit,
+                                   @RequestParam(required = false) String cursor) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+        GameEventSearch search = new GameEventSearch();
+        search.setGameId(gameId);
+        search.setPlayerId(playerId);
+        search.setEventType(type);
+        search.setFrom(from);
+        search.setTo(to);
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                search.startAfter(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+        List<GameEventDTO> events = gameEventRepository.search(search, limit);
+        String nextCursor = null;
+        if (events.size() > limit) {
+            events = events.subList(0, limit);
+            nextCursor = search.cursorAfter(events.get(limit - 1));
+        }
+        return new GameEventPage(events, nextCursor);
+    }
+}
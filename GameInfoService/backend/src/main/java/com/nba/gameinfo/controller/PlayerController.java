@@ -1,34 +1,91 @@
 package com.nba.gameinfo.controller;
 
-import com.nba.gameinfo.entity.Player;
+import com.nba.gameinfo.dto.PlayerPage;
 import com.nba.gameinfo.dto.PlayerStatsDTO;
 import com.nba.gameinfo.repository.PlayerRepository;
+import com.nba.gameinfo.repository.PlayerSearch;
+import com.nba.gameinfo.service.LiveStatsService;
+import com.nba.gameinfo.service.ResponseCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/players")
 @CrossOrigin
 public class PlayerController {
+    static final int MAX_PAGE_SIZE = 500;
+
     private final PlayerRepository playerRepository;
-    public PlayerController(PlayerRepository playerRepository) {
+    private final LiveStatsService liveStatsService;
+    private final ResponseCache responseCache;
+    public PlayerController(PlayerRepository playerRepository, LiveStatsService liveStatsService,
+                            ResponseCache responseCache) {
         this.playerRepository = playerRepository;
+        this.liveStatsService = liveStatsService;
+        this.responseCache = responseCache;
     }
+    // Rosters come from the cache; the body is only serialized again when live stats have moved on
     @GetMapping
-    public List<PlayerStatsDTO> getAllPlayers() {
-        return playerRepository.findAll().stream()
-            .map(player -> new PlayerStatsDTO(
-                player.getPlayerName(),
-                player.getTeam().getTeamName(),
-                player.getJerseyNumber(),
-                player.getPosition(),
-                player.getHeightCm(),
-                player.getWeightKg(),
-                player.getBirthDate(),
-                player.getCollege(),
-                player.getSalary()
-            ))
-            .collect(Collectors.toList());
+    public ResponseEntity<byte[]> getAllPlayers() {
+        return CachedResponses.of(responseCache.get("players", playerRepository::findAllStats,
+            liveStatsService.getVersion(), this::fillLiveStats));
+    }
+
+    /**
+     * Players filtered by team name, position and salary range, ordered by id, name,
+     * salary or jersey, one page at a time. Follow nextCursor for the next page.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<byte[]> getPlayerPage(@RequestParam(required = false) String team,
+                                    @RequestParam(required = false) String position,
+                                    @RequestParam(required = false) Double minSalary,
+                                    @RequestParam(required = false) Double maxSalary,
+                                    @RequestParam(defaultValue = "id") String sort,
+                                    @RequestParam(defaultValue = "asc") String direction,
+                                    @RequestParam(defaultValue = "50") int limit,
+                                    @RequestParam(required = false) String cursor) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (!direction.equalsIgnoreCase("asc") && !direction.equalsIgnoreCase("desc")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "direction must be asc or desc");
+        }
+        PlayerSearch search = new PlayerSearch();
+        search.setTeam(team);
+        search.setPosition(position);
+        search.setMinSalary(minSalary);
+        search.setMaxSalary(maxSalary);
+        search.setDescending(direction.equalsIgnoreCase("desc"));
+        try {
+            search.setSort(PlayerSearch.Sort.of(sort));
+            if (cursor != null && !cursor.isEmpty()) {
+                search.startAfter(cursor);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        String key = "players/page?team=" + team + "&position=" + position + "&minSalary=" + minSalary
+            + "&maxSalary=" + maxSalary + "&sort=" + search.getSort() + "&descending=" + search.isDescending()
+            + "&limit=" + limit + "&cursor=" + cursor;
+        return CachedResponses.of(responseCache.get(key, () -> loadPage(search, limit),
+            liveStatsService.getVersion(), page -> fillLiveStats(page.getPlayers())));
+    }
+
+    private PlayerPage loadPage(PlayerSearch search, int limit) {
+        List<PlayerStatsDTO> players = playerRepository.search(search, limit);
+        String nextCursor = null;
+        if (players.size() > limit) {
+            players = players.subList(0, limit);
+            nextCursor = search.cursorAfter(players.get(limit - 1));
+        }
+        return new PlayerPage(players, nextCursor);
+    }
+
+    // Points, rebounds, assists and fouls come from the live counters, not the database
+    private void fillLiveStats(List<PlayerStatsDTO> players) {
+        players.forEach(player -> liveStatsService.fill(player.getPlayerId(), player));
     }
-} 
\ No newline at end of file
+}
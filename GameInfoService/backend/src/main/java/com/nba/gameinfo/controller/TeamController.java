@@ -1,20 +1,22 @@
 package com.nba.gameinfo.controller;
 
-import com.nba.gameinfo.entity.Team;
 import com.nba.gameinfo.repository.TeamRepository;
+import com.nba.gameinfo.service.ResponseCache;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/teams")
 @CrossOrigin
 public class TeamController {
     private final TeamRepository teamRepository;
-    public TeamController(TeamRepository teamRepository) {
+    private final ResponseCache responseCache;
+    public TeamController(TeamRepository teamRepository, ResponseCache responseCache) {
         this.teamRepository = teamRepository;
+        this.responseCache = responseCache;
     }
     @GetMapping
-    public List<Team> getAllTeams() {
-        return teamRepository.findAll();
+    public ResponseEntity<byte[]> getAllTeams() {
+        return CachedResponses.of(responseCache.get("teams", teamRepository::findAll));
     }
-} 
\ No newline at end of file
+}
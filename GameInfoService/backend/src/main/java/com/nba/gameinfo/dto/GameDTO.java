@@ -0,0 +1,50 @@
+package com.nba.gameinfo.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public class GameDTO {
+    private Long gameId;
+    private String homeTeamName;
+    private String awayTeamName;
+    private LocalDate gameDate;
+    private LocalTime gameTime;
+    private String season;
+    private String status;
+    private Integer homeScore;
+    private Integer awayScore;
+    private String arena;
+
+    public GameDTO(Long gameId, String homeTeamName, String awayTeamName, LocalDate gameDate, LocalTime gameTime, String season, String status, Integer homeScore, Integer awayScore, String arena) {
+        this.gameId = gameId;
+        this.homeTeamName = homeTeamName;
+        this.awayTeamName = awayTeamName;
+        this.gameDate = gameDate;
+        this.gameTime = gameTime;
+        this.season = season;
+        this.status = status;
+        this.homeScore = homeScore;
+        this.awayScore = awayScore;
+        this.arena = arena;
+    }
+    public Long getGameId() { return gameId; }
+    public void setGameId(Long gameId) { this.gameId = gameId; }
+    public String getHomeTeamName() { return homeTeamName; }
+    public void setHomeTeamName(String homeTeamName) { this.homeTeamName = homeTeamName; }
+    public String getAwayTeamName() { return awayTeamName; }
+    public void setAwayTeamName(String awayTeamName) { this.awayTeamName = awayTeamName; }
+    public LocalDate getGameDate() { return gameDate; }
+    public void setGameDate(LocalDate gameDate) { this.gameDate = gameDate; }
+    public LocalTime getGameTime() { return gameTime; }
+    public void setGameTime(LocalTime gameTime) { this.gameTime = gameTime; }
+    public String getSeason() { return season; }
+    public void setSeason(String season) { this.season = season; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Integer getHomeScore() { return homeScore; }
+    public void setHomeScore(Integer homeScore) { this.homeScore = homeScore; }
+    public Integer getAwayScore() { return awayScore; }
+    public void setAwayScore(Integer awayScore) { this.awayScore = awayScore; }
+    public String getArena() { return arena; }
+    public void setArena(String arena) { this.arena = arena; }
+}
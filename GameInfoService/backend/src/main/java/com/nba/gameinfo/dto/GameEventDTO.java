@@ -0,0 +1,49 @@
+package com.nba.gameinfo.dto;
+
+import java.time.LocalDateTime;
+
+public class GameEventDTO {
+    private Long eventId;
+    private Long gameId;
+    private Long playerId;
+    private String playerName;
+    private String eventType;
+    private LocalDateTime eventTime;
+    private Integer quarter;
+    private String timeRemaining;
+    private String description;
+    private Integer points;
+
+    public GameEventDTO(Long eventId, Long gameId, Long playerId, String playerName, String eventType, LocalDateTime eventTime, Integer quarter, String timeRemaining, String description, Integer points) {
+        this.eventId = eventId;
+        this.gameId = gameId;
+        this.playerId = playerId;
+        this.playerName = playerName;
+        this.eventType = eventType;
+        this.eventTime = eventTime;
+        this.quarter = quarter;
+        this.timeRemaining = timeRemaining;
+        this.description = description;
+        this.points = points;
+    }
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+    public Long getGameId() { return gameId; }
+    public void setGameId(Long gameId) { this.gameId = gameId; }
+    public Long getPlayerId() { return playerId; }
+    public void setPlayerId(Long playerId) { this.playerId = playerId; }
+    public String getPlayerName() { return playerName; }
+    public void setPlayerName(String playerName) { this.playerName = playerName; }
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+    public LocalDateTime getEventTime() { return eventTime; }
+    public void setEventTime(LocalDateTime eventTime) { this.eventTime = eventTime; }
+    public Integer getQuarter() { return quarter; }
+    public void setQuarter(Integer quarter) { this.quarter = quarter; }
+    public String getTimeRemaining() { return timeRemaining; }
+    public void setTimeRemaining(String timeRemaining) { this.timeRemaining = timeRemaining; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public Integer getPoints() { return points; }
+    public void setPoints(Integer points) { this.points = points; }
+}
@@ -0,0 +1,18 @@
+package com.nba.gameinfo.dto;
+
+import java.util.List;
+
+public class GameEventPage {
+    private List<GameEventDTO> events;
+    private String nextCursor;
+
+    public GameEventPage(List<GameEventDTO> events, String nextCursor) {
+        this.events = events;
+        this.nextCursor = nextCursor;
+    }
+    public List<GameEventDTO> getEvents() { return events; }
+    public void setEvents(List<GameEventDTO> events) { this.events = events; }
+    // Pass as ?cursor= to get the next page; null on the last page
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
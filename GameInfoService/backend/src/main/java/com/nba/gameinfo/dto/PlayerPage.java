@@ -0,0 +1,18 @@
+package com.nba.gameinfo.dto;
+
+import java.util.List;
+
+public class PlayerPage {
+    private List<PlayerStatsDTO> players;
+    private String nextCursor;
+
+    public PlayerPage(List<PlayerStatsDTO> players, String nextCursor) {
+        this.players = players;
+        this.nextCursor = nextCursor;
+    }
+    public List<PlayerStatsDTO> getPlayers() { return players; }
+    public void setPlayers(List<PlayerStatsDTO> players) { this.players = players; }
+    // Pass as ?cursor= to get the next page; null on the last page
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -1,6 +1,7 @@
 package com.nba.gameinfo.dto;
 
 public class PlayerStatsDTO {
+    private Long playerId;
     private String playerName;
     private String teamName;
     private Integer jerseyNumber;
@@ -15,7 +16,8 @@ public class PlayerStatsDTO {
     private int assists = 0;
     private int fouls = 0;
 
-    public PlayerStatsDTO(String playerName, String teamName, Integer jerseyNumber, String position, Integer heightCm, Integer weightKg, String birthDate, String college, Double salary) {
+    public PlayerStatsDTO(Long playerId, String playerName, String teamName, Integer jerseyNumber, String position, Integer heightCm, Integer weightKg, String birthDate, String college, Double salary) {
+        this.playerId = playerId;
         this.playerName = playerName;
         this.teamName = teamName;
         this.jerseyNumber = jerseyNumber;
@@ -26,6 +28,8 @@ public class PlayerStatsDTO {
         this.college = college;
         this.salary = salary;
     }
+    public Long getPlayerId() { return playerId; }
+    public void setPlayerId(Long playerId) { this.playerId = playerId; }
     public String getPlayerName() { return playerName; }
     public void setPlayerName(String playerName) { this.playerName = playerName; }
     public String getTeamName() { return teamName; }
@@ -0,0 +1,54 @@
+package com.nba.gameinfo.entity;
+
+import com.nba.gameinfo.service.CacheInvalidationListener;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Entity
+@EntityListeners(CacheInvalidationListener.class)
+@Table(name = "games")
+public class Game {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long gameId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "home_team_id")
+    private Team homeTeam;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "away_team_id")
+    private Team awayTeam;
+
+    private LocalDate gameDate;
+    private LocalTime gameTime;
+    private String season;
+    private String status;
+    private Integer homeScore;
+    private Integer awayScore;
+    private String arena;
+
+    // getter, setter
+    public Long getGameId() { return gameId; }
+    public void setGameId(Long gameId) { this.gameId = gameId; }
+    public Team getHomeTeam() { return homeTeam; }
+    public void setHomeTeam(Team homeTeam) { this.homeTeam = homeTeam; }
+    public Team getAwayTeam() { return awayTeam; }
+    public void setAwayTeam(Team awayTeam) { this.awayTeam = awayTeam; }
+    public LocalDate getGameDate() { return gameDate; }
+    public void setGameDate(LocalDate gameDate) { this.gameDate = gameDate; }
+    public LocalTime getGameTime() { return gameTime; }
+    public void setGameTime(LocalTime gameTime) { this.gameTime = gameTime; }
+    public String getSeason() { return season; }
+    public void setSeason(String season) { this.season = season; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Integer getHomeScore() { return homeScore; }
+    public void setHomeScore(Integer homeScore) { this.homeScore = homeScore; }
+    public Integer getAwayScore() { return awayScore; }
+    public void setAwayScore(Integer awayScore) { this.awayScore = awayScore; }
+    public String getArena() { return arena; }
+    public void setArena(String arena) { this.arena = arena; }
+}
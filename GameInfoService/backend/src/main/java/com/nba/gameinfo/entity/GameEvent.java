@@ -0,0 +1,52 @@
+package com.nba.gameinfo.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Mirrors the indexes in init.sql: a game's play-by-play and a player's events by type are each one range scan
+@Entity
+@Table(name = "game_events", indexes = {
+    @Index(name = "idx_game_events_game_time", columnList = "game_id, event_time, event_id"),
+    @Index(name = "idx_game_events_player_type", columnList = "player_id, event_type, event_time, event_id")
+})
+public class GameEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long eventId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "game_id")
+    private Game game;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "player_id")
+    private Player player;
+
+    private String eventType;
+    private LocalDateTime eventTime;
+    private Integer quarter;
+    private String timeRemaining;
+    private String description;
+    private Integer points;
+
+    // getter, setter
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+    public Game getGame() { return game; }
+    public void setGame(Game game) { this.game = game; }
+    public Player getPlayer() { return player; }
+    public void setPlayer(Player player) { this.player = player; }
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+    public LocalDateTime getEventTime() { return eventTime; }
+    public void setEventTime(LocalDateTime eventTime) { this.eventTime = eventTime; }
+    public Integer getQuarter() { return quarter; }
+    public void setQuarter(Integer quarter) { this.quarter = quarter; }
+    public String getTimeRemaining() { return timeRemaining; }
+    public void setTimeRemaining(String timeRemaining) { this.timeRemaining = timeRemaining; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public Integer getPoints() { return points; }
+    public void setPoints(Integer points) { this.points = points; }
+}
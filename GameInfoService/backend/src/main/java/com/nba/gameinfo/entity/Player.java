@@ -1,8 +1,10 @@
 package com.nba.gameinfo.entity;
 
+import com.nba.gameinfo.service.CacheInvalidationListener;
 import jakarta.persistence.*;
 
 @Entity
+@EntityListeners(CacheInvalidationListener.class)
 @Table(name = "players")
 public class Player {
     @Id
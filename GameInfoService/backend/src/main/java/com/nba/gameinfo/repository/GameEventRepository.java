@@ -0,0 +1,18 @@
+package com.nba.gameinfo.repository;
+
+import com.nba.gameinfo.dto.GameEventDTO;
+import com.nba.gameinfo.entity.GameEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface GameEventRepository extends JpaRepository<GameEvent, Long>, GameEventSearchRepository {
+
+    // A whole game in play order: one range scan on idx_game_events_game_time
+    @Query("SELECT new com.nba.gameinfo.dto.GameEventDTO(e.eventId, e.game.gameId, p.playerId, p.playerName, "
+            + "e.eventType, e.eventTime, e.quarter, e.timeRemaining, e.description, e.points) "
+            + "FROM GameEvent e LEFT JOIN e.player p WHERE e.game.gameId = :gameId ORDER BY e.eventTime, e.eventId")
+    List<GameEventDTO> findPlayByPlay(@Param("gameId") Long gameId);
+}
@@ -0,0 +1,85 @@
+package com.nba.gameinfo.repository;
+
+import com.nba.gameinfo.dto.GameEventDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Filters and position of one page of game events, always in play order: by
+ * event time, ties by event ID. Pages are keyset-paged like player pages: the
+ * cursor holds the time and ID of the last event returned, and the filters it
+ * was made for, so it cannot be replayed against other ones. Within a game the
+ * page is a range scan on {@code (game_id, event_time, event_id)}; a player's
+ * events of one type are one on {@code (player_id, event_type, event_time, event_id)}.
+ */
+public class GameEventSearch {
+
+    private Long gameId;
+    private Long playerId;
+    private String eventType;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private LocalDateTime afterTime;
+    private Long afterId;
+
+    public Long getGameId() { return gameId; }
+    public void setGameId(Long gameId) { this.gameId = gameId; }
+    public Long getPlayerId() { return playerId; }
+    public void setPlayerId(Long playerId) { this.playerId = playerId; }
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+    // Inclusive start of the time window
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+    // Exclusive end of the time window
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+    // Whether the page starts after a cursor rather than at the first event
+    public boolean isAfter() { return afterId != null; }
+    public LocalDateTime getAfterTime() { return afterTime; }
+    public Long getAfterId() { return afterId; }
+
+    /** Cursor of the page after {@code last}. */
+    public String cursorAfter(GameEventDTO last) {
+        String cursor = last.getEventTime() + "|" + last.getEventId() + "|" + filters();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Starts the page after the event the cursor was made for.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or was made for other filters.
+     */
+    public void startAfter(String cursor) {
+        String[] fields;
+        try {
+            fields = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        if (!fields[2].equals(filters())) {
+            throw new IllegalArgumentException("Cursor does not match the gameId, playerId, type, from and to filters");
+        }
+        try {
+            afterTime = LocalDateTime.parse(fields[0]);
+            afterId = Long.valueOf(fields[1]);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+    }
+
+    // The filters as a cursor records them; an unset filter is empty
+    private String filters() {
+        return String.join(",", text(gameId), text(playerId), text(eventType), text(from), text(to));
+    }
+
+    private static String text(Object filter) {
+        return filter == null ? "" : filter.toString();
+    }
+}
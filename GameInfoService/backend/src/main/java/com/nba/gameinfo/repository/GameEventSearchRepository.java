@@ -0,0 +1,15 @@
+package com.nba.gameinfo.repository;
+
+import com.nba.gameinfo.dto.GameEventDTO;
+
+import java.util.List;
+
+public interface GameEventSearchRepository {
+
+    /**
+     * One page of events matching the search in play order, starting after its
+     * cursor. Returns up to {@code limit + 1} events; the extra one only tells the
+     * caller there is another page.
+     */
+    List<GameEventDTO> search(GameEventSearch search, int limit);
+}
@@ -0,0 +1,63 @@
+package com.nba.gameinfo.repository;
+
+import com.nba.gameinfo.dto.GameEventDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class GameEventSearchRepositoryImpl implements GameEventSearchRepository {
+
+    private static final String SELECT = "SELECT new com.nba.gameinfo.dto.GameEventDTO(e.eventId, e.game.gameId, "
+            + "p.playerId, p.playerName, e.eventType, e.eventTime, e.quarter, e.timeRemaining, e.description, e.points) "
+            + "FROM GameEvent e LEFT JOIN e.player p";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<GameEventDTO> search(GameEventSearch search, int limit) {
+        List<String> where = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (search.getGameId() != null) {
+            where.add("e.game.gameId = :gameId");
+            parameters.put("gameId", search.getGameId());
+        }
+        if (search.getPlayerId() != null) {
+            where.add("e.player.playerId = :playerId");
+            parameters.put("playerId", search.getPlayerId());
+        }
+        if (search.getEventType() != null) {
+            where.add("e.eventType = :eventType");
+            parameters.put("eventType", search.getEventType());
+        }
+        if (search.getFrom() != null) {
+            where.add("e.eventTime >= :from");
+            parameters.put("from", search.getFrom());
+        }
+        if (search.getTo() != null) {
+            where.add("e.eventTime < :to");
+            parameters.put("to", search.getTo());
+        }
+        if (search.isAfter()) {
+            // One row-value bound, so the database seeks straight to the cursor in the index
+            where.add("(e.eventTime, e.eventId) > (:afterTime, :afterId)");
+            parameters.put("afterTime", search.getAfterTime());
+            parameters.put("afterId", search.getAfterId());
+        }
+
+        StringBuilder jpql = new StringBuilder(SELECT);
+        if (!where.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        jpql.append(" ORDER BY e.eventTime, e.eventId");
+
+        TypedQuery<GameEventDTO> query = entityManager.createQuery(jpql.toString(), GameEventDTO.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit + 1).getResultList();
+    }
+}
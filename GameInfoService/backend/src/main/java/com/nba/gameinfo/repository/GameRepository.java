@@ -0,0 +1,17 @@
+package com.nba.gameinfo.repository;
+
+import com.nba.gameinfo.dto.GameDTO;
+import com.nba.gameinfo.entity.Game;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface GameRepository extends JpaRepository<Game, Long> {
+
+    // Both teams joined in, as for players
+    @Query("SELECT new com.nba.gameinfo.dto.GameDTO(g.gameId, h.teamName, a.teamName, g.gameDate, g.gameTime, "
+            + "g.season, g.status, g.homeScore, g.awayScore, g.arena) "
+            + "FROM Game g LEFT JOIN g.homeTeam h LEFT JOIN g.awayTeam a ORDER BY g.gameDate, g.gameId")
+    List<GameDTO> findAllSummaries();
+}
@@ -1,7 +1,17 @@
 package com.nba.gameinfo.repository;
 
+import com.nba.gameinfo.dto.PlayerStatsDTO;
 import com.nba.gameinfo.entity.Player;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
-public interface PlayerRepository extends JpaRepository<Player, Long> {
-} 
\ No newline at end of file
+import java.util.List;
+
+public interface PlayerRepository extends JpaRepository<Player, Long>, PlayerSearchRepository {
+
+    // One query with the team joined in, instead of one more per team through the lazy association
+    @Query("SELECT new com.nba.gameinfo.dto.PlayerStatsDTO(p.playerId, p.playerName, t.teamName, p.jerseyNumber, "
+            + "p.position, p.heightCm, p.weightKg, p.birthDate, p.college, p.salary) "
+            + "FROM Player p LEFT JOIN p.team t ORDER BY p.playerId")
+    List<PlayerStatsDTO> findAllStats();
+}
@@ -0,0 +1,128 @@
+package com.nba.gameinfo.repository;
+
+import com.nba.gameinfo.dto.PlayerStatsDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Filters, order and position of one page of players. Pages are keyset-paged:
+ * the cursor holds the sort value and player ID of the last player returned, and
+ * the next page starts just after them, so every page is one index range scan
+ * however deep it is, or two for the page that reaches the players with no value.
+ * Ties and missing values are ordered by player ID; players with no value sort
+ * after the rest ascending and before them descending, as Postgres orders nulls.
+ */
+public class PlayerSearch {
+
+    public enum Sort {
+        ID("p.playerId", PlayerStatsDTO::getPlayerId, Long::valueOf),
+        NAME("p.playerName", PlayerStatsDTO::getPlayerName, value -> value),
+        SALARY("p.salary", PlayerStatsDTO::getSalary, Double::valueOf),
+        JERSEY("p.jerseyNumber", PlayerStatsDTO::getJerseyNumber, Integer::valueOf);
+
+        private final String path;
+        private final Function<PlayerStatsDTO, Object> value;
+        private final Function<String, Object> parser;
+
+        Sort(String path, Function<PlayerStatsDTO, Object> value, Function<String, Object> parser) {
+            this.path = path;
+            this.value = value;
+            this.parser = parser;
+        }
+
+        public String getPath() { return path; }
+
+        public static Sort of(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown sort '" + name + "'; use id, name, salary or jersey");
+            }
+        }
+    }
+
+    private String team;
+    private String position;
+    private Double minSalary;
+    private Double maxSalary;
+    private Sort sort = Sort.ID;
+    private boolean descending;
+    private boolean after;
+    private Long afterId;
+    private Object afterValue;
+
+    public String getTeam() { return team; }
+    public void setTeam(String team) { this.team = team; }
+    public String getPosition() { return position; }
+    public void setPosition(String position) { this.position = position; }
+    public Double getMinSalary() { return minSalary; }
+    public void setMinSalary(Double minSalary) { this.minSalary = minSalary; }
+    public Double getMaxSalary() { return maxSalary; }
+    public void setMaxSalary(Double maxSalary) { this.maxSalary = maxSalary; }
+    public Sort getSort() { return sort; }
+    public void setSort(Sort sort) { this.sort = sort; }
+    public boolean isDescending() { return descending; }
+    public void setDescending(boolean descending) { this.descending = descending; }
+    // Whether the page starts after a cursor rather than at the first player
+    public boolean isAfter() { return after; }
+    public Long getAfterId() { return afterId; }
+    // The sort value at the cursor; null if that player has none
+    public Object getAfterValue() { return afterValue; }
+
+    /**
+     * Cursor of the page after {@code last}. It records the sort, direction and
+     * filters it was made for, so it cannot be replayed against a different order
+     * or other filters.
+     */
+    public String cursorAfter(PlayerStatsDTO last) {
+        Object value = sort.value.apply(last);
+        String cursor = sort.name() + '|' + (descending ? "desc" : "asc") + '|' + filters() + '|' + last.getPlayerId()
+                + '|' + (value == null ? "-" : "v" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Starts the page after the player the cursor was made for.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or was made for another order or other filters.
+     */
+    public void startAfter(String cursor) {
+        String[] fields;
+        try {
+            fields = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 5);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        if (fields.length != 5 || !fields[0].equals(sort.name())
+                || !fields[1].equals(descending ? "desc" : "asc") || fields[4].isEmpty()) {
+            throw new IllegalArgumentException("Cursor does not match sort=" + sort.name().toLowerCase(Locale.ROOT)
+                    + " direction=" + (descending ? "desc" : "asc"));
+        }
+        if (!fields[2].equals(filters())) {
+            throw new IllegalArgumentException(
+                    "Cursor does not match the team, position, minSalary and maxSalary filters");
+        }
+        try {
+            afterId = Long.valueOf(fields[3]);
+            afterValue = fields[4].charAt(0) == 'v' ? sort.parser.apply(fields[4].substring(1)) : null;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        after = true;
+    }
+
+    // The filters as a cursor records them: each length-prefixed so one cannot run into the next,
+    // then encoded so they hold no field separator
+    private String filters() {
+        StringBuilder filters = new StringBuilder();
+        for (Object filter : new Object[]{team, position, minSalary, maxSalary}) {
+            String text = filter == null ? null : filter.toString();
+            filters.append(text == null ? "-" : text.length() + ":" + text);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(filters.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,15 @@
+package com.nba.gameinfo.repository;
+
+import com.nba.gameinfo.dto.PlayerStatsDTO;
+
+import java.util.List;
+
+public interface PlayerSearchRepository {
+
+    /**
+     * One page of players matching the search, in its order, starting after its
+     * cursor. Returns up to {@code limit + 1} players; the extra one only tells
+     * the caller there is another page.
+     */
+    List<PlayerStatsDTO> search(PlayerSearch search, int limit);
+}
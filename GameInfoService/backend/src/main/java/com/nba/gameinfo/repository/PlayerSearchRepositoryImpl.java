@@ -0,0 +1,96 @@
+package com.nba.gameinfo.repository;
+
+import com.nba.gameinfo.dto.PlayerStatsDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class PlayerSearchRepositoryImpl implements PlayerSearchRepository {
+
+    private static final String SELECT = "SELECT new com.nba.gameinfo.dto.PlayerStatsDTO(p.playerId, p.playerName, "
+            + "t.teamName, p.jerseyNumber, p.position, p.heightCm, p.weightKg, p.birthDate, p.college, p.salary) "
+            + "FROM Player p LEFT JOIN p.team t";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PlayerStatsDTO> search(PlayerSearch search, int limit) {
+        List<String> where = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (search.getTeam() != null) {
+            where.add("t.teamName = :team");
+            parameters.put("team", search.getTeam());
+        }
+        if (search.getPosition() != null) {
+            where.add("p.position = :position");
+            parameters.put("position", search.getPosition());
+        }
+        if (search.getMinSalary() != null) {
+            where.add("p.salary >= :minSalary");
+            parameters.put("minSalary", search.getMinSalary());
+        }
+        if (search.getMaxSalary() != null) {
+            where.add("p.salary <= :maxSalary");
+            parameters.put("maxSalary", search.getMaxSalary());
+        }
+        String key = search.getSort().getPath();
+        String direction = search.isDescending() ? "DESC" : "ASC";
+        String byId = "p.playerId " + direction;
+        if (!search.isAfter()) {
+            return query(where, parameters, search.getSort() == PlayerSearch.Sort.ID ? byId
+                    : key + " " + direction + (search.isDescending() ? " NULLS FIRST, " : " NULLS LAST, ") + byId,
+                    limit + 1);
+        }
+        String beyond = search.isDescending() ? "<" : ">";
+        parameters.put("afterId", search.getAfterId());
+        if (search.getSort() == PlayerSearch.Sort.ID) {
+            return query(with(where, "p.playerId " + beyond + " :afterId"), parameters, byId, limit + 1);
+        }
+        // Each phase is one plain index range; a page that reaches the nulls, which
+        // come last ascending and first descending, continues into the next phase
+        if (search.getAfterValue() == null) {
+            List<PlayerStatsDTO> page = query(with(where, key + " IS NULL AND p.playerId " + beyond + " :afterId"),
+                    parameters, byId, limit + 1);
+            if (search.isDescending() && page.size() <= limit) {
+                parameters.remove("afterId");
+                page.addAll(query(with(where, key + " IS NOT NULL"), parameters, key + " DESC, " + byId,
+                        limit + 1 - page.size()));
+            }
+            return page;
+        }
+        parameters.put("afterValue", search.getAfterValue());
+        List<PlayerStatsDTO> page = query(with(where, "(" + key + ", p.playerId) " + beyond + " (:afterValue, :afterId)"),
+                parameters, key + " " + direction + ", " + byId, limit + 1);
+        if (!search.isDescending() && page.size() <= limit) {
+            parameters.remove("afterId");
+            parameters.remove("afterValue");
+            page.addAll(query(with(where, key + " IS NULL"), parameters, byId, limit + 1 - page.size()));
+        }
+        return page;
+    }
+
+    private List<PlayerStatsDTO> query(List<String> where, Map<String, Object> parameters, String orderBy,
+                                       int maxResults) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        if (!where.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        jpql.append(" ORDER BY ").append(orderBy);
+
+        TypedQuery<PlayerStatsDTO> query = entityManager.createQuery(jpql.toString(), PlayerStatsDTO.class);
+        parameters.forEach(query::setParameter);
+        return new ArrayList<>(query.setMaxResults(maxResults).getResultList());
+    }
+
+    private static List<String> with(List<String> where, String condition) {
+        List<String> all = new ArrayList<>(where);
+        all.add(condition);
+        return all;
+    }
+}
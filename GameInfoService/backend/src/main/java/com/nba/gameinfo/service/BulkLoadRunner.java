@@ -0,0 +1,48 @@
+package com.nba.gameinfo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Runs the backend as a one-off bulk load under the {@code bulkload} profile:
+ * loads {@code bulkload.dir} and exits, non-zero if any game failed.
+ */
+@Component
+@Profile("bulkload")
+public class BulkLoadRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkLoadRunner.class);
+
+    private final BulkLoadService bulkLoadService;
+    private final ApplicationContext context;
+
+    @Value("${bulkload.dir}")
+    private String dir;
+
+    public BulkLoadRunner(BulkLoadService bulkLoadService, ApplicationContext context) {
+        this.bulkLoadService = bulkLoadService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        int status = 0;
+        try {
+            bulkLoadService.loadAll(Path.of(dir));
+        } catch (Exception e) {
+            log.error("Bulk load of {} failed: {}", dir, e.getMessage());
+            status = 1;
+        }
+        int exitCode = status;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
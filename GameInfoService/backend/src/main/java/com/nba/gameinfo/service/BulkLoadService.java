@@ -0,0 +1,241 @@
+package com.nba.gameinfo.service;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Backfills {@code game_events} and {@code player_stats} from game logs through
+ * the Postgres COPY protocol, for history too large to insert a row at a time.
+ * <p>
+ * Each game is loaded on its own connection, {@code bulkload.threads} at a time.
+ * A log is streamed a line at a time into temporary staging tables, through a
+ * COPY buffer of {@code bulkload.buffer-bytes}, so memory does not grow with the
+ * log. The game's rows are then swapped in one transaction: its old rows are
+ * deleted and the staged ones inserted in play order, by game clock and then by
+ * log line, so event IDs follow the log. Loading a game again replaces it, and
+ * readers see either the old game or the new one.
+ * <p>
+ * A log names its {@code games} row by the number in its file name, so
+ * {@code game3.log} is game 3; logs of other games are skipped.
+ * <p>
+ * Rows are written through JDBC, so no JPA listener sees them: this process's
+ * {@link ResponseCache} is cleared after every game. A separate {@code bulkload}
+ * run cannot reach a running server's cache, whose {@code /api/players} and
+ * {@code /api/games} responses stay stale for up to {@code cache.ttl-ms}.
+ */
+@Service
+public class BulkLoadService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkLoadService.class);
+
+    // Staging tables only live for the loading transaction, and temporary tables are not WAL-logged
+    private static final String STAGE_EVENTS_SQL = "CREATE TEMP TABLE game_events_stage ON COMMIT DROP AS SELECT "
+            + GameLogCopyRows.EVENT_COLUMNS + ", CAST(0 AS bigint) AS seq FROM game_events WITH NO DATA";
+    private static final String STAGE_STATS_SQL = "CREATE TEMP TABLE player_stats_stage ON COMMIT DROP AS SELECT "
+            + GameLogCopyRows.STAT_COLUMNS + " FROM player_stats WITH NO DATA";
+    private static final String SWAP_EVENTS_SQL = "INSERT INTO game_events (" + GameLogCopyRows.EVENT_COLUMNS
+            + ") SELECT " + GameLogCopyRows.EVENT_COLUMNS + " FROM game_events_stage ORDER BY event_time, seq";
+    private static final String SWAP_STATS_SQL = "INSERT INTO player_stats (" + GameLogCopyRows.STAT_COLUMNS
+            + ") SELECT " + GameLogCopyRows.STAT_COLUMNS + " FROM player_stats_stage";
+
+    /** The outcome of one log; {@code gameId} is null if it names no game. */
+    public record GameLoad(Path log, Integer gameId, long events, long statLines, long malformed, long millis) {
+        public long rows() {
+            return events + statLines;
+        }
+    }
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ResponseCache responseCache;
+    private final int threads;
+    private final int bufferBytes;
+
+    public BulkLoadService(DataSource dataSource, JdbcTemplate jdbcTemplate, ResponseCache responseCache,
+                           @Value("${bulkload.threads:4}") int threads,
+                           @Value("${bulkload.buffer-bytes:1048576}") int bufferBytes) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.responseCache = responseCache;
+        this.threads = threads;
+        this.bufferBytes = bufferBytes;
+    }
+
+    /**
+     * Loads every {@code *.log} file directly under {@code dir} and logs the rows
+     * per second of each game and of the whole load.
+     *
+     * @throws IOException if two logs name the same game, in which case nothing
+     *                     is loaded, or if a log could not be read or a game could
+     *                     not be written; the other games are still loaded then.
+     */
+    public List<GameLoad> loadAll(Path dir) throws IOException, InterruptedException {
+        List<Path> logs;
+        try (Stream<Path> files = Files.list(dir)) {
+            logs = files.filter(path -> Files.isRegularFile(path) && path.getFileName().toString().endsWith(".log"))
+                    .sorted()
+                    .toList();
+        }
+        // Two logs of one game would race to swap in their rows
+        Map<Integer, Path> games = new HashMap<>();
+        for (Path path : logs) {
+            Integer gameId = LiveStatsService.gameNumber(gameKeyOf(path));
+            Path other = gameId == null ? null : games.putIfAbsent(gameId, path);
+            if (other != null) {
+                throw new IOException(other.getFileName() + " and " + path.getFileName() + " are both game " + gameId);
+            }
+        }
+        Map<String, Integer> playerIds = playerIds();
+        long started = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, logs.size())));
+        List<GameLoad> loads = new ArrayList<>();
+        IOException failure = null;
+        try {
+            List<Future<GameLoad>> futures = new ArrayList<>();
+            for (Path path : logs) {
+                futures.add(pool.submit(() -> load(path, playerIds)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    loads.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    log.error("Loading {} failed: {}", logs.get(i), e.getCause().getMessage(), e.getCause());
+                    if (failure == null) {
+                        failure = new IOException("Loading " + logs.get(i) + " failed", e.getCause());
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        long rows = loads.stream().mapToLong(GameLoad::rows).sum();
+        log.info("Bulk load of {} games: {} rows in {} ms, {} rows/s", loads.stream().filter(l -> l.gameId() != null)
+                .count(), rows, millis, rows * 1000 / millis);
+        if (failure != null) {
+            throw failure;
+        }
+        return loads;
+    }
+
+    /** Loads one game log, replacing whatever was stored for its game. */
+    public GameLoad load(Path logPath) throws IOException, SQLException {
+        return load(logPath, playerIds());
+    }
+
+    private GameLoad load(Path logPath, Map<String, Integer> playerIds) throws IOException, SQLException {
+        long started = System.nanoTime();
+        Integer gameId = LiveStatsService.gameNumber(gameKeyOf(logPath));
+        LocalDateTime tipOff = gameId == null ? null : tipOff(gameId);
+        if (tipOff == null) {
+            log.warn("Skipping {}: no games row matches it", logPath);
+            return new GameLoad(logPath, null, 0, 0, 0, 0);
+        }
+        GameLogCopyRows rows = new GameLogCopyRows(gameId, tipOff, playerIds);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(STAGE_EVENTS_SQL);
+                    statement.execute(STAGE_STATS_SQL);
+                }
+                try (BufferedReader reader = Files.newBufferedReader(logPath, StandardCharsets.UTF_8);
+                     Writer out = copyIn(pg, "game_events_stage", GameLogCopyRows.STAGE_EVENT_COLUMNS)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        rows.appendEvent(line, out);
+                    }
+                }
+                try (Writer out = copyIn(pg, "player_stats_stage", GameLogCopyRows.STAT_COLUMNS)) {
+                    rows.appendStats(out);
+                }
+                swap(connection, "game_events", SWAP_EVENTS_SQL, gameId);
+                swap(connection, "player_stats", SWAP_STATS_SQL, gameId);
+                connection.commit();
+                responseCache.invalidateAll();
+            } catch (IOException | SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        GameLoad load = new GameLoad(logPath, gameId, rows.getEvents(), rows.getStatLines(), rows.getMalformed(), millis);
+        log.info("Loaded game {} from {}: {} events and {} player_stats rows in {} ms, {} rows/s{}", gameId,
+                logPath.getFileName(), load.events(), load.statLines(), millis, load.rows() * 1000 / millis,
+                load.malformed() > 0 ? ", " + load.malformed() + " malformed lines skipped" : "");
+        return load;
+    }
+
+    // Closing the writer ends the COPY
+    private Writer copyIn(PGConnection pg, String table, String columns) throws SQLException {
+        return new OutputStreamWriter(new PGCopyOutputStream(pg, "COPY " + table + " (" + columns + ") FROM STDIN",
+                bufferBytes), StandardCharsets.UTF_8);
+    }
+
+    private static void swap(Connection connection, String table, String insertSql, int gameId) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement("DELETE FROM " + table + " WHERE game_id = ?");
+             Statement insert = connection.createStatement()) {
+            delete.setInt(1, gameId);
+            delete.executeUpdate();
+            insert.executeUpdate(insertSql);
+        }
+    }
+
+    private LocalDateTime tipOff(int gameId) {
+        List<LocalDateTime> tipOff = jdbcTemplate.query("SELECT game_date, game_time FROM games WHERE game_id = ?",
+                (rs, row) -> {
+                    LocalDate date = rs.getObject(1, LocalDate.class);
+                    LocalTime time = rs.getObject(2, LocalTime.class);
+                    return time != null ? date.atTime(time) : date.atStartOfDay();
+                }, gameId);
+        return tipOff.isEmpty() ? null : tipOff.get(0);
+    }
+
+    private Map<String, Integer> playerIds() {
+        Map<String, Integer> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT player_id, player_name, jersey_number FROM players WHERE jersey_number IS NOT NULL",
+                rs -> {
+                    ids.put(rs.getString(2) + '#' + rs.getInt(3), rs.getInt(1));
+                });
+        return ids;
+    }
+
+    /** Game key of a log file: its name without the extension ("game1.log" -> "game1"). */
+    static String gameKeyOf(Path logPath) {
+        String name = logPath.getFileName().toString();
+        return name.endsWith(".log") ? name.substring(0, name.length() - 4) : name;
+    }
+}
@@ -0,0 +1,42 @@
+package com.nba.gameinfo.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Empties the {@link ResponseCache} whenever a team, player or game is written through
+ * JPA. Inside a transaction it waits for the commit, so a request in between
+ * cannot cache the old rows again.
+ */
+public class CacheInvalidationListener {
+
+    private final ObjectProvider<ResponseCache> responseCache;
+
+    public CacheInvalidationListener(ObjectProvider<ResponseCache> responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+            });
+        } else {
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        responseCache.ifAvailable(ResponseCache::invalidateAll);
+    }
+}
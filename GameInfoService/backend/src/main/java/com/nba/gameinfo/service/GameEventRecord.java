@@ -0,0 +1,134 @@
+package com.nba.gameinfo.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One game-event record from the ingest service's topic, in either of its formats.
+ * A value starting with byte 1 is binary: u8 version, u16 game clock, u8 event
+ * type code, then first name, last name and player number, each a u8 length and
+ * UTF-8 bytes. Anything else is a flat JSON event. Reused for every record.
+ */
+class GameEventRecord {
+
+    static final int SCORE_1 = 1;
+    static final int SCORE_2 = 2;
+    static final int SCORE_3 = 3;
+    static final int ASSIST = 4;
+    static final int REBOUND = 5;
+    static final int FOUL = 6;
+
+    private static final byte BINARY_V1 = 1;
+
+    private final JsonFactory jsonFactory;
+    private String firstName;
+    private String lastName;
+    private String playerNumber;
+    private int type;
+
+    GameEventRecord(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /** @return false if the value is not a game event this service understands. */
+    boolean decode(byte[] value) throws IOException {
+        firstName = null;
+        lastName = null;
+        playerNumber = null;
+        type = 0;
+        if (value.length > 0 && value[0] == BINARY_V1) {
+            return decodeBinary(value);
+        }
+        try (JsonParser parser = jsonFactory.createParser(value)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                switch (name) {
+                    case "firstname" -> firstName = parser.getValueAsString();
+                    case "lastname" -> lastName = parser.getValueAsString();
+                    case "player_number" -> playerNumber = parser.getValueAsString();
+                    case "event_type" -> type = typeCode(parser.getValueAsString());
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return type != 0 && firstName != null && playerNumber != null;
+    }
+
+    /**
+     * Whether a box-score snapshot is the one the ingest service sends before a
+     * game's first event, covering no events yet.
+     */
+    boolean isGameStart(byte[] snapshot) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(snapshot)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                if ("events".equals(name)) {
+                    return parser.getValueAsInt(-1) == 0;
+                }
+                parser.skipChildren();
+            }
+        }
+        return false;
+    }
+
+    private boolean decodeBinary(byte[] value) {
+        if (value.length < 7) {
+            return false;
+        }
+        int code = value[3] & 0xFF;
+        int firstLength = value[4] & 0xFF;
+        int lastAt = 5 + firstLength;
+        if (code < SCORE_1 || code > FOUL || lastAt >= value.length) {
+            return false;
+        }
+        int numberAt = lastAt + 1 + (value[lastAt] & 0xFF);
+        if (numberAt >= value.length || numberAt + 1 + (value[numberAt] & 0xFF) != value.length) {
+            return false;
+        }
+        type = code;
+        firstName = new String(value, 5, firstLength, StandardCharsets.UTF_8);
+        lastName = new String(value, lastAt + 1, value[lastAt] & 0xFF, StandardCharsets.UTF_8);
+        playerNumber = new String(value, numberAt + 1, value[numberAt] & 0xFF, StandardCharsets.UTF_8);
+        return true;
+    }
+
+    private static int typeCode(String eventType) {
+        if (eventType == null) {
+            return 0;
+        }
+        return switch (eventType) {
+            case "score-1" -> SCORE_1;
+            case "score-2" -> SCORE_2;
+            case "score-3" -> SCORE_3;
+            case "assist" -> ASSIST;
+            case "rebound" -> REBOUND;
+            case "foul" -> FOUL;
+            default -> 0;
+        };
+    }
+
+    /** The player's name as stored in {@code players.player_name}. */
+    String playerName() {
+        return lastName == null || lastName.isEmpty() ? firstName : firstName + ' ' + lastName;
+    }
+
+    String getPlayerNumber() {
+        return playerNumber;
+    }
+
+    int getType() {
+        return type;
+    }
+}
@@ -0,0 +1,202 @@
+package com.nba.gameinfo.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Turns one game log, a line at a time, into rows of Postgres COPY text format
+ * for {@code game_events} and {@code player_stats}. Lines are in the format the
+ * ingest service reads, {@code MM:SS <name...> <number> <event-type>}, where the
+ * number may be written as {@code (77)}. Event rows match the ones the ingest
+ * service writes; stat lines are counted as {@link LiveStatsService} counts them.
+ * Only the game's per-player counters are held, however long the log is.
+ */
+final class GameLogCopyRows {
+
+    static final String EVENT_COLUMNS = "game_id, player_id, event_type, event_time, quarter, time_remaining, "
+            + "description, points";
+    // Event rows carry their log line number last, so events of the same second keep the log's order
+    static final String STAGE_EVENT_COLUMNS = EVENT_COLUMNS + ", seq";
+    static final String STAT_COLUMNS = "game_id, player_id, points, rebounds, assists, fouls, field_goals_made, "
+            + "three_pointers_made, free_throws_made";
+
+    private static final int QUARTER_SECONDS = 12 * 60;
+    private static final int OVERTIME_SECONDS = 5 * 60;
+    private static final int REGULATION_SECONDS = 4 * QUARTER_SECONDS;
+    private static final DateTimeFormatter EVENT_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Event types by the index typeOf returns, in the order of the ingest service's EventType
+    private static final String[] LOG_TYPES = {"score-1", "score-2", "score-3", "assist", "rebound", "foul"};
+    private static final String[] TABLE_TYPES = {"FREE_THROW_MADE", "2PT_MADE", "3PT_MADE", "ASSIST", "REBOUND", "FOUL"};
+    private static final String[] DESCRIPTIONS = {"makes free throw", "makes 2-pointer", "makes 3-pointer", "assists",
+            "rebounds", "commits a foul"};
+    private static final int[] POINTS = {1, 2, 3, 0, 0, 0};
+
+    // Counters in STAT_COLUMNS order after game_id and player_id
+    private static final int STAT_COUNT = 7;
+    private static final int POINTS_STAT = 0;
+    private static final int REBOUNDS_STAT = 1;
+    private static final int ASSISTS_STAT = 2;
+    private static final int FOULS_STAT = 3;
+    private static final int FIELD_GOALS_STAT = 4;
+    private static final int THREE_POINTERS_STAT = 5;
+    private static final int FREE_THROWS_STAT = 6;
+
+    private final int gameId;
+    private final LocalDateTime tipOff;
+    private final Map<String, Integer> playerIds;
+    // Player ID to the counters of LiveStatsService, in player order
+    private final Map<Integer, int[]> stats = new TreeMap<>();
+    private long lineNumber;
+    private long events;
+    private long malformed;
+
+    /** {@code playerIds} is keyed by name and jersey number, as {@code "Luka Doncic#77"}. */
+    GameLogCopyRows(int gameId, LocalDateTime tipOff, Map<String, Integer> playerIds) {
+        this.gameId = gameId;
+        this.tipOff = tipOff;
+        this.playerIds = playerIds;
+    }
+
+    /**
+     * Appends the {@code game_events} row of one log line, in {@link #STAGE_EVENT_COLUMNS}.
+     * Events of players not in {@code players} are kept without a player ID, as the
+     * ingest service keeps them. Pass every line of the log, in order.
+     *
+     * @return false if the line is blank or malformed and nothing was appended.
+     */
+    boolean appendEvent(String line, Appendable out) throws IOException {
+        lineNumber++;
+        String[] tokens = line.trim().split("\\s+");
+        if (tokens.length < 4) {
+            if (!tokens[0].isEmpty()) {
+                malformed++;
+            }
+            return false;
+        }
+        int gameSeconds = parseClock(tokens[0]);
+        String number = tokens[tokens.length - 2];
+        if (number.length() > 2 && number.startsWith("(") && number.endsWith(")")) {
+            number = number.substring(1, number.length() - 1);
+        }
+        int jersey = parseNumber(number);
+        int type = typeOf(tokens[tokens.length - 1]);
+        if (gameSeconds < 0 || jersey < 0 || type < 0) {
+            malformed++;
+            return false;
+        }
+        String name = String.join(" ", Arrays.asList(tokens).subList(1, tokens.length - 2));
+        Integer playerId = playerIds.get(name + '#' + jersey);
+
+        int quarter;
+        int quarterEnd;
+        if (gameSeconds < REGULATION_SECONDS) {
+            quarter = gameSeconds / QUARTER_SECONDS + 1;
+            quarterEnd = quarter * QUARTER_SECONDS;
+        } else {
+            int overtime = (gameSeconds - REGULATION_SECONDS) / OVERTIME_SECONDS;
+            quarter = 5 + overtime;
+            quarterEnd = REGULATION_SECONDS + (overtime + 1) * OVERTIME_SECONDS;
+        }
+        int remaining = quarterEnd - gameSeconds;
+
+        out.append(Integer.toString(gameId)).append('\t');
+        out.append(playerId == null ? "\\N" : playerId.toString()).append('\t');
+        out.append(TABLE_TYPES[type]).append('\t');
+        out.append(EVENT_TIME.format(tipOff.plusSeconds(gameSeconds))).append('\t');
+        out.append(Integer.toString(quarter)).append('\t');
+        out.append(String.format("%02d:%02d", remaining / 60, remaining % 60)).append('\t');
+        appendText(out, name + ' ' + DESCRIPTIONS[type]);
+        out.append('\t').append(Integer.toString(POINTS[type]));
+        out.append('\t').append(Long.toString(lineNumber)).append('\n');
+
+        if (playerId != null) {
+            count(stats.computeIfAbsent(playerId, id -> new int[STAT_COUNT]), type);
+        }
+        events++;
+        return true;
+    }
+
+    /** Appends a {@code player_stats} row for every known player the log had an event of. */
+    void appendStats(Appendable out) throws IOException {
+        for (Map.Entry<Integer, int[]> entry : stats.entrySet()) {
+            out.append(Integer.toString(gameId)).append('\t').append(entry.getKey().toString());
+            for (int value : entry.getValue()) {
+                out.append('\t').append(Integer.toString(value));
+            }
+            out.append('\n');
+        }
+    }
+
+    long getEvents() { return events; }
+    long getMalformed() { return malformed; }
+    int getStatLines() { return stats.size(); }
+
+    private static int typeOf(String name) {
+        for (int i = 0; i < LOG_TYPES.length; i++) {
+            if (LOG_TYPES[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void count(int[] line, int type) {
+        switch (type) {
+            case 0 -> line[FREE_THROWS_STAT]++;
+            case 1 -> line[FIELD_GOALS_STAT]++;
+            case 2 -> {
+                line[FIELD_GOALS_STAT]++;
+                line[THREE_POINTERS_STAT]++;
+            }
+            case 3 -> line[ASSISTS_STAT]++;
+            case 4 -> line[REBOUNDS_STAT]++;
+            default -> line[FOULS_STAT]++;
+        }
+        line[POINTS_STAT] += POINTS[type];
+    }
+
+    /** Parses {@code M:SS} or {@code MM:SS} into seconds, or returns -1. */
+    static int parseClock(String clock) {
+        int colon = clock.indexOf(':');
+        if (colon < 1 || colon > 4 || clock.length() - colon != 3) {
+            return -1;
+        }
+        int minutes = parseNumber(clock.substring(0, colon));
+        int seconds = parseNumber(clock.substring(colon + 1));
+        return minutes < 0 || seconds < 0 || seconds > 59 ? -1 : minutes * 60 + seconds;
+    }
+
+    private static int parseNumber(String digits) {
+        if (digits.isEmpty() || digits.length() > 4) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            int digit = digits.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    // COPY text format: backslash, tab and line breaks are escaped
+    private static void appendText(Appendable out, String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\t' -> out.append("\\t");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                default -> out.append(c);
+            }
+        }
+    }
+}
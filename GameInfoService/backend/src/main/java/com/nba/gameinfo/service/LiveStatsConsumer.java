@@ -0,0 +1,171 @@
+package com.nba.gameinfo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Reads the game event topic into {@link LiveStatsService}. Each of
+ * {@code stats.live.consumers} threads owns every Nth partition and reads it from
+ * the beginning, so the counters are rebuilt from the topic on every start. A
+ * game is keyed to one partition, so its events are applied in order by a single
+ * thread. Partitions are assigned explicitly; no consumer group is joined and no
+ * offsets are committed.
+ */
+@Service
+public class LiveStatsConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveStatsConsumer.class);
+
+    /** Header marking non-event records, as set by the ingest service. */
+    static final String RECORD_TYPE_HEADER = "type";
+    private static final byte[] SNAPSHOT = "snapshot".getBytes(StandardCharsets.US_ASCII);
+    private static final long RETRY_MILLIS = 5000;
+
+    private final LiveStatsService liveStats;
+    private final ObjectMapper objectMapper;
+    private final Properties kafkaConsumerProps = new Properties();
+    private final List<KafkaConsumer<String, byte[]>> consumers = new CopyOnWriteArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running = true;
+
+    @Value("${stats.live.enabled:true}")
+    private boolean enabled;
+
+    @Value("${stats.live.topic}")
+    private String topicName;
+
+    @Value("${stats.live.consumers:2}")
+    private int consumerThreads;
+
+    @Value("${stats.live.poll-timeout-ms:500}")
+    private long pollTimeoutMillis;
+
+    public LiveStatsConsumer(LiveStatsService liveStats, ObjectMapper objectMapper,
+                             @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+        this.liveStats = liveStats;
+        this.objectMapper = objectMapper;
+        kafkaConsumerProps.put("bootstrap.servers", bootstrapServers);
+        kafkaConsumerProps.put("key.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+        kafkaConsumerProps.put("value.deserializer", "org.apache.kafka.common.serialization.ByteArrayDeserializer");
+        kafkaConsumerProps.put("enable.auto.commit", "false");
+        kafkaConsumerProps.put("auto.offset.reset", "earliest");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("Live player stats are disabled");
+            return;
+        }
+        int count = Math.max(1, consumerThreads);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            Thread thread = new Thread(() -> consume(index, count), "live-stats-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        consumers.forEach(KafkaConsumer::wakeup);
+        for (Thread thread : threads) {
+            thread.interrupt();
+            thread.join(5000);
+        }
+    }
+
+    private void consume(int index, int count) {
+        GameEventRecord event = new GameEventRecord(objectMapper.getFactory());
+        try (KafkaConsumer<String, byte[]> consumer = new KafkaConsumer<>(kafkaConsumerProps)) {
+            consumers.add(consumer);
+            while (running && !liveStats.load()) {
+                Thread.sleep(RETRY_MILLIS);
+            }
+            List<TopicPartition> partitions = ownPartitions(consumer, index, count);
+            if (partitions.isEmpty()) {
+                log.info("No partitions of {} for live stats thread {}", topicName, index);
+                return;
+            }
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            log.info("Live stats thread {} reading partitions {} of {}", index,
+                    partitions.stream().map(TopicPartition::partition).toList(), topicName);
+            while (running) {
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(Duration.ofMillis(pollTimeoutMillis))) {
+                    apply(record, event);
+                }
+            }
+        } catch (WakeupException | InterruptedException e) {
+            if (running) {
+                log.error("Live stats thread {} stopped unexpectedly", index, e);
+            }
+        } catch (Exception e) {
+            log.error("Live stats thread {} failed", index, e);
+        }
+    }
+
+    void apply(ConsumerRecord<String, byte[]> record, GameEventRecord event) {
+        if (record.value() == null) {
+            return;
+        }
+        try {
+            Header type = record.headers().lastHeader(RECORD_TYPE_HEADER);
+            if (type != null) {
+                if (Arrays.equals(type.value(), SNAPSHOT) && event.isGameStart(record.value())) {
+                    liveStats.restartGame(record.key());
+                }
+            } else if (event.decode(record.value())) {
+                liveStats.apply(record.key(), event);
+            }
+        } catch (IOException e) {
+            log.warn("Skipping unreadable record at {}-{}@{}: {}", record.topic(), record.partition(), record.offset(),
+                    e.getMessage());
+        }
+    }
+
+    private List<TopicPartition> ownPartitions(KafkaConsumer<String, byte[]> consumer, int index, int count)
+            throws InterruptedException {
+        while (running) {
+            try {
+                List<PartitionInfo> infos = consumer.partitionsFor(topicName, Duration.ofSeconds(10));
+                if (infos != null && !infos.isEmpty()) {
+                    List<TopicPartition> partitions = new ArrayList<>();
+                    for (PartitionInfo info : infos) {
+                        if (info.partition() % count == index) {
+                            partitions.add(new TopicPartition(info.topic(), info.partition()));
+                        }
+                    }
+                    return partitions;
+                }
+                log.info("Topic {} has no partitions yet, retrying...", topicName);
+            } catch (org.apache.kafka.common.errors.TimeoutException e) {
+                log.warn("Timed out fetching metadata for topic {}, retrying...", topicName);
+            }
+            Thread.sleep(RETRY_MILLIS);
+        }
+        return List.of();
+    }
+}
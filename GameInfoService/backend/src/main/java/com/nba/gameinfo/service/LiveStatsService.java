@@ -0,0 +1,300 @@
+package com.nba.gameinfo.service;
+
+import com.nba.gameinfo.dto.PlayerStatsDTO;
+import com.nba.gameinfo.entity.Player;
+import com.nba.gameinfo.repository.PlayerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Per-game and per-player box-score counters, folded from the game event topic
+ * and served to {@code /api/players} from memory.
+ * <p>
+ * Counters are {@link LongAdder}s: a game's events all arrive on one consumer
+ * thread, but a player's totals are added to by every thread, and adders spread
+ * those updates over cells instead of contending on one value. Changed
+ * (game, player) lines are upserted into {@code player_stats} in batches every
+ * {@code stats.live.flush-interval-ms}, as totals rather than increments, so a
+ * repeated flush is harmless.
+ * <p>
+ * {@code player_stats} is loaded first, so games no longer on the topic keep
+ * their stats. A game that is on the topic is rebuilt from it: its lines are
+ * cleared when its first record is read, and again when the ingest service
+ * starts sending the game over.
+ */
+@Service
+public class LiveStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveStatsService.class);
+
+    static final int POINTS = 0;
+    static final int REBOUNDS = 1;
+    static final int ASSISTS = 2;
+    static final int FOULS = 3;
+    static final int FIELD_GOALS_MADE = 4;
+    static final int THREE_POINTERS_MADE = 5;
+    static final int FREE_THROWS_MADE = 6;
+    private static final int STATS = 7;
+
+    static final String UPSERT_SQL = "INSERT INTO player_stats (game_id, player_id, points, rebounds, assists, fouls, "
+            + "field_goals_made, three_pointers_made, free_throws_made) "
+            + "SELECT ?, ?, ?, ?, ?, ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM games WHERE game_id = ?) "
+            + "ON CONFLICT (game_id, player_id) DO UPDATE SET points = EXCLUDED.points, "
+            + "rebounds = EXCLUDED.rebounds, assists = EXCLUDED.assists, fouls = EXCLUDED.fouls, "
+            + "field_goals_made = EXCLUDED.field_goals_made, three_pointers_made = EXCLUDED.three_pointers_made, "
+            + "free_throws_made = EXCLUDED.free_throws_made";
+    private static final Pattern GAME_NUMBER = Pattern.compile("^\\D*(\\d+)$");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlayerRepository playerRepository;
+    private final int batchSize;
+    // Keyed by game ID in the high 32 bits and player ID in the low 32
+    private final Map<Long, StatLine> lines = new ConcurrentHashMap<>();
+    private final Map<Integer, StatLine> totals = new ConcurrentHashMap<>();
+    private final Set<Integer> streamedGames = ConcurrentHashMap.newKeySet();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder version = new LongAdder();
+    private volatile Map<String, Integer> playerIds;
+
+    public LiveStatsService(JdbcTemplate jdbcTemplate, PlayerRepository playerRepository,
+                            @Value("${stats.live.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.playerRepository = playerRepository;
+        this.batchSize = batchSize;
+    }
+
+    /** One player's counters, in one game or in total. */
+    static final class StatLine {
+        private final LongAdder[] counters = new LongAdder[STATS];
+        private final AtomicBoolean dirty = new AtomicBoolean();
+
+        StatLine() {
+            for (int i = 0; i < STATS; i++) {
+                counters[i] = new LongAdder();
+            }
+        }
+
+        void add(int stat, long amount) {
+            counters[stat].add(amount);
+        }
+
+        int get(int stat) {
+            return (int) counters[stat].sum();
+        }
+    }
+
+    /**
+     * Loads the players events are matched to and the stats already stored. Safe
+     * to call again; later calls do nothing.
+     *
+     * @return false if the database could not be read.
+     */
+    public synchronized boolean load() {
+        if (playerIds != null) {
+            return true;
+        }
+        try {
+            Map<String, Integer> ids = new HashMap<>();
+            for (Player player : playerRepository.findAll()) {
+                if (player.getJerseyNumber() != null) {
+                    ids.put(playerKey(player.getPlayerName(), player.getJerseyNumber()), player.getPlayerId().intValue());
+                }
+            }
+            jdbcTemplate.query("SELECT game_id, player_id, points, rebounds, assists, fouls, field_goals_made, "
+                    + "three_pointers_made, free_throws_made FROM player_stats "
+                    + "WHERE game_id IS NOT NULL AND player_id IS NOT NULL", rs -> {
+                int game = rs.getInt(1);
+                int player = rs.getInt(2);
+                StatLine line = lines.computeIfAbsent(lineKey(game, player), key -> new StatLine());
+                StatLine total = totals.computeIfAbsent(player, key -> new StatLine());
+                for (int stat = 0; stat < STATS; stat++) {
+                    line.add(stat, rs.getInt(stat + 3));
+                    total.add(stat, rs.getInt(stat + 3));
+                }
+            });
+            playerIds = ids;
+            version.increment();
+            log.info("Live stats loaded {} players and {} stored player_stats rows", ids.size(), lines.size());
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Cannot load players and player_stats yet: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Folds one event of the game keyed {@code gameKey} into its player's counters.
+     * Only call this for a given game from one thread at a time.
+     */
+    void apply(String gameKey, GameEventRecord event) {
+        Integer game = gameNumber(gameKey);
+        Integer number = jerseyNumber(event.getPlayerNumber());
+        Integer player = game == null || number == null ? null : playerIds.get(playerKey(event.playerName(), number));
+        if (player == null) {
+            skipped.increment();
+            return;
+        }
+        if (streamedGames.add(game)) {
+            clearGame(game);
+        }
+        StatLine line = lines.computeIfAbsent(lineKey(game, player), key -> new StatLine());
+        StatLine total = totals.computeIfAbsent(player, key -> new StatLine());
+        switch (event.getType()) {
+            case GameEventRecord.SCORE_1 -> {
+                count(line, total, POINTS, 1);
+                count(line, total, FREE_THROWS_MADE, 1);
+            }
+            case GameEventRecord.SCORE_2 -> {
+                count(line, total, POINTS, 2);
+                count(line, total, FIELD_GOALS_MADE, 1);
+            }
+            case GameEventRecord.SCORE_3 -> {
+                count(line, total, POINTS, 3);
+                count(line, total, FIELD_GOALS_MADE, 1);
+                count(line, total, THREE_POINTERS_MADE, 1);
+            }
+            case GameEventRecord.ASSIST -> count(line, total, ASSISTS, 1);
+            case GameEventRecord.REBOUND -> count(line, total, REBOUNDS, 1);
+            case GameEventRecord.FOUL -> count(line, total, FOULS, 1);
+            default -> {
+            }
+        }
+        line.dirty.set(true);
+        events.increment();
+        version.increment();
+    }
+
+    /** The ingest service is sending the game from its start again; count it from zero. */
+    void restartGame(String gameKey) {
+        Integer game = gameNumber(gameKey);
+        if (game != null) {
+            streamedGames.add(game);
+            clearGame(game);
+        }
+    }
+
+    private void clearGame(int game) {
+        lines.forEach((key, line) -> {
+            if ((int) (key >>> 32) != game) {
+                return;
+            }
+            StatLine total = totals.get(key.intValue());
+            for (int stat = 0; stat < STATS; stat++) {
+                long value = line.counters[stat].sumThenReset();
+                total.add(stat, -value);
+            }
+            line.dirty.set(true);
+        });
+        version.increment();
+    }
+
+    private static void count(StatLine line, StatLine total, int stat, int amount) {
+        line.add(stat, amount);
+        total.add(stat, amount);
+    }
+
+    /** Sets the player's live totals on {@code dto}; players with no events keep zeros. */
+    public void fill(Long playerId, PlayerStatsDTO dto) {
+        StatLine total = playerId == null ? null : totals.get(playerId.intValue());
+        if (total == null) {
+            return;
+        }
+        dto.setPoints(total.get(POINTS));
+        dto.setRebounds(total.get(REBOUNDS));
+        dto.setAssists(total.get(ASSISTS));
+        dto.setFouls(total.get(FOULS));
+    }
+
+    /**
+     * Upserts every line changed since the last flush. A line is marked clean
+     * before it is read, so an event counted meanwhile is flushed next time.
+     */
+    @Scheduled(fixedDelayString = "${stats.live.flush-interval-ms:2000}")
+    public void flush() {
+        if (playerIds == null) {
+            return;
+        }
+        List<StatLine> flushed = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        lines.forEach((key, line) -> {
+            if (!line.dirty.getAndSet(false)) {
+                return;
+            }
+            int game = (int) (key >>> 32);
+            flushed.add(line);
+            rows.add(new Object[]{game, key.intValue(), line.get(POINTS), line.get(REBOUNDS), line.get(ASSISTS),
+                    line.get(FOULS), line.get(FIELD_GOALS_MADE), line.get(THREE_POINTERS_MADE),
+                    line.get(FREE_THROWS_MADE), game});
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+            }
+            log.debug("Flushed {} player_stats rows ({} events counted, {} skipped)", rows.size(), events.sum(),
+                    skipped.sum());
+        } catch (DataAccessException e) {
+            flushed.forEach(line -> line.dirty.set(true));
+            log.warn("Writing player_stats failed, retrying at the next flush: {}", e.getMessage());
+        }
+    }
+
+    /** Changes whenever any player's totals may have changed. */
+    public long getVersion() {
+        return version.sum();
+    }
+
+    /** Events counted; events of unknown games or players are skipped. */
+    public long getEvents() {
+        return events.sum();
+    }
+
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    /** The {@code games} row a game key names by its number, so {@code game3} is game 3. */
+    static Integer gameNumber(String gameKey) {
+        if (gameKey == null) {
+            return null;
+        }
+        Matcher matcher = GAME_NUMBER.matcher(gameKey);
+        return matcher.matches() ? Integer.valueOf(matcher.group(1)) : null;
+    }
+
+    private static String playerKey(String name, int number) {
+        return name + '#' + number;
+    }
+
+    /** Jersey numbers are stored as integers, so "00" and "0" are the same jersey. */
+    private static Integer jerseyNumber(String number) {
+        try {
+            return Integer.valueOf(number);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long lineKey(int game, int player) {
+        return (long) game << 32 | (player & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,211 @@
+package com.nba.gameinfo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of JSON responses. Each entry holds the data loaded
+ * from the database and the response body serialized from it, with an ETag and
+ * Last-Modified, so a repeat request is answered without a query or serializing.
+ * <p>
+ * Data expires after {@code cache.ttl-ms} and the least recently used entries are
+ * evicted beyond {@code cache.max-entries}; {@link #invalidateAll} drops
+ * everything when the underlying rows change, and data whose load overlapped an
+ * invalidation is served once but not cached. A response may also depend on a
+ * version besides its data, such as the live stats: when that moves on, the body
+ * is serialized again from the cached data without going back to the database.
+ */
+@Service
+public class ResponseCache {
+
+    /** A serialized response; {@code lastModified} is in whole seconds, as HTTP dates are. */
+    public record Body(byte[] json, String etag, long lastModified) {
+    }
+
+    private static final class Entry {
+        private final Object data;
+        private final long loadedAt;
+        private Body body;
+        private long version;
+
+        private Entry(Object data, long loadedAt) {
+            this.data = data;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder renders = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder hitNanos = new LongAdder();
+    private final LongAdder missNanos = new LongAdder();
+    private final LongAccumulator maxMissNanos = new LongAccumulator(Math::max, 0);
+    // Bodies of entries that were reloaded or invalidated, so an unchanged reload keeps its Last-Modified
+    private final Map<String, Body> previousBodies;
+    // Guarded by entries: bumped by every invalidateAll, so a load that raced one is not cached
+    private long epoch;
+
+    public ResponseCache(ObjectMapper objectMapper,
+                         @Value("${cache.ttl-ms:60000}") long ttlMillis,
+                         @Value("${cache.max-entries:256}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.previousBodies = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Body> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** A response that only depends on its data. */
+    public <T> Body get(String key, Supplier<T> load) {
+        return get(key, load, 0, data -> { });
+    }
+
+    /**
+     * The cached response for {@code key}, loading its data if it is missing or
+     * expired and serializing it if that or {@code version} changed.
+     *
+     * @param prepare applied to the data just before it is serialized, e.g. to
+     *                set live values; calls for one entry never overlap.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Body get(String key, Supplier<T> load, long version, Consumer<T> prepare) {
+        long started = System.nanoTime();
+        Entry entry;
+        long loadEpoch;
+        synchronized (entries) {
+            entry = entries.get(key);
+            loadEpoch = epoch;
+        }
+        boolean loaded = entry == null || started - entry.loadedAt > ttlNanos;
+        boolean cached = true;
+        if (loaded) {
+            // Concurrent misses may both load; the last one stays cached
+            entry = new Entry(load.get(), System.nanoTime());
+            synchronized (entries) {
+                cached = epoch == loadEpoch;
+                if (cached) {
+                    Entry expired = entries.put(key, entry);
+                    if (expired != null && expired.body != null) {
+                        previousBodies.put(key, expired.body);
+                    }
+                }
+            }
+            misses.increment();
+        }
+        Body body;
+        boolean rendered = false;
+        synchronized (entry) {
+            if (entry.body == null || entry.version != version) {
+                prepare.accept((T) entry.data);
+                Body previous = entry.body;
+                if (previous == null) {
+                    synchronized (entries) {
+                        previous = cached ? previousBodies.remove(key) : previousBodies.get(key);
+                    }
+                }
+                entry.body = serialize(entry.data, previous);
+                entry.version = version;
+                rendered = true;
+            }
+            body = entry.body;
+        }
+        long elapsed = System.nanoTime() - started;
+        if (loaded) {
+            missNanos.add(elapsed);
+            maxMissNanos.accumulate(elapsed);
+        } else {
+            hitNanos.add(elapsed);
+            (rendered ? renders : hits).increment();
+        }
+        return body;
+    }
+
+    /** Drops every entry, for when teams or players change. */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.forEach((key, entry) -> {
+                if (entry.body != null) {
+                    previousBodies.put(key, entry.body);
+                }
+            });
+            entries.clear();
+            epoch++;
+        }
+    }
+
+    private Body serialize(Object data, Body previous) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize cached response", e);
+        }
+        String etag = '"' + HexFormat.of().formatHex(sha256(json), 0, 16) + '"';
+        if (previous != null && previous.etag().equals(etag)) {
+            return previous;
+        }
+        return new Body(json, etag, System.currentTimeMillis() / 1000 * 1000);
+    }
+
+    private static byte[] sha256(byte[] json) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(json);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Hits are served from a cached body, renders serialized cached data again,
+     * and misses loaded from the database. Latencies are of the cache lookup,
+     * including loading and serializing.
+     */
+    public Map<String, Object> getMetrics() {
+        long hitCount = hits.sum();
+        long renderCount = renders.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + renderCount + missCount;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        synchronized (entries) {
+            metrics.put("entries", entries.size());
+        }
+        metrics.put("hits", hitCount);
+        metrics.put("renders", renderCount);
+        metrics.put("misses", missCount);
+        metrics.put("evictions", evictions.sum());
+        metrics.put("hitRatio", requests == 0 ? 0 : (double) (hitCount + renderCount) / requests);
+        metrics.put("avgHitMicros", hitCount + renderCount == 0 ? 0 : hitNanos.sum() / 1000 / (hitCount + renderCount));
+        metrics.put("avgMissMicros", missCount == 0 ? 0 : missNanos.sum() / 1000 / missCount);
+        metrics.put("maxMissMicros", maxMissNanos.get() / 1000);
+        return metrics;
+    }
+}
@@ -0,0 +1,58 @@
+package com.nba.gameinfo.controller;
+
+import com.nba.gameinfo.entity.Team;
+import com.nba.gameinfo.repository.TeamRepository;
+import com.nba.gameinfo.service.ResponseCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TeamController.class)
+@Import(ResponseCache.class)
+class TeamControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TeamRepository teamRepository;
+
+    @Test
+    void answersRepeatRequestsFromTheCacheWithNotModified() throws Exception {
+        Team celtics = new Team();
+        celtics.setTeamName("Celtics");
+        when(teamRepository.findAll()).thenReturn(List.of(celtics));
+
+        MvcResult first = mockMvc.perform(get("/api/teams"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].teamName").value("Celtics"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/teams").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/teams").header("If-Modified-Since", first.getResponse().getHeader("Last-Modified")))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/teams").header("If-None-Match", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag));
+        verify(teamRepository, times(1)).findAll();
+    }
+}
@@ -0,0 +1,161 @@
+package com.nba.gameinfo.repository;
+
+import com.nba.gameinfo.dto.GameEventDTO;
+import com.nba.gameinfo.entity.Game;
+import com.nba.gameinfo.entity.GameEvent;
+import com.nba.gameinfo.entity.Player;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plays a game of events into game 3 on the init.sql schema, on H2 in
+ * PostgreSQL mode as for {@link PlayerSearchTests}.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:nba;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=file:../init.sql"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class GameEventSearchTests {
+
+    private static final int EVENTS = 240;
+    private static final LocalDateTime TIP_OFF = LocalDateTime.of(2024, 6, 12, 20, 0);
+    private static final String[] TYPES = {"2PT_MADE", "3PT_MADE", "FOUL", "REBOUND"};
+
+    @Autowired
+    private GameEventRepository gameEventRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Two events every 20 seconds, so ties in time are ordered by event ID
+        for (int i = 0; i < EVENTS; i++) {
+            GameEvent event = new GameEvent();
+            event.setGame(entityManager.getReference(Game.class, 3L));
+            event.setPlayer(entityManager.getReference(Player.class, (long) (i % 4 + 1)));
+            event.setEventType(TYPES[i / 4 % TYPES.length]);
+            event.setEventTime(TIP_OFF.plusSeconds(i / 2 * 20));
+            event.setQuarter(i * 4 / EVENTS + 1);
+            event.setPoints(0);
+            entityManager.persist(event);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void loadsAWholeGameInOneQuery() {
+        List<GameEventDTO> events = gameEventRepository.findPlayByPlay(3L);
+
+        assertEquals(EVENTS, events.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("Jayson Tatum", events.get(0).getPlayerName());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(before(events.get(i - 1), events.get(i)), "event " + i + " out of order");
+        }
+    }
+
+    @Test
+    void pagesMatchTheFilters() {
+        List<GameEventDTO> game = gameEventRepository.findPlayByPlay(3L);
+        LocalDateTime from = TIP_OFF.plusMinutes(10);
+        LocalDateTime to = TIP_OFF.plusMinutes(25);
+
+        assertPages(game, search -> search.setGameId(3L), event -> true);
+        assertPages(game, search -> {
+            search.setGameId(3L);
+            search.setFrom(from);
+            search.setTo(to);
+        }, event -> !event.getEventTime().isBefore(from) && event.getEventTime().isBefore(to));
+        assertPages(game, search -> {
+            search.setGameId(3L);
+            search.setPlayerId(2L);
+        }, event -> event.getPlayerId() == 2L);
+        assertPages(game, search -> {
+            search.setGameId(3L);
+            search.setEventType("FOUL");
+        }, event -> "FOUL".equals(event.getEventType()));
+    }
+
+    @Test
+    void pagesAPlayersEventsAcrossGames() {
+        List<GameEventDTO> all = new ArrayList<>();
+        for (long gameId = 1; gameId <= 7; gameId++) {
+            all.addAll(gameEventRepository.findPlayByPlay(gameId));
+        }
+        all.sort((a, b) -> before(a, b) ? -1 : 1);
+
+        assertPages(all, search -> {
+            search.setPlayerId(1L);
+            search.setEventType("3PT_MADE");
+        }, event -> event.getPlayerId() == 1L && "3PT_MADE".equals(event.getEventType()));
+    }
+
+    @Test
+    void rejectsACursorMadeForOtherFilters() {
+        GameEventSearch first = new GameEventSearch();
+        first.setGameId(3L);
+        String cursor = first.cursorAfter(gameEventRepository.search(first, 7).get(6));
+
+        GameEventSearch otherGame = new GameEventSearch();
+        otherGame.setGameId(4L);
+        assertThrows(IllegalArgumentException.class, () -> otherGame.startAfter(cursor));
+        GameEventSearch narrower = new GameEventSearch();
+        narrower.setGameId(3L);
+        narrower.setEventType("FOUL");
+        assertThrows(IllegalArgumentException.class, () -> narrower.startAfter(cursor));
+    }
+
+    /** Walks every page of 7 and checks they add up to the matching events in order, each page in one statement. */
+    private void assertPages(List<GameEventDTO> events, Consumer<GameEventSearch> filter, Predicate<GameEventDTO> matches) {
+        List<Long> expected = events.stream().filter(matches).map(GameEventDTO::getEventId).toList();
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            GameEventSearch search = new GameEventSearch();
+            filter.accept(search);
+            if (cursor != null) {
+                search.startAfter(cursor);
+            }
+            statistics.clear();
+            List<GameEventDTO> page = gameEventRepository.search(search, 7);
+
+            assertEquals(1, statistics.getPrepareStatementCount());
+            page.stream().limit(7).forEach(event -> paged.add(event.getEventId()));
+            cursor = page.size() > 7 ? search.cursorAfter(page.get(6)) : null;
+        } while (cursor != null);
+
+        assertTrue(expected.size() > 7, "too few events to page");
+        assertEquals(expected, paged);
+    }
+
+    private static boolean before(GameEventDTO a, GameEventDTO b) {
+        int byTime = a.getEventTime().compareTo(b.getEventTime());
+        return byTime < 0 || byTime == 0 && a.getEventId() < b.getEventId();
+    }
+}
@@ -0,0 +1,169 @@
+package com.nba.gameinfo.repository;
+
+import com.nba.gameinfo.dto.PlayerStatsDTO;
+import com.nba.gameinfo.entity.Player;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs init.sql on H2 in PostgreSQL mode, with nulls ordered as Postgres orders
+ * them, and counts statements through Hibernate's statistics.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:nba;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=file:../init.sql"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PlayerSearchTests {
+
+    private static final long MAX_PAGE_MILLIS = 100;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Unsigned and without a team, so nulls are paged too
+        Player freeAgent = new Player();
+        freeAgent.setPlayerName("Free Agent");
+        freeAgent.setPosition("SG");
+        entityManager.persist(freeAgent);
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listsEveryPlayerWithItsTeamInOneQuery() {
+        List<PlayerStatsDTO> players = playerRepository.findAllStats();
+
+        assertEquals(32, players.size());
+        assertEquals("Celtics", players.get(0).getTeamName());
+        assertEquals("Mavericks", players.get(30).getTeamName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void pagesInEveryOrderMatchTheFullOrder() {
+        for (PlayerSearch.Sort sort : PlayerSearch.Sort.values()) {
+            for (boolean descending : new boolean[]{false, true}) {
+                assertPages(sort, descending, search -> { }, player -> true);
+            }
+        }
+    }
+
+    @Test
+    void pagesWithinFilters() {
+        assertPages(PlayerSearch.Sort.SALARY, true, search -> search.setTeam("Mavericks"),
+                player -> "Mavericks".equals(player.getTeamName()));
+        assertPages(PlayerSearch.Sort.NAME, false, search -> search.setPosition("SG"),
+                player -> "SG".equals(player.getPosition()));
+        assertPages(PlayerSearch.Sort.JERSEY, false, search -> {
+            search.setMinSalary(2_000_000.0);
+            search.setMaxSalary(10_000_000.0);
+        }, player -> player.getSalary() != null && player.getSalary() >= 2_000_000 && player.getSalary() <= 10_000_000);
+    }
+
+    @Test
+    void rejectsACursorMadeForOtherFilters() {
+        PlayerSearch first = new PlayerSearch();
+        first.setSort(PlayerSearch.Sort.SALARY);
+        first.setTeam("Mavericks");
+        String cursor = first.cursorAfter(playerRepository.search(first, 4).get(3));
+
+        PlayerSearch otherTeam = new PlayerSearch();
+        otherTeam.setSort(PlayerSearch.Sort.SALARY);
+        otherTeam.setTeam("Celtics");
+        assertThrows(IllegalArgumentException.class, () -> otherTeam.startAfter(cursor));
+        PlayerSearch narrower = new PlayerSearch();
+        narrower.setSort(PlayerSearch.Sort.SALARY);
+        narrower.setTeam("Mavericks");
+        narrower.setMinSalary(1_000_000.0);
+        assertThrows(IllegalArgumentException.class, () -> narrower.startAfter(cursor));
+    }
+
+    /**
+     * Walks every page of 4 and checks they add up to the matching players in the
+     * expected order, each page in one statement, or two where it reaches the
+     * players without a value. The walk is repeated so the
+     * latency bound applies to queries Hibernate has already compiled.
+     */
+    private void assertPages(PlayerSearch.Sort sort, boolean descending,
+                             Consumer<PlayerSearch> filter, Predicate<PlayerStatsDTO> matches) {
+        List<PlayerStatsDTO> expected = new ArrayList<>(playerRepository.findAllStats().stream().filter(matches).toList());
+        expected.sort(order(sort, descending));
+
+        for (int pass = 0; pass < 2; pass++) {
+            List<Long> paged = new ArrayList<>();
+            String cursor = null;
+            do {
+                PlayerSearch search = new PlayerSearch();
+                search.setSort(sort);
+                search.setDescending(descending);
+                filter.accept(search);
+                if (cursor != null) {
+                    search.startAfter(cursor);
+                }
+                statistics.clear();
+                long started = System.nanoTime();
+                List<PlayerStatsDTO> page = playerRepository.search(search, 4);
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+                assertTrue(statistics.getPrepareStatementCount() <= 2, sort + " page " + paged.size() / 4);
+                if (pass > 0) {
+                    assertTrue(millis < MAX_PAGE_MILLIS, sort + " page took " + millis + " ms");
+                }
+                page.stream().limit(4).forEach(player -> paged.add(player.getPlayerId()));
+                cursor = page.size() > 4 ? search.cursorAfter(page.get(3)) : null;
+            } while (cursor != null);
+
+            assertEquals(expected.stream().map(PlayerStatsDTO::getPlayerId).toList(), paged,
+                    sort + (descending ? " desc" : " asc"));
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<PlayerStatsDTO> order(PlayerSearch.Sort sort, boolean descending) {
+        Function<PlayerStatsDTO, Comparable> key = switch (sort) {
+            case ID -> PlayerStatsDTO::getPlayerId;
+            case NAME -> PlayerStatsDTO::getPlayerName;
+            case SALARY -> PlayerStatsDTO::getSalary;
+            case JERSEY -> PlayerStatsDTO::getJerseyNumber;
+        };
+        // Nulls are the highest values, as in Postgres
+        Comparator<PlayerStatsDTO> ascending = (a, b) -> {
+            Comparable x = key.apply(a);
+            Comparable y = key.apply(b);
+            int byKey = x == null ? (y == null ? 0 : 1) : y == null ? -1 : x.compareTo(y);
+            return byKey != 0 ? byKey : a.getPlayerId().compareTo(b.getPlayerId());
+        };
+        return descending ? ascending.reversed() : ascending;
+    }
+}
@@ -0,0 +1,87 @@
+package com.nba.gameinfo.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameEventRecordTests {
+
+    private final GameEventRecord event = new GameEventRecord(new JsonFactory());
+
+    @Test
+    void decodesTheIngestServiceBinaryLayout() throws IOException {
+        // u8 version, u16 clock, u8 type code, then u8-length-prefixed first name, last name and number
+        assertTrue(event.decode(binary(308, GameEventRecord.REBOUND, "Dereck", "Lively II", "00")));
+
+        assertEquals("Dereck Lively II", event.playerName());
+        assertEquals("00", event.getPlayerNumber());
+        assertEquals(GameEventRecord.REBOUND, event.getType());
+
+        assertTrue(event.decode(binary(2879, GameEventRecord.SCORE_3, "Nene", "", "31")));
+        assertEquals("Nene", event.playerName());
+        assertEquals(GameEventRecord.SCORE_3, event.getType());
+    }
+
+    @Test
+    void rejectsMalformedBinaryRecords() throws IOException {
+        byte[] valid = binary(22, GameEventRecord.SCORE_2, "Luka", "Doncic", "77");
+
+        assertFalse(event.decode(Arrays.copyOf(valid, valid.length - 1)));
+        assertFalse(event.decode(Arrays.copyOf(valid, valid.length + 1)));
+        assertFalse(event.decode(binary(22, 7, "Luka", "Doncic", "77")));
+        assertFalse(event.decode(new byte[]{1, 0, 22, 2, 4}));
+    }
+
+    @Test
+    void decodesJsonEvents() throws IOException {
+        assertTrue(event.decode(json("{\"firstname\":\"Derrick\",\"lastname\":\"Jones Jr.\",\"player_number\":\"55\","
+                + "\"extra\":{\"nested\":[1,2]},\"event_type\":\"foul\",\"timestamp\":\"06:02\"}")));
+
+        assertEquals("Derrick Jones Jr.", event.playerName());
+        assertEquals("55", event.getPlayerNumber());
+        assertEquals(GameEventRecord.FOUL, event.getType());
+    }
+
+    @Test
+    void rejectsJsonThatIsNotAGameEvent() throws IOException {
+        assertFalse(event.decode(json("{\"firstname\":\"Luka\",\"lastname\":\"Doncic\",\"player_number\":\"77\","
+                + "\"event_type\":\"dunk\"}")));
+        assertFalse(event.decode(json("{\"firstname\":\"Luka\",\"lastname\":\"Doncic\",\"event_type\":\"score-2\"}")));
+        assertFalse(event.decode(json("[\"score-2\"]")));
+        assertFalse(event.decode(json("{\"game_seconds\":600,\"events\":87,\"teams\":[],\"players\":[]}")));
+    }
+
+    @Test
+    void recognisesOnlyTheSnapshotSentBeforeTheFirstEvent() throws IOException {
+        assertTrue(event.isGameStart(json("{\"game_seconds\":0,\"events\":0,\"teams\":[],\"players\":[]}")));
+        assertFalse(event.isGameStart(json("{\"game_seconds\":600,\"events\":87,\"teams\":[],\"players\":[]}")));
+        assertFalse(event.isGameStart(json("{\"teams\":[{\"team\":\"Celtics\",\"events\":0}]}")));
+    }
+
+    /** Builds a record as the ingest service's {@code GameEventEncoder} writes it. */
+    static byte[] binary(int gameSeconds, int type, String firstName, String lastName, String number) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(1);
+        out.write(gameSeconds >>> 8);
+        out.write(gameSeconds);
+        out.write(type);
+        for (String field : new String[]{firstName, lastName, number}) {
+            byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+            out.write(bytes.length);
+            out.writeBytes(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] json(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
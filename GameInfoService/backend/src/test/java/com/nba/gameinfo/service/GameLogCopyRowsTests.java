@@ -0,0 +1,71 @@
+package com.nba.gameinfo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameLogCopyRowsTests {
+
+    private static final LocalDateTime TIP_OFF = LocalDateTime.of(2024, 6, 6, 20, 0);
+
+    private final GameLogCopyRows rows = new GameLogCopyRows(1, TIP_OFF,
+            Map.of("Luka Doncic#77", 9, "Jayson Tatum#0", 1, "Dereck Lively II#2", 12));
+
+    @Test
+    void writesEventRowsAsTheIngestServiceDoes() throws IOException {
+        StringBuilder out = new StringBuilder();
+
+        assertTrue(rows.appendEvent("00:22 Luka Doncic 77 score-2", out));
+        assertFalse(rows.appendEvent("", out));
+        assertTrue(rows.appendEvent("  47:10  Dereck Lively II (2) rebound\r", out));
+        assertTrue(rows.appendEvent("50:00 Shaquille O\\Neal 34 foul", out));
+
+        assertEquals("""
+                1\t9\t2PT_MADE\t2024-06-06 20:00:22\t1\t11:38\tLuka Doncic makes 2-pointer\t2\t1
+                1\t12\tREBOUND\t2024-06-06 20:47:10\t4\t00:50\tDereck Lively II rebounds\t0\t3
+                1\t\\N\tFOUL\t2024-06-06 20:50:00\t5\t03:00\tShaquille O\\\\Neal commits a foul\t0\t4
+                """, out.toString());
+        assertEquals(3, rows.getEvents());
+    }
+
+    @Test
+    void skipsBlankAndMalformedLines() throws IOException {
+        StringBuilder out = new StringBuilder();
+
+        assertFalse(rows.appendEvent("", out));
+        assertFalse(rows.appendEvent("   ", out));
+        assertFalse(rows.appendEvent("00:22 Luka Doncic 77 dunk", out));
+        assertFalse(rows.appendEvent("0:75 Luka Doncic 77 score-2", out));
+        assertFalse(rows.appendEvent("00:22 Luka Doncic #77 score-2", out));
+        assertFalse(rows.appendEvent("00:22 Luka score-2", out));
+
+        assertEquals("", out.toString());
+        assertEquals(0, rows.getEvents());
+        assertEquals(4, rows.getMalformed());
+    }
+
+    @Test
+    void countsStatLinesAsLiveStatsDo() throws IOException {
+        StringBuilder events = new StringBuilder();
+        for (String line : new String[]{"00:22 Luka Doncic 77 score-2", "01:00 Luka Doncic 77 score-3",
+                "02:00 Luka Doncic 77 score-1", "03:00 Luka Doncic 77 assist", "04:00 Jayson Tatum 0 foul",
+                "05:00 Jayson Tatum 0 rebound", "06:00 Kyrie Irving 11 score-3"}) {
+            rows.appendEvent(line, events);
+        }
+        StringBuilder out = new StringBuilder();
+        rows.appendStats(out);
+
+        // points, rebounds, assists, fouls, field goals, threes, free throws; unknown players have no line
+        assertEquals("""
+                1\t1\t0\t1\t0\t1\t0\t0\t0
+                1\t9\t6\t0\t1\t0\t2\t1\t1
+                """, out.toString());
+        assertEquals(2, rows.getStatLines());
+    }
+}
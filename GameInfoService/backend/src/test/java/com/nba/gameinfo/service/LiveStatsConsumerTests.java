@@ -0,0 +1,66 @@
+package com.nba.gameinfo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class LiveStatsConsumerTests {
+
+    private static final String GAME_START = "{\"game_seconds\":0,\"events\":0,\"teams\":[],\"players\":[]}";
+
+    private final LiveStatsService liveStats = mock(LiveStatsService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LiveStatsConsumer consumer = new LiveStatsConsumer(liveStats, objectMapper, "localhost:9092");
+    private final GameEventRecord event = new GameEventRecord(objectMapper.getFactory());
+
+    @Test
+    void appliesEventRecords() {
+        consumer.apply(record(null, GameEventRecordTests.binary(22, GameEventRecord.SCORE_2, "Luka", "Doncic", "77")),
+                event);
+
+        verify(liveStats).apply("game1", event);
+        verify(liveStats, never()).restartGame(anyString());
+    }
+
+    @Test
+    void restartsTheGameOnTheSnapshotSentBeforeItsFirstEvent() {
+        consumer.apply(record("snapshot", GameEventRecordTests.json(GAME_START)), event);
+
+        verify(liveStats).restartGame("game1");
+        verify(liveStats, never()).apply(anyString(), any());
+    }
+
+    @Test
+    void neverCountsRecordsWithATypeHeader() {
+        byte[] eventJson = GameEventRecordTests.json("{\"firstname\":\"Luka\",\"lastname\":\"Doncic\","
+                + "\"player_number\":\"77\",\"event_type\":\"score-2\"}");
+
+        consumer.apply(record("snapshot", GameEventRecordTests.json(
+                "{\"game_seconds\":600,\"events\":87,\"teams\":[],\"players\":[]}")), event);
+        consumer.apply(record("snapshot", eventJson), event);
+        consumer.apply(record("marker", GameEventRecordTests.json(GAME_START)), event);
+        consumer.apply(record("marker", eventJson), event);
+
+        verify(liveStats, never()).apply(anyString(), any());
+        verify(liveStats, never()).restartGame(eq("game1"));
+    }
+
+    private static ConsumerRecord<String, byte[]> record(String type, byte[] value) {
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>("nba-finals", 0, 0, "game1", value);
+        if (type != null) {
+            record.headers().add(new RecordHeader(LiveStatsConsumer.RECORD_TYPE_HEADER,
+                    type.getBytes(StandardCharsets.US_ASCII)));
+        }
+        return record;
+    }
+}
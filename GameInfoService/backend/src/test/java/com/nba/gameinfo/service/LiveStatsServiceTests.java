@@ -0,0 +1,183 @@
+package com.nba.gameinfo.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.nba.gameinfo.dto.PlayerStatsDTO;
+import com.nba.gameinfo.entity.Player;
+import com.nba.gameinfo.repository.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LiveStatsServiceTests {
+
+    private static final int LUKA = 9;
+    private static final int TATUM = 1;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlayerRepository playerRepository = mock(PlayerRepository.class);
+    private final LiveStatsService liveStats = new LiveStatsService(jdbcTemplate, playerRepository, 500);
+    private final GameEventRecord event = new GameEventRecord(new JsonFactory());
+    // Stored player_stats rows: game, player, then the seven counters
+    private final List<int[]> stored = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(playerRepository.findAll()).thenReturn(List.of(player(LUKA, "Luka Doncic", 77),
+                player(TATUM, "Jayson Tatum", 0)));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int[] row : stored) {
+                ResultSet rs = mock(ResultSet.class);
+                for (int column = 0; column < row.length; column++) {
+                    when(rs.getInt(column + 1)).thenReturn(row[column]);
+                }
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void countsEventsIntoGameLinesAndPlayerTotals() throws IOException {
+        assertTrue(liveStats.load());
+
+        apply("game1", GameEventRecord.SCORE_3, "Luka", "Doncic", "77");
+        apply("game1", GameEventRecord.SCORE_1, "Luka", "Doncic", "77");
+        apply("game1", GameEventRecord.REBOUND, "Luka", "Doncic", "77");
+        apply("game1", GameEventRecord.FOUL, "Jayson", "Tatum", "00");
+
+        assertEquals(4, liveStats.getEvents());
+        assertEquals(new Totals(4, 1, 0, 0), totals(LUKA));
+        assertEquals(new Totals(0, 0, 0, 1), totals(TATUM));
+        liveStats.flush();
+        List<Object[]> rows = flushedRows(1);
+        assertEquals(2, rows.size());
+        assertArrayEquals(new Object[]{1, LUKA, 4, 1, 0, 0, 1, 1, 1, 1}, row(rows, LUKA));
+    }
+
+    @Test
+    void skipsEventsOfUnknownPlayersAndGames() throws IOException {
+        assertTrue(liveStats.load());
+
+        apply("game1", GameEventRecord.SCORE_2, "Luka", "Doncic", "?");
+        apply("game1", GameEventRecord.SCORE_2, "Kyrie", "Irving", "11");
+        apply("game1-2", GameEventRecord.SCORE_2, "Luka", "Doncic", "77");
+
+        assertEquals(0, liveStats.getEvents());
+        assertEquals(3, liveStats.getSkipped());
+        assertEquals(new Totals(0, 0, 0, 0), totals(LUKA));
+    }
+
+    @Test
+    void rebuildsAStreamedGameWithoutTouchingOtherGamesTotals() throws IOException {
+        stored.add(new int[]{1, LUKA, 30, 8, 5, 2, 10, 3, 7});
+        stored.add(new int[]{2, LUKA, 20, 4, 3, 1, 8, 1, 3});
+        assertTrue(liveStats.load());
+        assertEquals(new Totals(50, 12, 8, 3), totals(LUKA));
+
+        apply("game1", GameEventRecord.SCORE_2, "Luka", "Doncic", "77");
+
+        assertEquals(new Totals(22, 4, 3, 1), totals(LUKA));
+        liveStats.flush();
+        assertArrayEquals(new Object[]{1, LUKA, 2, 0, 0, 0, 1, 0, 0, 1}, row(flushedRows(1), LUKA));
+    }
+
+    @Test
+    void restartingAGameCountsItFromZero() throws IOException {
+        assertTrue(liveStats.load());
+        apply("game1", GameEventRecord.SCORE_2, "Luka", "Doncic", "77");
+        apply("game1", GameEventRecord.ASSIST, "Luka", "Doncic", "77");
+        liveStats.flush();
+        long version = liveStats.getVersion();
+
+        liveStats.restartGame("game1");
+        apply("game1", GameEventRecord.SCORE_3, "Luka", "Doncic", "77");
+
+        assertEquals(new Totals(3, 0, 0, 0), totals(LUKA));
+        assertTrue(liveStats.getVersion() > version);
+        liveStats.flush();
+        assertArrayEquals(new Object[]{1, LUKA, 3, 0, 0, 0, 1, 1, 0, 1}, row(flushedRows(2), LUKA));
+    }
+
+    @Test
+    void retriesChangedLinesAfterAFailedFlush() throws IOException {
+        assertTrue(liveStats.load());
+        apply("game1", GameEventRecord.SCORE_2, "Luka", "Doncic", "77");
+        when(jdbcTemplate.batchUpdate(eq(LiveStatsService.UPSERT_SQL), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenReturn(new int[]{1});
+
+        liveStats.flush();
+        liveStats.flush();
+        liveStats.flush();
+
+        List<Object[]> rows = flushedRows(2);
+        assertEquals(1, rows.size());
+        assertArrayEquals(new Object[]{1, LUKA, 2, 0, 0, 0, 1, 0, 0, 1}, rows.get(0));
+    }
+
+    @Test
+    void readsTheGameNumberFromTheKey() {
+        assertEquals(3, LiveStatsService.gameNumber("game3"));
+        assertEquals(12, LiveStatsService.gameNumber("12"));
+        assertNull(LiveStatsService.gameNumber("game1-2"));
+        assertNull(LiveStatsService.gameNumber("game"));
+        assertNull(LiveStatsService.gameNumber(null));
+    }
+
+    private record Totals(int points, int rebounds, int assists, int fouls) {
+    }
+
+    private Totals totals(int playerId) {
+        PlayerStatsDTO dto = new PlayerStatsDTO((long) playerId, null, null, null, null, null, null, null, null, null);
+        liveStats.fill((long) playerId, dto);
+        return new Totals(dto.getPoints(), dto.getRebounds(), dto.getAssists(), dto.getFouls());
+    }
+
+    private void apply(String gameKey, int type, String firstName, String lastName, String number) throws IOException {
+        assertTrue(event.decode(GameEventRecordTests.binary(0, type, firstName, lastName, number)));
+        liveStats.apply(gameKey, event);
+    }
+
+    /** The rows of the last of {@code flushes} upserts, which must be all there were. */
+    @SuppressWarnings("unchecked")
+    private List<Object[]> flushedRows(int flushes) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(flushes)).batchUpdate(eq(LiveStatsService.UPSERT_SQL), rows.capture());
+        return rows.getValue();
+    }
+
+    private static Object[] row(List<Object[]> rows, int playerId) {
+        return rows.stream().filter(row -> row[1].equals(playerId)).findFirst().orElseThrow();
+    }
+
+    private static Player player(int id, String name, int number) {
+        Player player = new Player();
+        player.setPlayerId((long) id);
+        player.setPlayerName(name);
+        player.setJerseyNumber(number);
+        return player;
+    }
+}
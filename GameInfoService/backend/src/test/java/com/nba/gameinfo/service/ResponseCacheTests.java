@@ -0,0 +1,95 @@
+package com.nba.gameinfo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ResponseCacheTests {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private List<String> load() {
+        loads.incrementAndGet();
+        return new ArrayList<>(List.of("Celtics", "Mavericks"));
+    }
+
+    @Test
+    void servesTheSameBodyUntilInvalidated() {
+        ResponseCache cache = new ResponseCache(new ObjectMapper(), 60_000, 16);
+
+        ResponseCache.Body first = cache.get("teams", this::load);
+        ResponseCache.Body second = cache.get("teams", this::load);
+        cache.invalidateAll();
+        ResponseCache.Body reloaded = cache.get("teams", this::load);
+
+        assertSame(first, second);
+        assertEquals("[\"Celtics\",\"Mavericks\"]", new String(first.json()));
+        assertEquals(2, loads.get());
+        // Same content after reloading: same ETag and Last-Modified
+        assertSame(first, reloaded);
+        assertEquals(1L, cache.getMetrics().get("hits"));
+        assertEquals(2L, cache.getMetrics().get("misses"));
+    }
+
+    @Test
+    void serializesAgainWithoutLoadingWhenTheVersionMoves() {
+        ResponseCache cache = new ResponseCache(new ObjectMapper(), 60_000, 16);
+        String[] live = {"0"};
+
+        ResponseCache.Body first = cache.get("players", this::load, 1, data -> data.set(1, live[0]));
+        live[0] = "12";
+        ResponseCache.Body sameVersion = cache.get("players", this::load, 1, data -> data.set(1, live[0]));
+        ResponseCache.Body nextVersion = cache.get("players", this::load, 2, data -> data.set(1, live[0]));
+
+        assertSame(first, sameVersion);
+        assertEquals("[\"Celtics\",\"12\"]", new String(nextVersion.json()));
+        assertNotEquals(first.etag(), nextVersion.etag());
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.getMetrics().get("renders"));
+    }
+
+    @Test
+    void doesNotCacheDataLoadedAcrossAnInvalidation() {
+        ResponseCache cache = new ResponseCache(new ObjectMapper(), 60_000, 16);
+
+        ResponseCache.Body stale = cache.get("teams", () -> {
+            List<String> data = load();
+            // The rows change while this load is still in flight
+            cache.invalidateAll();
+            return data;
+        });
+        ResponseCache.Body fresh = cache.get("teams", this::load);
+
+        assertEquals("[\"Celtics\",\"Mavericks\"]", new String(stale.json()));
+        assertEquals(2, loads.get());
+        assertSame(fresh, cache.get("teams", this::load));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void expiresAndEvicts() throws InterruptedException {
+        ResponseCache expiring = new ResponseCache(new ObjectMapper(), 1, 16);
+        expiring.get("teams", this::load);
+        Thread.sleep(5);
+        expiring.get("teams", this::load);
+        assertEquals(2, loads.get());
+
+        ResponseCache small = new ResponseCache(new ObjectMapper(), 60_000, 2);
+        small.get("a", this::load);
+        small.get("b", this::load);
+        small.get("a", this::load);
+        small.get("c", this::load);
+        small.get("a", this::load);
+        small.get("b", this::load);
+        // b was least recently used when c came in
+        assertEquals(6, loads.get());
+        assertEquals(2L, small.getMetrics().get("evictions"));
+    }
+}
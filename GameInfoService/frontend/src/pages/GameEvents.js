@@ -9,16 +9,25 @@ const GameEvents = () => {
     const fetchGameEvents = async () => {
       try {
         console.log('GameEvents: 開始 fetch /api/game-events');
-        const response = await fetch('http://localhost:8082/api/game-events');
-        console.log('GameEvents: API 回應狀態:', response.status);
-        
-        if (!response.ok) {
-          throw new Error(`HTTP error! status: ${response.status}`);
-        }
-        
-        const data = await response.json();
-        console.log('GameEvents: 收到資料:', data);
-        setGameEvents(data);
+        // The API returns one page at a time; follow nextCursor until every event is loaded
+        let events = [];
+        let cursor = null;
+        do {
+          const url = 'http://localhost:8082/api/game-events?limit=1000'
+            + (cursor ? `&cursor=${encodeURIComponent(cursor)}` : '');
+          const response = await fetch(url);
+          console.log('GameEvents: API 回應狀態:', response.status);
+
+          if (!response.ok) {
+            throw new Error(`HTTP error! status: ${response.status}`);
+          }
+
+          const data = await response.json();
+          events = events.concat(data.events);
+          cursor = data.nextCursor;
+        } while (cursor);
+        console.log('GameEvents: 收到資料:', events.length);
+        setGameEvents(events);
       } catch (error) {
         console.error('GameEvents: 錯誤:', error);
         setError(error.message);
@@ -112,14 +112,14 @@ const Games = () => {
                   <div className="flex items-center justify-between p-3 rounded-lg bg-gray-50">
                     <div className="flex items-center">
                       <div className="w-8 h-8 bg-blue-500 rounded-full flex items-center justify-center text-white font-bold text-sm">
-                        {game.team1Name?.charAt(0) || 'T'}
+                        {game.homeTeamName?.charAt(0) || 'T'}
                       </div>
                       <div className="ml-3">
-                        <div className="text-sm font-semibold text-gray-900">{game.team1Name || '球隊1'}</div>
+                        <div className="text-sm font-semibold text-gray-900">{game.homeTeamName || '球隊1'}</div>
                       </div>
                     </div>
-                    <div className={`text-lg font-bold ${getScoreColor(game.team1Score, game.team2Score)}`}>
-                      {game.team1Score || 0}
+                    <div className={`text-lg font-bold ${getScoreColor(game.homeScore, game.awayScore)}`}>
+                      {game.homeScore || 0}
                     </div>
                   </div>
 
@@ -134,14 +134,14 @@ const Games = () => {
                   <div className="flex items-center justify-between p-3 rounded-lg bg-gray-50">
                     <div className="flex items-center">
                       <div className="w-8 h-8 bg-red-500 rounded-full flex items-center justify-center text-white font-bold text-sm">
-                        {game.team2Name?.charAt(0) || 'T'}
+                        {game.awayTeamName?.charAt(0) || 'T'}
                       </div>
                       <div className="ml-3">
-                        <div className="text-sm font-semibold text-gray-900">{game.team2Name || '球隊2'}</div>
+                        <div className="text-sm font-semibold text-gray-900">{game.awayTeamName || '球隊2'}</div>
                       </div>
                     </div>
-                    <div className={`text-lg font-bold ${getScoreColor(game.team2Score, game.team1Score)}`}>
-                      {game.team2Score || 0}
+                    <div className={`text-lg font-bold ${getScoreColor(game.awayScore, game.homeScore)}`}>
+                      {game.awayScore || 0}
                     </div>
                   </div>
                 </div>
@@ -150,7 +150,7 @@ const Games = () => {
                 <div className="mt-6 pt-4 border-t border-gray-100 space-y-2">
                   <div className="flex items-center justify-between text-sm">
                     <span className="text-gray-500">比賽場地</span>
-                    <span className="text-gray-900 font-medium">{game.venue || '未定'}</span>
+                    <span className="text-gray-900 font-medium">{game.arena || '未定'}</span>
                   </div>
                   <div className="flex items-center justify-between text-sm">
                     <span className="text-gray-500">比賽時間</span>
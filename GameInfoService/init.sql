@@ -158,10 +158,19 @@ INSERT INTO player_stats (game_id, player_id, minutes_played, points, rebounds,
 -- Create indexes to improve query performance
 CREATE INDEX idx_games_date ON games(game_date);
 CREATE INDEX idx_games_teams ON games(home_team_id, away_team_id);
-CREATE INDEX idx_players_team ON players(team_id);
-CREATE INDEX idx_game_events_game ON game_events(game_id);
-CREATE INDEX idx_game_events_time ON game_events(event_time);
-CREATE INDEX idx_player_stats_game ON player_stats(game_id);
+-- Player pages: each filter or sort order is one range scan, ties broken by player_id
+CREATE INDEX idx_players_team ON players(team_id, player_id);
+CREATE INDEX idx_players_position ON players(position, player_id);
+CREATE INDEX idx_players_salary ON players(salary, player_id);
+CREATE INDEX idx_players_name ON players(player_name, player_id);
+CREATE INDEX idx_players_jersey ON players(jersey_number, player_id);
+CREATE INDEX idx_teams_name ON teams(team_name);
+-- Game events in play order: a game's play-by-play, or a player's events of one type, is one range scan
+CREATE INDEX idx_game_events_game_time ON game_events(game_id, event_time, event_id);
+CREATE INDEX idx_game_events_player_type ON game_events(player_id, event_type, event_time, event_id);
+CREATE INDEX idx_game_events_time ON game_events(event_time, event_id);
+-- One row per player and game; live stats are upserted on it
+CREATE UNIQUE INDEX idx_player_stats_game_player ON player_stats(game_id, player_id);
 CREATE INDEX idx_player_stats_player ON player_stats(player_id);
 
 -- Create views for easier queries
@@ -1,7 +1,10 @@
 package ReplayService.ReplayService.config;
 
 import ReplayService.ReplayService.model.ReplayRequest;
+import ReplayService.ReplayService.service.LatencyHistogram;
 import ReplayService.ReplayService.service.ReplayService;
+import ReplayService.ReplayService.service.ReplaySession;
+import ReplayService.ReplayService.service.ReplaySessionManager;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,45 +15,50 @@ import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
-import java.io.IOException;
-import java.util.concurrent.CopyOnWriteArraySet;
-
 @Component
 public class JsonWebSocketHandler extends TextWebSocketHandler {
     
     private static final Logger logger = LoggerFactory.getLogger(JsonWebSocketHandler.class);
-    private final CopyOnWriteArraySet<WebSocketSession> sessions = new CopyOnWriteArraySet<>();
+    private final LatencyHistogram broadcastLatency = new LatencyHistogram();
 
     @Autowired
     @Lazy
     private ReplayService replayService;
 
+    @Autowired
+    private ReplaySessionManager sessionManager;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         logger.info("WebSocket connection established: {}", session.getId());
-        sessions.add(session);
+        sessionManager.register(session);
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, org.springframework.web.socket.CloseStatus status) throws Exception {
         logger.info("WebSocket connection closed: {} with status: {}", session.getId(), status);
-        sessions.remove(session);
+        sessionManager.unregister(session.getId());
     }
 
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
         logger.info("Received message from {}: {}", session.getId(), message.getPayload());
-        
+        ReplaySession replaySession = sessionManager.getSession(session.getId());
+        if (replaySession == null) {
+            logger.warn("Message from unregistered session {}", session.getId());
+            return;
+        }
+
         try {
             // Parse the JSON message
             ReplayRequest request = objectMapper.readValue(message.getPayload(), ReplayRequest.class);
             logger.info("Parsed replay request: {}", request);
             
             // Handle the replay request
-            replayService.handleReplayRequest(request);
+            replayService.handleReplayRequest(replaySession, request);
             
             // Send acknowledgment back to the client
             var response = new java.util.HashMap<String, Object>();
@@ -60,7 +68,7 @@ public class JsonWebSocketHandler extends TextWebSocketHandler {
             response.put("timestamp", System.currentTimeMillis());
             
             String jsonResponse = objectMapper.writeValueAsString(response);
-            session.sendMessage(new TextMessage(jsonResponse));
+            replaySession.send(jsonResponse);
             
         } catch (Exception e) {
             logger.error("Error processing message: {}", message.getPayload(), e);
@@ -72,23 +80,24 @@ public class JsonWebSocketHandler extends TextWebSocketHandler {
             errorResponse.put("timestamp", System.currentTimeMillis());
             
             String jsonErrorResponse = objectMapper.writeValueAsString(errorResponse);
-            session.sendMessage(new TextMessage(jsonErrorResponse));
+            replaySession.send(jsonErrorResponse);
         }
     }
 
+    /**
+     * Sends one frame to every connected client. The message is built once and
+     * only enqueued per client, so the cost does not depend on how fast clients read.
+     */
     public void broadcastToAll(String jsonMessage) {
+        long started = System.nanoTime();
         TextMessage message = new TextMessage(jsonMessage);
-        sessions.removeIf(session -> {
-            if (!session.isOpen()) {
-                return true;
-            }
-            try {
-                session.sendMessage(message);
-                return false;
-            } catch (IOException e) {
-                logger.error("Error sending message to session {}", session.getId(), e);
-                return true;
-            }
-        });
+        for (ReplaySession session : sessionManager.getSessions()) {
+            session.send(message);
+        }
+        broadcastLatency.recordNanos(System.nanoTime() - started);
+    }
+
+    public LatencyHistogram getBroadcastLatency() {
+        return broadcastLatency;
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
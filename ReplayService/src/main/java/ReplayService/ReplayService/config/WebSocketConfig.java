@@ -1,10 +1,18 @@
 package ReplayService.ReplayService.config;
 
+import ReplayService.ReplayService.service.CompactFrames;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.web.socket.WebSocketExtension;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * WebSocket configuration for handling raw JSON messages via WebSocket without STOMP.
@@ -16,14 +24,45 @@ public class WebSocketConfig implements WebSocketConfigurer {
     @Autowired
     private JsonWebSocketHandler jsonWebSocketHandler;
 
+    @Value("${replay.websocket.permessage-deflate:true}")
+    private boolean permessageDeflate;
+
     /**
-     * Registers a custom WebSocket handler for raw JSON messages at "/ws/json".
+     * Registers a custom WebSocket handler for raw JSON messages at "/ws/replay".
+     * Clients may negotiate the binary {@value CompactFrames#PROTOCOL} sub-protocol;
+     * without one they get JSON.
      *
      * @param registry The WebSocketHandlerRegistry to register handlers with.
      */
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        DefaultHandshakeHandler handshakeHandler = new ReplayHandshakeHandler(permessageDeflate);
+        handshakeHandler.setSupportedProtocols(CompactFrames.PROTOCOL, CompactFrames.JSON_PROTOCOL);
         registry.addHandler(jsonWebSocketHandler, "/ws/replay")
+                .setHandshakeHandler(handshakeHandler)
                 .setAllowedOriginPatterns("*"); // Also allow /ws/replay for raw JSON
     }
+
+    /**
+     * Tomcat accepts permessage-deflate whenever a client offers it; this lets it be
+     * switched off, e.g. when a proxy already compresses or to save server CPU.
+     */
+    private static class ReplayHandshakeHandler extends DefaultHandshakeHandler {
+        private final boolean permessageDeflate;
+
+        ReplayHandshakeHandler(boolean permessageDeflate) {
+            this.permessageDeflate = permessageDeflate;
+        }
+
+        @Override
+        protected List<WebSocketExtension> filterRequestedExtensions(ServerHttpRequest request,
+                List<WebSocketExtension> requestedExtensions, List<WebSocketExtension> supportedExtensions) {
+            List<WebSocketExtension> extensions = new ArrayList<>(
+                    super.filterRequestedExtensions(request, requestedExtensions, supportedExtensions));
+            if (!permessageDeflate) {
+                extensions.removeIf(extension -> "permessage-deflate".equals(extension.getName()));
+            }
+            return extensions;
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package ReplayService.ReplayService.controller;
+
+import ReplayService.ReplayService.model.BoxScore;
+import ReplayService.ReplayService.model.GameClock;
+import ReplayService.ReplayService.service.GameTimelineStore;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/games")
+public class GameController {
+
+    private final GameTimelineStore timelineStore;
+
+    public GameController(GameTimelineStore timelineStore) {
+        this.timelineStore = timelineStore;
+    }
+
+    /**
+     * Box score just before {@code time} ({@code mm:ss}); without a time, after every
+     * loaded event.
+     */
+    @GetMapping("/{gameId}/box-score")
+    public ResponseEntity<BoxScore> boxScore(@PathVariable String gameId,
+                                             @RequestParam(required = false) String time) {
+        int gameSeconds = time != null ? GameClock.parse(time) : Integer.MAX_VALUE;
+        if (gameSeconds < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        BoxScore boxScore = timelineStore.getBoxScore(gameId, gameSeconds);
+        return boxScore != null ? ResponseEntity.ok(boxScore) : ResponseEntity.notFound().build();
+    }
+}
@@ -1,5 +1,9 @@
 package ReplayService.ReplayService.controller;
 
+import ReplayService.ReplayService.config.JsonWebSocketHandler;
+import ReplayService.ReplayService.service.GameTimelineStore;
+import ReplayService.ReplayService.service.ReplayPacer;
+import ReplayService.ReplayService.service.ReplaySessionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -17,12 +22,25 @@ public class HealthController {
     
     private static final Logger logger = LoggerFactory.getLogger(HealthController.class);
     
+    private final ReplaySessionManager sessionManager;
+    private final GameTimelineStore timelineStore;
+    private final ReplayPacer pacer;
+    private final JsonWebSocketHandler webSocketHandler;
+    
     @Value("${kafka.topic.name}")
     private String topicName;
     
     @Value("${spring.kafka.bootstrap-servers}")
     private String kafkaUrl;
     
+    public HealthController(ReplaySessionManager sessionManager, GameTimelineStore timelineStore,
+                            ReplayPacer pacer, JsonWebSocketHandler webSocketHandler) {
+        this.sessionManager = sessionManager;
+        this.timelineStore = timelineStore;
+        this.pacer = pacer;
+        this.webSocketHandler = webSocketHandler;
+    }
+    
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
         logger.info("Health check requested");
@@ -48,8 +66,33 @@ public class HealthController {
         status.put("topic", topicName);
         status.put("websocketEndpoint", "/ws/replay");
         status.put("websocketTopic", "/topic/game-events");
+        status.put("connectedSessions", sessionManager.getConnectedSessionCount());
+        status.put("activeReplays", sessionManager.getActiveReplayCount());
+        status.put("maxConcurrentReplays", sessionManager.getMaxConcurrentReplays());
+        status.put("timelinesWarm", timelineStore.isWarm());
+        status.put("timelineEvents", timelineStore.getEventCounts());
         status.put("timestamp", System.currentTimeMillis());
         
         return ResponseEntity.ok(status);
     }
-} 
\ No newline at end of file
+    
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> metrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("activeReplays", sessionManager.getActiveReplayCount());
+        metrics.put("pacing", pacer.getPacingMetrics());
+        metrics.put("ordering", timelineStore.getOrderingMetrics());
+        metrics.put("decode", timelineStore.getDecodeMetrics());
+        metrics.put("snapshots", timelineStore.getSnapshotMetrics());
+        metrics.put("outbound", sessionManager.getOutboundMetrics());
+        metrics.put("broadcastLatency", webSocketHandler.getBroadcastLatency().snapshot());
+        metrics.put("timestamp", System.currentTimeMillis());
+        
+        return ResponseEntity.ok(metrics);
+    }
+    
+    @GetMapping("/sessions")
+    public ResponseEntity<List<Map<String, Object>>> sessions() {
+        return ResponseEntity.ok(sessionManager.getSessionMetrics());
+    }
+}
\ No newline at end of file
@@ -2,9 +2,11 @@ package ReplayService.ReplayService.controller;
 
 import ReplayService.ReplayService.model.ReplayRequest;
 import ReplayService.ReplayService.service.ReplayService;
+import ReplayService.ReplayService.service.ReplaySessionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.handler.annotation.SendTo;
@@ -19,21 +21,24 @@ public class ReplayController {
     private static final Logger logger = LoggerFactory.getLogger(ReplayController.class);
     
     private final ReplayService replayService;
+    private final ReplaySessionManager sessionManager;
     
     @Value("${kafka.topic.name}")
     private String topicName;
     
-    public ReplayController(ReplayService replayService) {
+    public ReplayController(ReplayService replayService, ReplaySessionManager sessionManager) {
         this.replayService = replayService;
+        this.sessionManager = sessionManager;
     }
     
     @MessageMapping("/replay/request")
     @SendTo("/topic/replay-status")
-    public Map<String, Object> handleReplayRequest(@Payload ReplayRequest request) {
+    public Map<String, Object> handleReplayRequest(@Payload ReplayRequest request,
+                                                   @Header("simpSessionId") String sessionId) {
         logger.info("Received replay request: {}", request);
         
         // Handle the replay request
-        replayService.handleReplayRequest(request);
+        replayService.handleReplayRequest(sessionId, request);
         
         // Return immediate acknowledgment
         Map<String, Object> response = new HashMap<>();
@@ -54,16 +59,16 @@ public class ReplayController {
         status.put("topic", topicName);
         status.put("timestamp", System.currentTimeMillis());
         status.put("message", "Replay service is running and listening to topic: " + topicName);
-        
-        // Trigger status update
-        replayService.handleReplayRequest(new ReplayRequest("get_status", null, null));
+        status.put("connectedSessions", sessionManager.getConnectedSessionCount());
+        status.put("activeReplays", sessionManager.getActiveReplayCount());
         
         return status;
     }
     
     @MessageMapping("/replay/start")
     @SendTo("/topic/replay-status")
-    public Map<String, Object> startReplay(@Payload Map<String, Object> request) {
+    public Map<String, Object> startReplay(@Payload Map<String, Object> request,
+                                           @Header("simpSessionId") String sessionId) {
         logger.info("Start replay requested: {}", request);
         
         String startTime = (String) request.get("startTime");
@@ -71,7 +76,7 @@ public class ReplayController {
             Double.valueOf(request.get("speed").toString()) : 1.0;
         
         ReplayRequest replayRequest = new ReplayRequest("start_replay", startTime, speed);
-        replayService.handleReplayRequest(replayRequest);
+        replayService.handleReplayRequest(sessionId, replayRequest);
         
         Map<String, Object> response = new HashMap<>();
         response.put("action", "start_replay");
@@ -85,11 +90,11 @@ public class ReplayController {
     
     @MessageMapping("/replay/stop")
     @SendTo("/topic/replay-status")
-    public Map<String, Object> stopReplay() {
+    public Map<String, Object> stopReplay(@Header("simpSessionId") String sessionId) {
         logger.info("Stop replay requested");
         
         ReplayRequest replayRequest = new ReplayRequest("stop_replay", null, null);
-        replayService.handleReplayRequest(replayRequest);
+        replayService.handleReplayRequest(sessionId, replayRequest);
         
         Map<String, Object> response = new HashMap<>();
         response.put("action", "stop_replay");
@@ -0,0 +1,229 @@
+package ReplayService.ReplayService.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running team scores and per-player totals of a game, as carried by the ingest
+ * service's snapshot records. A snapshot folds in every event up to
+ * {@code game_seconds}, so the events after that clock can be applied with
+ * {@link #apply} to bring it to any later point. {@code events} counts the
+ * events folded in.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BoxScore {
+
+    @JsonProperty("game_seconds")
+    private int gameSeconds;
+
+    @JsonProperty("events")
+    private int events;
+
+    @JsonProperty("teams")
+    private List<TeamScore> teams = new ArrayList<>();
+
+    @JsonProperty("players")
+    private List<PlayerLine> players = new ArrayList<>();
+
+    // Players by name and number, built on first apply
+    private Map<String, PlayerLine> index;
+
+    public BoxScore() {}
+
+    /**
+     * @return a deep copy that can be advanced without touching this one.
+     */
+    public BoxScore copy() {
+        BoxScore copy = new BoxScore();
+        copy.gameSeconds = gameSeconds;
+        copy.events = events;
+        for (TeamScore team : teams) {
+            copy.teams.add(new TeamScore(team.team, team.points));
+        }
+        for (PlayerLine player : players) {
+            copy.players.add(player.copy());
+        }
+        return copy;
+    }
+
+    /**
+     * Folds in one event. Points also count toward the player's team; a player not
+     * listed yet is added without a team.
+     */
+    public void apply(String firstname, String lastname, String playerNumber, String eventType) {
+        if (index == null) {
+            index = new HashMap<>();
+            for (PlayerLine player : players) {
+                index.put(key(player.firstname, player.lastname, player.playerNumber), player);
+            }
+        }
+        PlayerLine player = index.computeIfAbsent(key(firstname, lastname, playerNumber), k -> {
+            PlayerLine added = new PlayerLine(firstname, lastname, playerNumber, "");
+            players.add(added);
+            return added;
+        });
+        int points = 0;
+        switch (eventType) {
+            case "score-1" -> points = 1;
+            case "score-2" -> points = 2;
+            case "score-3" -> points = 3;
+            case "rebound" -> player.rebounds++;
+            case "assist" -> player.assists++;
+            case "foul" -> player.fouls++;
+            default -> {
+            }
+        }
+        if (points > 0) {
+            player.points += points;
+            for (TeamScore team : teams) {
+                if (team.team.equals(player.team)) {
+                    team.points += points;
+                }
+            }
+        }
+        events++;
+    }
+
+    private static String key(String firstname, String lastname, String playerNumber) {
+        return firstname + '\u0000' + lastname + '\u0000' + playerNumber;
+    }
+
+    public int getGameSeconds() {
+        return gameSeconds;
+    }
+
+    public void setGameSeconds(int gameSeconds) {
+        this.gameSeconds = gameSeconds;
+    }
+
+    public int getEvents() {
+        return events;
+    }
+
+    public void setEvents(int events) {
+        this.events = events;
+    }
+
+    public List<TeamScore> getTeams() {
+        return teams;
+    }
+
+    public void setTeams(List<TeamScore> teams) {
+        this.teams = teams;
+    }
+
+    public List<PlayerLine> getPlayers() {
+        return players;
+    }
+
+    public void setPlayers(List<PlayerLine> players) {
+        this.players = players;
+        this.index = null;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class TeamScore {
+        @JsonProperty("team")
+        private String team = "";
+
+        @JsonProperty("points")
+        private int points;
+
+        public TeamScore() {}
+
+        public TeamScore(String team, int points) {
+            this.team = team;
+            this.points = points;
+        }
+
+        public String getTeam() {
+            return team;
+        }
+
+        public int getPoints() {
+            return points;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class PlayerLine {
+        @JsonProperty("firstname")
+        private String firstname = "";
+
+        @JsonProperty("lastname")
+        private String lastname = "";
+
+        @JsonProperty("player_number")
+        private String playerNumber = "";
+
+        @JsonProperty("team")
+        private String team = "";
+
+        @JsonProperty("points")
+        private int points;
+
+        @JsonProperty("rebounds")
+        private int rebounds;
+
+        @JsonProperty("assists")
+        private int assists;
+
+        @JsonProperty("fouls")
+        private int fouls;
+
+        public PlayerLine() {}
+
+        public PlayerLine(String firstname, String lastname, String playerNumber, String team) {
+            this.firstname = firstname;
+            this.lastname = lastname;
+            this.playerNumber = playerNumber;
+            this.team = team;
+        }
+
+        PlayerLine copy() {
+            PlayerLine copy = new PlayerLine(firstname, lastname, playerNumber, team);
+            copy.points = points;
+            copy.rebounds = rebounds;
+            copy.assists = assists;
+            copy.fouls = fouls;
+            return copy;
+        }
+
+        public String getFirstname() {
+            return firstname;
+        }
+
+        public String getLastname() {
+            return lastname;
+        }
+
+        public String getPlayerNumber() {
+            return playerNumber;
+        }
+
+        public String getTeam() {
+            return team;
+        }
+
+        public int getPoints() {
+            return points;
+        }
+
+        public int getRebounds() {
+            return rebounds;
+        }
+
+        public int getAssists() {
+            return assists;
+        }
+
+        public int getFouls() {
+            return fouls;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ReplayService.ReplayService.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only ids for the players and event types of one game, used by the
+ * compact wire format. An event is reduced to a single code,
+ * {@code playerId << 8 | eventTypeId}, and clients receive each dictionary entry
+ * once instead of repeating names in every event.
+ */
+public final class EventDictionary {
+
+    /** Code of an event that has no dictionary entry. */
+    public static final int UNKNOWN = -1;
+    public static final int MAX_PLAYERS = 0xFFFF;
+    public static final int MAX_EVENT_TYPES = 0xFF;
+
+    private final Map<String, Integer> playerIds = new HashMap<>();
+    private final Map<String, Integer> eventTypeIds = new HashMap<>();
+    private final List<String[]> players = new ArrayList<>();
+    private final List<String> eventTypes = new ArrayList<>();
+
+    /**
+     * @return the event's code, assigning new ids as needed. Ids past the format's
+     *         limits map to the reserved "unknown" id.
+     */
+    public synchronized int encode(String firstname, String lastname, String playerNumber, String eventType) {
+        String playerKey = firstname + '\u0000' + lastname + '\u0000' + playerNumber;
+        Integer playerId = playerIds.get(playerKey);
+        if (playerId == null) {
+            playerId = players.size() < MAX_PLAYERS ? players.size() : MAX_PLAYERS;
+            if (playerId < MAX_PLAYERS) {
+                playerIds.put(playerKey, playerId);
+                players.add(new String[]{nullToEmpty(firstname), nullToEmpty(lastname), nullToEmpty(playerNumber)});
+            }
+        }
+        String typeKey = nullToEmpty(eventType);
+        Integer typeId = eventTypeIds.get(typeKey);
+        if (typeId == null) {
+            typeId = eventTypes.size() < MAX_EVENT_TYPES ? eventTypes.size() : MAX_EVENT_TYPES;
+            if (typeId < MAX_EVENT_TYPES) {
+                eventTypeIds.put(typeKey, typeId);
+                eventTypes.add(typeKey);
+            }
+        }
+        return playerId << 8 | typeId;
+    }
+
+    public synchronized int playerCount() {
+        return players.size();
+    }
+
+    public synchronized int eventTypeCount() {
+        return eventTypes.size();
+    }
+
+    /**
+     * @return firstname, lastname and number of the players with ids from {@code from} on.
+     */
+    public synchronized List<String[]> playersFrom(int from) {
+        return new ArrayList<>(players.subList(Math.min(from, players.size()), players.size()));
+    }
+
+    public synchronized List<String> eventTypesFrom(int from) {
+        return new ArrayList<>(eventTypes.subList(Math.min(from, eventTypes.size()), eventTypes.size()));
+    }
+
+    /**
+     * @return firstname, lastname and number of the player with the given id, or null.
+     */
+    public synchronized String[] player(int id) {
+        return id >= 0 && id < players.size() ? players.get(id) : null;
+    }
+
+    /**
+     * @return the event type with the given id, or null.
+     */
+    public synchronized String eventType(int id) {
+        return id >= 0 && id < eventTypes.size() ? eventTypes.get(id) : null;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
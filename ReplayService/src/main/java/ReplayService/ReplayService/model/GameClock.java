@@ -0,0 +1,64 @@
+package ReplayService.ReplayService.model;
+
+/**
+ * Converts between the {@code mm:ss} game clock used in events and requests and
+ * whole game-seconds, without splitting strings or boxing.
+ */
+public final class GameClock {
+
+    private GameClock() {
+    }
+
+    public static int parse(String clock) {
+        return clock != null ? parse(clock.toCharArray(), 0, clock.length()) : -1;
+    }
+
+    /**
+     * Parses a clock straight out of a character buffer, such as a JSON parser's.
+     *
+     * @return game-seconds, or -1 if the text is not {@code mm:ss} with seconds below 60.
+     */
+    public static int parse(char[] chars, int offset, int length) {
+        int minutes = 0;
+        int seconds = 0;
+        int digits = 0;
+        boolean colon = false;
+        for (int i = offset; i < offset + length; i++) {
+            char c = chars[i];
+            if (c == ':' && digits > 0) {
+                if (colon) {
+                    break; // mm:ss:ff - anything after the seconds is ignored
+                }
+                colon = true;
+                digits = 0;
+            } else if (c >= '0' && c <= '9' && digits < 6) {
+                if (colon) {
+                    seconds = seconds * 10 + (c - '0');
+                } else {
+                    minutes = minutes * 10 + (c - '0');
+                }
+                digits++;
+            } else {
+                return -1;
+            }
+        }
+        return colon && digits > 0 && seconds <= 59 ? minutes * 60 + seconds : -1;
+    }
+
+    /**
+     * @return {@code mm:ss}, or {@code --:--} for a negative time.
+     */
+    public static String format(int gameSeconds) {
+        if (gameSeconds < 0) {
+            return "--:--";
+        }
+        int minutes = gameSeconds / 60;
+        int seconds = gameSeconds % 60;
+        if (minutes > 99) {
+            return minutes + ":" + (char) ('0' + seconds / 10) + (char) ('0' + seconds % 10);
+        }
+        return new String(new char[]{
+                (char) ('0' + minutes / 10), (char) ('0' + minutes % 10), ':',
+                (char) ('0' + seconds / 10), (char) ('0' + seconds % 10)});
+    }
+}
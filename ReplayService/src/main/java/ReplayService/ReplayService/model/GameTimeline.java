@@ -0,0 +1,145 @@
+package ReplayService.ReplayService.model;
+
+import java.util.Arrays;
+
+/**
+ * Immutable, time-ordered view of one game's events.
+ * Event times are kept as a sorted primitive array of game-seconds next to the
+ * already serialized JSON payloads, so a seek is a binary search and sending an
+ * event needs no serialization. Each event also carries its {@link EventDictionary}
+ * code for the compact wire format.
+ */
+public final class GameTimeline {
+
+    private final String gameId;
+    private final int[] times;
+    private final String[] payloads;
+    private final int[] codes;
+
+    private GameTimeline(String gameId, int[] times, String[] payloads, int[] codes) {
+        this.gameId = gameId;
+        this.times = times;
+        this.payloads = payloads;
+        this.codes = codes;
+    }
+
+    public static GameTimeline empty(String gameId) {
+        return new GameTimeline(gameId, new int[0], new String[0], new int[0]);
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public int size() {
+        return times.length;
+    }
+
+    public int timeAt(int index) {
+        return times[index];
+    }
+
+    public String payloadAt(int index) {
+        return payloads[index];
+    }
+
+    public int codeAt(int index) {
+        return codes[index];
+    }
+
+    /**
+     * @return the index of the first event at or after {@code gameSeconds}, or
+     *         {@link #size()} if every event is earlier.
+     */
+    public int seek(int gameSeconds) {
+        int low = 0;
+        int high = times.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < gameSeconds) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds where a replay continues after switching to a newer timeline: just past
+     * the {@code sentAtLastTime} events it already sent at {@code lastSentTime}.
+     */
+    public int resumeIndex(int lastSentTime, int sentAtLastTime) {
+        if (lastSentTime < 0) {
+            return 0;
+        }
+        return Math.min(times.length, seek(lastSentTime) + sentAtLastTime);
+    }
+
+    /**
+     * Returns a new timeline with the given events merged in, without dictionary codes.
+     */
+    public GameTimeline merge(int[] newTimes, String[] newPayloads, int count) {
+        int[] newCodes = new int[count];
+        Arrays.fill(newCodes, EventDictionary.UNKNOWN);
+        return merge(newTimes, newPayloads, newCodes, count);
+    }
+
+    /**
+     * Returns a new timeline with the given events merged in. {@code newTimes} must
+     * be sorted; events with equal times keep existing entries first.
+     */
+    public GameTimeline merge(int[] newTimes, String[] newPayloads, int[] newCodes, int count) {
+        if (count == 0) {
+            return this;
+        }
+        int total = times.length + count;
+        int[] mergedTimes = new int[total];
+        String[] mergedPayloads = new String[total];
+        int[] mergedCodes = new int[total];
+
+        if (times.length == 0 || times[times.length - 1] <= newTimes[0]) {
+            // Common case for a live game: everything new is after what we have.
+            System.arraycopy(times, 0, mergedTimes, 0, times.length);
+            System.arraycopy(payloads, 0, mergedPayloads, 0, payloads.length);
+            System.arraycopy(codes, 0, mergedCodes, 0, codes.length);
+            System.arraycopy(newTimes, 0, mergedTimes, times.length, count);
+            System.arraycopy(newPayloads, 0, mergedPayloads, payloads.length, count);
+            System.arraycopy(newCodes, 0, mergedCodes, codes.length, count);
+            return new GameTimeline(gameId, mergedTimes, mergedPayloads, mergedCodes);
+        }
+
+        int i = 0, j = 0, k = 0;
+        while (i < times.length && j < count) {
+            if (times[i] <= newTimes[j]) {
+                mergedTimes[k] = times[i];
+                mergedCodes[k] = codes[i];
+                mergedPayloads[k++] = payloads[i++];
+            } else {
+                mergedTimes[k] = newTimes[j];
+                mergedCodes[k] = newCodes[j];
+                mergedPayloads[k++] = newPayloads[j++];
+            }
+        }
+        while (i < times.length) {
+            mergedTimes[k] = times[i];
+            mergedCodes[k] = codes[i];
+            mergedPayloads[k++] = payloads[i++];
+        }
+        while (j < count) {
+            mergedTimes[k] = newTimes[j];
+            mergedCodes[k] = newCodes[j];
+            mergedPayloads[k++] = newPayloads[j++];
+        }
+        return new GameTimeline(gameId, mergedTimes, mergedPayloads, mergedCodes);
+    }
+
+    @Override
+    public String toString() {
+        return "GameTimeline{" +
+                "gameId='" + gameId + '\'' +
+                ", events=" + times.length +
+                ", range=" + (times.length == 0 ? "[]" : Arrays.toString(new int[]{times[0], times[times.length - 1]})) +
+                '}';
+    }
+}
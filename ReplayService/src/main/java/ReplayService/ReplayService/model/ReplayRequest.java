@@ -1,11 +1,12 @@
 package ReplayService.ReplayService.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 public class ReplayRequest {
     
     @JsonProperty("action")
-    private String action; // "start_replay", "stop_replay", "get_status"
+    private String action; // "start_replay", "stop_replay", "get_status", "pause", "resume", "seek", "set_speed"
     
     @JsonProperty("startTime")
     private String startTime; // "05:00" format
@@ -13,6 +14,15 @@ public class ReplayRequest {
     @JsonProperty("speed")
     private Double speed; // 1.0 = normal speed, 2.0 = 2x speed, 0.5 = half speed
     
+    @JsonProperty("time")
+    private String time; // "mm:ss" target of a seek
+    
+    @JsonProperty("gameId")
+    private String gameId; // optional, defaults to replay.default-game-id
+    
+    @JsonProperty("framing")
+    private String framing; // "event" (default): one frame per event, "batch": one array frame per tick
+    
     // Default constructor
     public ReplayRequest() {}
     
@@ -48,12 +58,44 @@ public class ReplayRequest {
         this.speed = speed;
     }
     
+    public String getTime() {
+        return time;
+    }
+    
+    public void setTime(String time) {
+        this.time = time;
+    }
+    
+    public String getGameId() {
+        return gameId;
+    }
+    
+    public void setGameId(String gameId) {
+        this.gameId = gameId;
+    }
+    
+    public String getFraming() {
+        return framing;
+    }
+    
+    public void setFraming(String framing) {
+        this.framing = framing;
+    }
+    
+    @JsonIgnore
+    public boolean isBatchFraming() {
+        return "batch".equalsIgnoreCase(framing);
+    }
+    
     @Override
     public String toString() {
         return "ReplayRequest{" +
                 "action='" + action + '\'' +
                 ", startTime='" + startTime + '\'' +
                 ", speed=" + speed +
+                ", time='" + time + '\'' +
+                ", gameId='" + gameId + '\'' +
+                ", framing='" + framing + '\'' +
                 '}';
     }
 } 
\ No newline at end of file
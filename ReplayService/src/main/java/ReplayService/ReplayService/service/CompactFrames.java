@@ -0,0 +1,115 @@
+package ReplayService.ReplayService.service;
+
+import ReplayService.ReplayService.model.EventDictionary;
+import ReplayService.ReplayService.model.GameTimeline;
+import org.springframework.web.socket.BinaryMessage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary frames of the {@value #PROTOCOL} WebSocket sub-protocol. All numbers are
+ * big-endian; strings are a one-byte length followed by UTF-8.
+ * <pre>
+ * DICTIONARY  u8 1, u16 players, players x (u16 id, str firstname, str lastname, str number),
+ *                   u8 types, types x (u8 id, str name)
+ * EVENTS      u8 2, u16 count, count x (u16 gameSeconds, u16 playerId, u8 eventTypeId)
+ * STATUS      u8 3, u8 state (0 stopped, 1 replaying, 2 paused), i32 currentReplayTime (-1 = none),
+ *                   f32 speed, i64 timestamp
+ * </pre>
+ * An EVENTS frame also stands for the replay status at its last event, so no
+ * separate status follows it. Dictionary entries are sent before the first
+ * event that refers to them. Id 0xFFFF / 0xFF means the entry is unknown.
+ */
+public final class CompactFrames {
+
+    public static final String PROTOCOL = "replay-compact.v1";
+    public static final String JSON_PROTOCOL = "replay-json.v1";
+
+    static final byte DICTIONARY = 1;
+    static final byte EVENTS = 2;
+    static final byte STATUS = 3;
+    static final int EVENT_BYTES = 5;
+    static final int STATUS_BYTES = 18;
+    static final byte STOPPED = 0;
+    static final byte REPLAYING = 1;
+    static final byte PAUSED = 2;
+
+    private CompactFrames() {
+    }
+
+    /**
+     * Encodes dictionary entries whose ids start at {@code playersFrom} and {@code eventTypesFrom}.
+     */
+    static BinaryMessage dictionary(List<String[]> players, int playersFrom, List<String> eventTypes, int eventTypesFrom) {
+        int size = 1 + 2 + 1 + 2 * players.size() + eventTypes.size();
+        byte[][] encoded = new byte[players.size() * 3 + eventTypes.size()][];
+        int e = 0;
+        for (String[] player : players) {
+            for (String field : player) {
+                encoded[e] = utf8(field);
+                size += 1 + encoded[e++].length;
+            }
+        }
+        for (String eventType : eventTypes) {
+            encoded[e] = utf8(eventType);
+            size += 1 + encoded[e++].length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(DICTIONARY).putShort((short) players.size());
+        e = 0;
+        for (int i = 0; i < players.size(); i++) {
+            buffer.putShort((short) (playersFrom + i));
+            for (int f = 0; f < 3; f++) {
+                putString(buffer, encoded[e++]);
+            }
+        }
+        buffer.put((byte) eventTypes.size());
+        for (int i = 0; i < eventTypes.size(); i++) {
+            buffer.put((byte) (eventTypesFrom + i));
+            putString(buffer, encoded[e++]);
+        }
+        buffer.flip();
+        return new BinaryMessage(buffer);
+    }
+
+    /**
+     * Encodes {@code count} consecutive timeline events starting at {@code from}.
+     */
+    static BinaryMessage events(GameTimeline timeline, int from, int count) {
+        ByteBuffer buffer = ByteBuffer.allocate(3 + count * EVENT_BYTES);
+        buffer.put(EVENTS).putShort((short) count);
+        for (int i = from; i < from + count; i++) {
+            int code = timeline.codeAt(i);
+            buffer.putShort((short) timeline.timeAt(i));
+            buffer.putShort((short) (code == EventDictionary.UNKNOWN ? EventDictionary.MAX_PLAYERS : code >>> 8));
+            buffer.put((byte) (code == EventDictionary.UNKNOWN ? EventDictionary.MAX_EVENT_TYPES : code));
+        }
+        buffer.flip();
+        return new BinaryMessage(buffer);
+    }
+
+    static BinaryMessage status(byte state, int currentReplayTime, double speed, long timestamp) {
+        ByteBuffer buffer = ByteBuffer.allocate(STATUS_BYTES);
+        buffer.put(STATUS)
+                .put(state)
+                .putInt(currentReplayTime)
+                .putFloat((float) speed)
+                .putLong(timestamp);
+        buffer.flip();
+        return new BinaryMessage(buffer);
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // Names are short; truncation only guards the one-byte length prefix.
+        return bytes.length <= 255 ? bytes : Arrays.copyOf(bytes, 255);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.put((byte) bytes.length).put(bytes);
+    }
+}
@@ -0,0 +1,164 @@
+package ReplayService.ReplayService.service;
+
+import ReplayService.ReplayService.model.GameClock;
+import ReplayService.ReplayService.model.GameEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single-pass decoder for game-event records, in either of the formats the ingest
+ * service writes. A record whose first byte is {@link #BINARY_V1} uses the
+ * compact binary layout:
+ * <pre>
+ *   u8   version (1)
+ *   u16  game clock in seconds, big-endian
+ *   u8   event type code (1 score-1, 2 score-2, 3 score-3, 4 assist, 5 rebound, 6 foul)
+ *   str  first name, str last name, str player number (u8 length + UTF-8 bytes each)
+ * </pre>
+ * Anything else is read as JSON: either the Connect envelope
+ * ({@code {"value":{"payload":{...}}}}) or a flat event, with one streaming
+ * {@link JsonParser}; no tree is built and the record is read only once. The game
+ * clock is parsed from the parser's character buffer into an int.
+ * <p>
+ * Not thread-safe: the decoded event is reused by the next call.
+ */
+class GameEventDecoder {
+
+    private static final int ROOT = 0;
+    private static final int ENVELOPE = 1;
+    private static final int PAYLOAD = 2;
+
+    static final byte BINARY_V1 = 1;
+    // Indexed by binary type code; codes are never reused or renumbered.
+    private static final String[] EVENT_TYPES = {null, "score-1", "score-2", "score-3", "assist", "rebound", "foul"};
+
+    private final JsonFactory jsonFactory;
+    private final GameEvent event = new GameEvent();
+    private int gameSeconds;
+    private boolean enveloped;
+    private boolean binary;
+
+    GameEventDecoder(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Decodes one record; a payload inside the envelope takes precedence over
+     * event fields at the top level.
+     *
+     * @return false if the record is neither a JSON object nor a valid binary record.
+     */
+    boolean decode(byte[] record) throws IOException {
+        clear();
+        binary = record.length > 0 && record[0] == BINARY_V1;
+        if (binary) {
+            return decodeBinary(record);
+        }
+        enveloped = false;
+        try (JsonParser parser = jsonFactory.createParser(record)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            readObject(parser, ROOT);
+        }
+        return true;
+    }
+
+    /**
+     * @return whether the last record decoded was in the binary format.
+     */
+    boolean isBinary() {
+        return binary;
+    }
+
+    GameEvent getEvent() {
+        return event;
+    }
+
+    /**
+     * @return the decoded event's game clock in seconds, or -1 if missing or invalid.
+     */
+    int getGameSeconds() {
+        return gameSeconds;
+    }
+
+    private boolean decodeBinary(byte[] record) {
+        if (record.length < 7) {
+            return false;
+        }
+        int code = record[3] & 0xFF;
+        if (code >= EVENT_TYPES.length || EVENT_TYPES[code] == null) {
+            return false;
+        }
+        int firstLength = record[4] & 0xFF;
+        int lastAt = 5 + firstLength;
+        if (lastAt >= record.length) {
+            return false;
+        }
+        int lastLength = record[lastAt] & 0xFF;
+        int numberAt = lastAt + 1 + lastLength;
+        if (numberAt >= record.length || numberAt + 1 + (record[numberAt] & 0xFF) != record.length) {
+            return false;
+        }
+        gameSeconds = ((record[1] & 0xFF) << 8) | (record[2] & 0xFF);
+        event.setEventType(EVENT_TYPES[code]);
+        event.setFirstname(new String(record, 5, firstLength, StandardCharsets.UTF_8));
+        event.setLastname(new String(record, lastAt + 1, lastLength, StandardCharsets.UTF_8));
+        event.setPlayerNumber(new String(record, numberAt + 1, record[numberAt] & 0xFF, StandardCharsets.UTF_8));
+        event.setTimestamp(GameClock.format(gameSeconds));
+        return true;
+    }
+
+    private void readObject(JsonParser parser, int level) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            // Field names are canonicalized by the factory, so this does not allocate.
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                if (level == ROOT && "value".equals(name)) {
+                    readObject(parser, ENVELOPE);
+                } else if (level == ENVELOPE && "payload".equals(name)) {
+                    enveloped = true;
+                    clear();
+                    readObject(parser, PAYLOAD);
+                } else {
+                    parser.skipChildren();
+                }
+            } else if (token == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            } else if (level == PAYLOAD || (level == ROOT && !enveloped)) {
+                readField(parser, name);
+            }
+        }
+    }
+
+    private void clear() {
+        event.setFirstname(null);
+        event.setLastname(null);
+        event.setEventType(null);
+        event.setPlayerNumber(null);
+        event.setTimestamp(null);
+        gameSeconds = -1;
+    }
+
+    private void readField(JsonParser parser, String name) throws IOException {
+        switch (name) {
+            case "firstname" -> event.setFirstname(parser.getValueAsString());
+            case "lastname" -> event.setLastname(parser.getValueAsString());
+            case "event_type" -> event.setEventType(parser.getValueAsString());
+            case "player_number" -> event.setPlayerNumber(parser.getValueAsString());
+            case "timestamp" -> {
+                if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                    gameSeconds = GameClock.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                }
+                event.setTimestamp(parser.getValueAsString());
+            }
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,522 @@
+package ReplayService.ReplayService.service;
+
+import ReplayService.ReplayService.model.BoxScore;
+import ReplayService.ReplayService.model.EventDictionary;
+import ReplayService.ReplayService.model.GameEvent;
+import ReplayService.ReplayService.model.GameTimeline;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+/**
+ * Loads the game-event topic once into an in-memory {@link GameTimeline} per game
+ * and keeps it current as new records arrive. Replays read from these timelines
+ * and never open a Kafka consumer of their own.
+ */
+@Service
+public class GameTimelineStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameTimelineStore.class);
+
+    /** Header marking non-event records, as set by the ingest service. */
+    static final String RECORD_TYPE_HEADER = "type";
+    private static final byte[] SNAPSHOT = "snapshot".getBytes(StandardCharsets.US_ASCII);
+
+    private final ObjectMapper objectMapper;
+    private final GameEventDecoder decoder;
+    private final Properties kafkaConsumerProps;
+    private final Map<String, GameTimeline> timelines = new ConcurrentHashMap<>();
+    private final Map<String, EventDictionary> dictionaries = new ConcurrentHashMap<>();
+    // Box-score snapshots per game, keyed by the game clock each covers events up to.
+    private final Map<String, NavigableMap<Integer, BoxScore>> snapshots = new ConcurrentHashMap<>();
+    private final LongAdder boxScores = new LongAdder();
+    private final LongAccumulator maxBoxScoreDeltas = new LongAccumulator(Math::max, 0);
+    // Guarded by itself: replays waiting for a game's first events during warm-up.
+    private final Map<String, List<Runnable>> waiting = new HashMap<>();
+
+    @Value("${kafka.topic.name}")
+    private String topicName;
+
+    @Value("${replay.default-game-id:game1}")
+    private String defaultGameId;
+
+    @Value("${replay.timeline.poll-timeout-ms:500}")
+    private long pollTimeoutMillis;
+
+    @Value("${replay.timeline.reorder-buffer-max:10000}")
+    private int reorderBufferMax;
+
+    // Owned by the loader thread; only the counters below are read elsewhere.
+    private final Map<String, PartitionMerger> mergers = new HashMap<>();
+    private int partitionCount;
+    private volatile long lateEvents;
+    private volatile int reorderBuffered;
+    private volatile int maxReorderBuffered;
+    private volatile long decodedEvents;
+    private volatile long binaryRecords;
+    private volatile long jsonRecords;
+    private volatile long recordBytes;
+    private volatile long decodeNanos;
+    private volatile long decodeAllocatedBytes;
+
+    private volatile boolean running = true;
+    private volatile boolean warm = false;
+    private volatile KafkaConsumer<String, byte[]> consumer;
+    private Thread loaderThread;
+
+    public GameTimelineStore(ObjectMapper objectMapper,
+                             @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+        this.objectMapper = objectMapper;
+        this.decoder = new GameEventDecoder(objectMapper.getFactory());
+
+        // No group.id: partitions are assigned explicitly, so there is no group join or rebalance.
+        this.kafkaConsumerProps = new Properties();
+        this.kafkaConsumerProps.put("bootstrap.servers", bootstrapServers);
+        this.kafkaConsumerProps.put("key.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+        this.kafkaConsumerProps.put("value.deserializer", "org.apache.kafka.common.serialization.ByteArrayDeserializer");
+        this.kafkaConsumerProps.put("enable.auto.commit", "false");
+        this.kafkaConsumerProps.put("auto.offset.reset", "earliest");
+    }
+
+    @PostConstruct
+    public void start() {
+        loaderThread = new Thread(this::runLoader, "timeline-loader");
+        loaderThread.setDaemon(true);
+        loaderThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        KafkaConsumer<String, byte[]> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        if (loaderThread != null) {
+            loaderThread.join(5000);
+        }
+    }
+
+    public String getDefaultGameId() {
+        return defaultGameId;
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    public GameTimeline getTimeline(String gameId) {
+        return timelines.get(gameId);
+    }
+
+    /**
+     * @return the game's dictionary; every code in a published timeline already has its entry here.
+     */
+    public EventDictionary getDictionary(String gameId) {
+        return dictionaries.computeIfAbsent(gameId, k -> new EventDictionary());
+    }
+
+    public Map<String, Object> getOrderingMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("partitions", partitionCount);
+        metrics.put("lateEvents", lateEvents);
+        metrics.put("reorderBuffered", reorderBuffered);
+        metrics.put("maxReorderBuffered", maxReorderBuffered);
+        metrics.put("reorderBufferMax", reorderBufferMax);
+        return metrics;
+    }
+
+    /**
+     * Per-record cost on the loader thread of decoding a record and serializing its
+     * replay payload. The payload string is the only allocation that has to remain.
+     * Allocation is only tracked on JVMs with per-thread allocation counters.
+     */
+    public Map<String, Object> getDecodeMetrics() {
+        long events = decodedEvents;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("events", events);
+        metrics.put("nanosPerEvent", events == 0 ? 0 : decodeNanos / events);
+        metrics.put("allocatedBytesPerEvent", events == 0 ? 0 : decodeAllocatedBytes / events);
+        metrics.put("binaryRecords", binaryRecords);
+        metrics.put("jsonRecords", jsonRecords);
+        metrics.put("bytesPerRecord", events == 0 ? 0 : recordBytes / events);
+        return metrics;
+    }
+
+    public Map<String, Integer> getEventCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        timelines.forEach((gameId, timeline) -> counts.put(gameId, timeline.size()));
+        return counts;
+    }
+
+    private void runLoader() {
+        try (KafkaConsumer<String, byte[]> kafkaConsumer = new KafkaConsumer<>(kafkaConsumerProps)) {
+            consumer = kafkaConsumer;
+            List<TopicPartition> partitions = awaitPartitions(kafkaConsumer);
+            if (partitions.isEmpty()) {
+                return;
+            }
+            for (TopicPartition partition : partitions) {
+                partitionCount = Math.max(partitionCount, partition.partition() + 1);
+            }
+            kafkaConsumer.assign(partitions);
+            kafkaConsumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = kafkaConsumer.endOffsets(partitions);
+            logger.info("Loading timelines from {} partitions of topic {}", partitions.size(), topicName);
+
+            while (running) {
+                ConsumerRecords<String, byte[]> records = kafkaConsumer.poll(Duration.ofMillis(pollTimeoutMillis));
+                apply(records, partition -> isCaughtUp(kafkaConsumer, partition));
+                if (!warm && caughtUp(kafkaConsumer, endOffsets)) {
+                    markWarm();
+                }
+            }
+        } catch (WakeupException e) {
+            if (running) {
+                logger.error("Timeline loader woken up unexpectedly", e);
+            }
+        } catch (Exception e) {
+            logger.error("Timeline loader failed", e);
+        } finally {
+            logger.info("Timeline loader stopped.");
+        }
+    }
+
+    private List<TopicPartition> awaitPartitions(KafkaConsumer<String, byte[]> kafkaConsumer) throws InterruptedException {
+        while (running) {
+            try {
+                List<PartitionInfo> infos = kafkaConsumer.partitionsFor(topicName, Duration.ofSeconds(10));
+                if (infos != null && !infos.isEmpty()) {
+                    List<TopicPartition> partitions = new ArrayList<>(infos.size());
+                    for (PartitionInfo info : infos) {
+                        partitions.add(new TopicPartition(info.topic(), info.partition()));
+                    }
+                    return partitions;
+                }
+                logger.info("Topic {} has no partitions yet, retrying...", topicName);
+            } catch (org.apache.kafka.common.errors.TimeoutException e) {
+                logger.warn("Timed out fetching metadata for topic {}, retrying...", topicName);
+            }
+            Thread.sleep(2000);
+        }
+        return Collections.emptyList();
+    }
+
+    private boolean caughtUp(KafkaConsumer<String, byte[]> kafkaConsumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> entry : endOffsets.entrySet()) {
+            if (kafkaConsumer.position(entry.getKey()) < entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isCaughtUp(KafkaConsumer<String, byte[]> kafkaConsumer, int partition) {
+        OptionalLong lag = kafkaConsumer.currentLag(new TopicPartition(topicName, partition));
+        return lag.isPresent() && lag.getAsLong() == 0;
+    }
+
+    private void markWarm() {
+        List<Runnable> callbacks = new ArrayList<>();
+        synchronized (waiting) {
+            warm = true;
+            waiting.values().forEach(callbacks::addAll);
+            waiting.clear();
+        }
+        logger.info("Timelines warmed up: {}", getEventCounts());
+        callbacks.forEach(Runnable::run);
+    }
+
+    /**
+     * Runs {@code callback} as soon as the game has a timeline or warm-up has
+     * finished without one, so a replay started during warm-up does not have to poll.
+     * Runs it right away if that is already the case.
+     */
+    public void whenAvailable(String gameId, Runnable callback) {
+        synchronized (waiting) {
+            if (!warm && !timelines.containsKey(gameId)) {
+                waiting.computeIfAbsent(gameId, k -> new ArrayList<>()).add(callback);
+                return;
+            }
+        }
+        callback.run();
+    }
+
+    /** Forgets a callback passed to {@link #whenAvailable} that has not run yet. */
+    public void cancelWhenAvailable(String gameId, Runnable callback) {
+        synchronized (waiting) {
+            List<Runnable> callbacks = waiting.get(gameId);
+            if (callbacks != null && callbacks.remove(callback) && callbacks.isEmpty()) {
+                waiting.remove(gameId);
+            }
+        }
+    }
+
+    private void publish(String gameId) {
+        List<Runnable> callbacks;
+        synchronized (waiting) {
+            callbacks = waiting.remove(gameId);
+        }
+        if (callbacks != null) {
+            callbacks.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Feeds a poll's records through the per-game partition mergers and appends
+     * whatever the watermarks release to the timelines. Runs after every poll, even
+     * an empty one, because a lagging partition catching up can release events.
+     */
+    private void apply(ConsumerRecords<String, byte[]> records, IntPredicate caughtUp) {
+        Map<String, Batch> batches = new HashMap<>();
+        long decodeStarted = System.nanoTime();
+        long allocatedBefore = allocatedBytes();
+        int decoded = 0;
+        for (ConsumerRecord<String, byte[]> record : records) {
+            if (isSnapshot(record)) {
+                storeSnapshot(record.key() != null ? record.key() : defaultGameId, record.value());
+                continue;
+            }
+            decoded++;
+            if (!decode(record.value())) {
+                continue;
+            }
+            GameEvent event = decoder.getEvent();
+            int gameSeconds = decoder.getGameSeconds();
+            if (gameSeconds < 0) {
+                logger.error("Invalid game time format: '{}'", event.getTimestamp());
+                continue;
+            }
+            String payload;
+            try {
+                payload = objectMapper.writeValueAsString(event);
+            } catch (Exception e) {
+                logger.error("Failed to serialize event: {}", event, e);
+                continue;
+            }
+            String gameId = record.key() != null ? record.key() : defaultGameId;
+            int code = dictionaries.computeIfAbsent(gameId, k -> new EventDictionary()).encode(
+                    event.getFirstname(), event.getLastname(), event.getPlayerNumber(), event.getEventType());
+            mergers.computeIfAbsent(gameId, k -> new PartitionMerger(partitionCount, reorderBufferMax))
+                    .add(record.partition(), gameSeconds, payload, code, batchFor(batches, gameId));
+        }
+
+        if (decoded > 0) {
+            decodedEvents += decoded;
+            decodeNanos += System.nanoTime() - decodeStarted;
+            decodeAllocatedBytes += allocatedBytes() - allocatedBefore;
+        }
+
+        long late = 0;
+        int buffered = 0;
+        int maxBuffered = maxReorderBuffered;
+        for (Map.Entry<String, PartitionMerger> entry : mergers.entrySet()) {
+            PartitionMerger merger = entry.getValue();
+            if (merger.getBuffered() > 0) {
+                merger.drain(caughtUp, batchFor(batches, entry.getKey()));
+            }
+            late += merger.getLateEvents();
+            buffered += merger.getBuffered();
+            maxBuffered = Math.max(maxBuffered, merger.getMaxObservedBuffered());
+        }
+        lateEvents = late;
+        reorderBuffered = buffered;
+        maxReorderBuffered = maxBuffered;
+
+        batches.forEach((gameId, batch) -> {
+            if (batch.size == 0) {
+                return;
+            }
+            batch.sortIfNeeded();
+            timelines.compute(gameId, (id, existing) ->
+                    (existing != null ? existing : GameTimeline.empty(id)).merge(batch.times, batch.payloads, batch.codes, batch.size));
+            publish(gameId);
+        });
+    }
+
+    private static boolean isSnapshot(ConsumerRecord<String, byte[]> record) {
+        Header type = record.headers().lastHeader(RECORD_TYPE_HEADER);
+        return type != null && Arrays.equals(type.value(), SNAPSHOT);
+    }
+
+    private void storeSnapshot(String gameId, byte[] value) {
+        try {
+            BoxScore snapshot = objectMapper.readValue(value, BoxScore.class);
+            snapshots.computeIfAbsent(gameId, k -> new ConcurrentSkipListMap<>()).put(snapshot.getGameSeconds(), snapshot);
+        } catch (Exception e) {
+            logger.error("Failed to parse snapshot for {}: {}", gameId, new String(value, StandardCharsets.UTF_8), e);
+        }
+    }
+
+    /**
+     * The game's box score just before {@code gameSeconds}: the latest snapshot at or
+     * before that point plus the events after it, so the cost is bounded by the
+     * snapshot interval rather than by how far into the game the time is.
+     *
+     * @return null if the game has no events loaded.
+     */
+    public BoxScore getBoxScore(String gameId, int gameSeconds) {
+        GameTimeline timeline = timelines.get(gameId);
+        if (timeline == null) {
+            return null;
+        }
+        NavigableMap<Integer, BoxScore> gameSnapshots = snapshots.get(gameId);
+        BoxScore boxScore = boxScoreAt(timeline, gameSnapshots != null ? gameSnapshots : Collections.emptyNavigableMap(),
+                getDictionary(gameId), gameSeconds);
+        boxScores.increment();
+        return boxScore;
+    }
+
+    /**
+     * Builds the box score before {@code gameSeconds} from the latest snapshot taken
+     * before that time, plus the timeline's events after the snapshot's clock. The
+     * snapshot's {@code events} counts what the ingest service read, which need not
+     * match timeline indexes, so it only tells an empty opening snapshot apart.
+     */
+    BoxScore boxScoreAt(GameTimeline timeline, NavigableMap<Integer, BoxScore> gameSnapshots,
+                        EventDictionary dictionary, int gameSeconds) {
+        int upTo = timeline.seek(gameSeconds);
+        Map.Entry<Integer, BoxScore> nearest = gameSnapshots.lowerEntry(gameSeconds);
+        BoxScore boxScore = nearest != null ? nearest.getValue().copy() : new BoxScore();
+        // A snapshot covers every event up to and including its clock; the opening one covers none
+        int from = nearest != null && boxScore.getEvents() > 0 ? timeline.seek(nearest.getKey() + 1) : 0;
+        for (int i = from; i < upTo; i++) {
+            int code = timeline.codeAt(i);
+            String[] player = code != EventDictionary.UNKNOWN ? dictionary.player(code >>> 8) : null;
+            String eventType = code != EventDictionary.UNKNOWN ? dictionary.eventType(code & 0xFF) : null;
+            if (player != null && eventType != null) {
+                boxScore.apply(player[0], player[1], player[2], eventType);
+            } else {
+                boxScore.setEvents(boxScore.getEvents() + 1);
+            }
+        }
+        // Past the last event, report the time of the last event rather than the time asked for
+        boxScore.setGameSeconds(upTo == timeline.size() && upTo > 0
+                ? Math.min(gameSeconds, timeline.timeAt(upTo - 1)) : gameSeconds);
+        maxBoxScoreDeltas.accumulate(upTo - from);
+        return boxScore;
+    }
+
+    /**
+     * Snapshots loaded per game, box scores built, and the most events ever applied
+     * on top of a snapshot to build one.
+     */
+    public Map<String, Object> getSnapshotMetrics() {
+        Map<String, Integer> counts = new TreeMap<>();
+        snapshots.forEach((gameId, gameSnapshots) -> counts.put(gameId, gameSnapshots.size()));
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("games", counts);
+        metrics.put("boxScores", boxScores.sum());
+        metrics.put("maxDeltasApplied", maxBoxScoreDeltas.get());
+        return metrics;
+    }
+
+    private static PartitionMerger.Sink batchFor(Map<String, Batch> batches, String gameId) {
+        return (gameSeconds, payload, code) ->
+                batches.computeIfAbsent(gameId, k -> new Batch()).add(gameSeconds, payload, code);
+    }
+
+    private boolean decode(byte[] message) {
+        if (message == null) {
+            return false;
+        }
+        recordBytes += message.length;
+        try {
+            if (decoder.decode(message)) {
+                if (decoder.isBinary()) {
+                    binaryRecords++;
+                } else {
+                    jsonRecords++;
+                }
+                return true;
+            }
+            logger.error("Failed to parse message: {}", describe(message));
+        } catch (Exception e) {
+            logger.error("Failed to parse message: {}", describe(message), e);
+        }
+        return false;
+    }
+
+    private static String describe(byte[] message) {
+        return message.length > 0 && message[0] == GameEventDecoder.BINARY_V1
+                ? "binary record of " + message.length + " bytes: " + HexFormat.of().formatHex(message)
+                : new String(message, StandardCharsets.UTF_8);
+    }
+
+    private static long allocatedBytes() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemoryEnabled() ? threads.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    /**
+     * Events of one game released during a single poll. The merger emits them in
+     * order; only late events can break that, in which case the batch is sorted
+     * stably before being merged into the timeline.
+     */
+    private static class Batch {
+        private int[] times = new int[16];
+        private String[] payloads = new String[16];
+        private int[] codes = new int[16];
+        private int size;
+        private boolean sorted = true;
+
+        void add(int gameSeconds, String payload, int code) {
+            if (size > 0 && gameSeconds < times[size - 1]) {
+                sorted = false;
+            }
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                payloads = Arrays.copyOf(payloads, size * 2);
+                codes = Arrays.copyOf(codes, size * 2);
+            }
+            times[size] = gameSeconds;
+            codes[size] = code;
+            payloads[size++] = payload;
+        }
+
+        void sortIfNeeded() {
+            if (sorted) {
+                return;
+            }
+            // Pack (time, arrival order) into one long so a primitive sort stays stable.
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = ((long) times[i] << 32) | i;
+            }
+            Arrays.sort(keys);
+            int[] sortedTimes = new int[size];
+            String[] sortedPayloads = new String[size];
+            int[] sortedCodes = new int[size];
+            for (int i = 0; i < size; i++) {
+                int original = (int) keys[i];
+                sortedTimes[i] = times[original];
+                sortedPayloads[i] = payloads[original];
+                sortedCodes[i] = codes[original];
+            }
+            times = sortedTimes;
+            payloads = sortedPayloads;
+            codes = sortedCodes;
+        }
+    }
+}
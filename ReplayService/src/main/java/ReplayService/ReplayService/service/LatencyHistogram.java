@@ -0,0 +1,66 @@
+package ReplayService.ReplayService.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of non-negative durations with power-of-two microsecond
+ * buckets. Percentiles are reported as the upper bound of the matching bucket,
+ * which is precise enough to compare pacing and delivery behaviour.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sumMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        int bucket = micros == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        counts.incrementAndGet(bucket);
+        total.incrementAndGet();
+        sumMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long getCount() {
+        return total.get();
+    }
+
+    /**
+     * @return the upper bound, in microseconds, of the bucket holding the given percentile.
+     */
+    public long percentileMicros(double percentile) {
+        long count = total.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(i == 0 ? 0 : 1L << i, maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    public Map<String, Object> snapshot() {
+        long count = total.get();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", count);
+        snapshot.put("meanMicros", count == 0 ? 0 : sumMicros.get() / count);
+        snapshot.put("p50Micros", percentileMicros(50));
+        snapshot.put("p90Micros", percentileMicros(90));
+        snapshot.put("p99Micros", percentileMicros(99));
+        snapshot.put("p999Micros", percentileMicros(99.9));
+        snapshot.put("maxMicros", maxMicros.get());
+        return snapshot;
+    }
+}
@@ -0,0 +1,218 @@
+package ReplayService.ReplayService.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Bounded outbound buffer for one WebSocket client. Producers (pacer threads,
+ * broadcasts, acknowledgments) only enqueue and never touch the socket; a writer
+ * thread drains the queue, so a slow or stalled client cannot hold up anyone else.
+ */
+public class OutboundQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboundQueue.class);
+    private static final int MAX_FRAMES_PER_DRAIN = 64;
+
+    /**
+     * What happens when a client falls {@code capacity} frames behind.
+     */
+    public enum OverflowPolicy {
+        /** Discard the oldest queued frame to make room; essential frames are never discarded. */
+        DROP_OLDEST,
+        /** Keep only the latest pending status frame; discard the oldest event on overflow. */
+        CONFLATE_STATUS,
+        /** Close the connection; the client has to reconnect and start over. */
+        DISCONNECT;
+
+        public static OverflowPolicy fromString(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    private final WebSocketSession session;
+    private final Executor writer;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private final LatencyHistogram lag = new LatencyHistogram();
+
+    // Guarded by this.
+    private Pending pendingStatus;
+    private boolean draining;
+    private boolean closed;
+    private long dropped;
+    private long conflated;
+    // Essential frames queued past capacity because nothing droppable was left
+    private long overCapacity;
+    private int maxDepth;
+
+    public OutboundQueue(WebSocketSession session, Executor writer, int capacity, OverflowPolicy policy) {
+        this.session = session;
+        this.writer = writer;
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    /**
+     * Enqueues a frame without blocking.
+     *
+     * @param status whether this is a replay status frame that may be conflated.
+     * @return false if the client has been disconnected.
+     */
+    public boolean offer(WebSocketMessage<?> message, boolean status) {
+        return offer(new Pending(message, System.nanoTime(), false), status);
+    }
+
+    /**
+     * Enqueues a frame that later frames depend on, such as dictionary entries
+     * or a box score seed. On overflow it is kept and an older droppable frame is
+     * discarded instead; if there is none, the queue briefly goes over capacity.
+     *
+     * @return false if the client has been disconnected.
+     */
+    public boolean offerEssential(WebSocketMessage<?> message) {
+        return offer(new Pending(message, System.nanoTime(), true), false);
+    }
+
+    private boolean offer(Pending pending, boolean status) {
+        boolean startDrain;
+        boolean disconnect = false;
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            if (status && policy == OverflowPolicy.CONFLATE_STATUS) {
+                if (pendingStatus != null) {
+                    conflated++;
+                }
+                pendingStatus = pending;
+            } else if (queue.size() < capacity) {
+                queue.addLast(pending);
+            } else if (policy == OverflowPolicy.DISCONNECT) {
+                closed = true;
+                disconnect = true;
+                queue.clear();
+                pendingStatus = null;
+            } else {
+                if (dropOldestDroppable()) {
+                    dropped++;
+                    queue.addLast(pending);
+                } else if (pending.essential) {
+                    overCapacity++;
+                    queue.addLast(pending);
+                } else {
+                    dropped++;
+                }
+            }
+            maxDepth = Math.max(maxDepth, queue.size());
+            startDrain = !closed && !draining;
+            if (startDrain) {
+                draining = true;
+            }
+        }
+        if (disconnect) {
+            logger.warn("Session {} fell {} frames behind, disconnecting", session.getId(), capacity);
+            writer.execute(() -> close(CloseStatus.SESSION_NOT_RELIABLE));
+            return false;
+        }
+        if (startDrain) {
+            writer.execute(this::drain);
+        }
+        return true;
+    }
+
+    // Guarded by this.
+    private boolean dropOldestDroppable() {
+        Iterator<Pending> frames = queue.iterator();
+        while (frames.hasNext()) {
+            if (!frames.next().essential) {
+                frames.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drain() {
+        for (int sent = 0; sent < MAX_FRAMES_PER_DRAIN; sent++) {
+            Pending next;
+            synchronized (this) {
+                next = queue.pollFirst();
+                if (next == null) {
+                    next = pendingStatus;
+                    pendingStatus = null;
+                }
+                if (next == null || closed) {
+                    draining = false;
+                    return;
+                }
+            }
+            try {
+                if (session.isOpen()) {
+                    session.sendMessage(next.message);
+                }
+                lag.recordNanos(System.nanoTime() - next.enqueuedNanos);
+            } catch (Exception e) {
+                logger.error("Error sending message to session {}", session.getId(), e);
+                synchronized (this) {
+                    closed = true;
+                    queue.clear();
+                    pendingStatus = null;
+                    draining = false;
+                }
+                close(CloseStatus.SERVER_ERROR);
+                return;
+            }
+        }
+        // Give other clients a turn on the writer pool before continuing.
+        writer.execute(this::drain);
+    }
+
+    private void close(CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (Exception e) {
+            logger.debug("Error closing session {}", session.getId(), e);
+        }
+    }
+
+    public synchronized int size() {
+        return queue.size() + (pendingStatus != null ? 1 : 0);
+    }
+
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    public LatencyHistogram getLag() {
+        return lag;
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("policy", policy);
+        snapshot.put("queued", queue.size() + (pendingStatus != null ? 1 : 0));
+        snapshot.put("maxQueued", maxDepth);
+        snapshot.put("dropped", dropped);
+        snapshot.put("conflated", conflated);
+        snapshot.put("overCapacity", overCapacity);
+        snapshot.put("sent", lag.getCount());
+        snapshot.put("lagP50Micros", lag.percentileMicros(50));
+        snapshot.put("lagP99Micros", lag.percentileMicros(99));
+        snapshot.put("closed", closed);
+        return snapshot;
+    }
+
+    private record Pending(WebSocketMessage<?> message, long enqueuedNanos, boolean essential) {
+    }
+}
@@ -0,0 +1,402 @@
+package ReplayService.ReplayService.service;
+
+import ReplayService.ReplayService.model.EventDictionary;
+import ReplayService.ReplayService.model.GameTimeline;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.BinaryMessage;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One session's replay, driven by the shared {@link ReplayPacer}. Each tick sends
+ * every event whose deadline has passed and then schedules the next tick for the
+ * next deadline. Deadlines are computed from a wall-clock anchor rather than from
+ * the previous event, so time spent sending is never added to the schedule.
+ * <p>
+ * Pause, resume, seek and speed changes move the anchor and schedule an immediate
+ * tick on the same timeline. Ticks scheduled before the change carry an older
+ * generation and are dropped, so there is only ever one live chain of ticks.
+ * Once stopped, a replay never ticks again, even if its session has started a
+ * new replay by the time a late tick or warm-up callback arrives.
+ * <p>
+ * With batched framing, all events due within one batch window are sent together
+ * with the latest status as a single frame instead of an event frame plus a status
+ * frame each. Clients on the compact sub-protocol get binary {@link CompactFrames}
+ * instead, preceded by any dictionary entries they have not seen yet.
+ */
+class PacedReplay {
+
+    private static final Logger logger = LoggerFactory.getLogger(PacedReplay.class);
+    private static final long IDLE_CHECK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final ReplaySession session;
+    private final String gameId;
+    private final boolean batchFraming;
+    private final String framingMode;
+    private final ReplayService replayService;
+    private final GameTimelineStore timelineStore;
+    private final ReplayPacer pacer;
+    private final long requestedNanos;
+    private final long warmupDeadlineNanos;
+    private final Runnable onTimelineAvailable = this::wake;
+    private volatile boolean stopped;
+
+    // Guarded by this: ticks on the pacer and controls from socket threads both lock it.
+    private int startSeconds;
+    private double speed;
+    private double anchorGameSeconds;
+    private boolean paused;
+    private double pausedGameSeconds;
+    private int generation;
+    private long controlReceivedNanos = -1;
+    private boolean controlled;
+    private boolean firstEventSent;
+    private boolean waitingForTimeline;
+    private GameTimeline timeline;
+    private EventDictionary dictionary;
+    private int playersSent;
+    private int eventTypesSent;
+    private int index;
+    private long anchorNanos;
+    private int lastSentTime = -1;
+    private int sentAtLastTime;
+    private long lastDriftNanos = -1;
+
+    PacedReplay(ReplaySession session, String gameId, int startSeconds, double speed, boolean batchFraming,
+                ReplayService replayService, GameTimelineStore timelineStore, ReplayPacer pacer,
+                long warmupTimeoutMillis) {
+        this.session = session;
+        this.gameId = gameId;
+        this.batchFraming = batchFraming;
+        this.framingMode = ReplayPacer.framingMode(session.isCompact(), batchFraming);
+        this.replayService = replayService;
+        this.timelineStore = timelineStore;
+        this.pacer = pacer;
+        this.requestedNanos = System.nanoTime();
+        this.warmupDeadlineNanos = requestedNanos + TimeUnit.MILLISECONDS.toNanos(warmupTimeoutMillis);
+        this.startSeconds = startSeconds;
+        this.speed = speed;
+    }
+
+    synchronized void start() {
+        session.setReplay(this);
+        scheduleNext(0);
+    }
+
+    /**
+     * Ends this replay for good and stops waiting for its game to load; called
+     * when its session stops.
+     */
+    void stop() {
+        stopped = true;
+        timelineStore.cancelWhenAvailable(gameId, onTimelineAvailable);
+    }
+
+    private boolean isLive() {
+        return !stopped && session.isReplaying();
+    }
+
+    synchronized void pause(long receivedNanos) {
+        if (paused) {
+            return;
+        }
+        pausedGameSeconds = positionAt(System.nanoTime());
+        paused = true;
+        session.setPaused(true);
+        reschedule(receivedNanos);
+    }
+
+    synchronized void resume(long receivedNanos) {
+        if (!paused) {
+            return;
+        }
+        paused = false;
+        session.setPaused(false);
+        reanchor(pausedGameSeconds);
+        reschedule(receivedNanos);
+    }
+
+    /**
+     * Continues from the first event at or after {@code gameSeconds}; a paused
+     * replay stays paused at the new position.
+     */
+    synchronized void seek(int gameSeconds, long receivedNanos) {
+        startSeconds = gameSeconds;
+        lastSentTime = -1;
+        sentAtLastTime = 0;
+        if (timeline != null) {
+            index = timeline.seek(gameSeconds);
+            replayService.sendBoxScore(session, gameId, gameSeconds);
+        }
+        if (paused) {
+            pausedGameSeconds = gameSeconds;
+        }
+        reanchor(gameSeconds);
+        reschedule(receivedNanos);
+    }
+
+    synchronized void setSpeed(double newSpeed, long receivedNanos) {
+        double position = positionAt(System.nanoTime());
+        speed = newSpeed;
+        session.setSpeed(newSpeed);
+        reanchor(position);
+        reschedule(receivedNanos);
+    }
+
+    /**
+     * @return the replay's position on the game clock right now.
+     */
+    synchronized int currentGameSeconds() {
+        return (int) positionAt(System.nanoTime());
+    }
+
+    private double positionAt(long nowNanos) {
+        if (paused) {
+            return pausedGameSeconds;
+        }
+        if (timeline == null) {
+            return startSeconds;
+        }
+        return anchorGameSeconds + (nowNanos - anchorNanos) * speed / 1_000_000_000L;
+    }
+
+    private void reanchor(double gameSeconds) {
+        anchorGameSeconds = gameSeconds;
+        anchorNanos = System.nanoTime();
+        lastDriftNanos = -1;
+    }
+
+    private void reschedule(long receivedNanos) {
+        controlled = true;
+        controlReceivedNanos = receivedNanos;
+        wake();
+    }
+
+    /**
+     * Replaces whatever tick is pending with one that runs right away.
+     */
+    private synchronized void wake() {
+        if (!isLive()) {
+            return;
+        }
+        generation++;
+        session.cancelReplayTask();
+        scheduleNext(0);
+    }
+
+    private synchronized void tick(int scheduledGeneration) {
+        if (scheduledGeneration != generation || !isLive()) {
+            return;
+        }
+        if (controlReceivedNanos >= 0) {
+            pacer.recordControlLatency(System.nanoTime() - controlReceivedNanos);
+            controlReceivedNanos = -1;
+        }
+        try {
+            if (timeline == null && !loadTimeline()) {
+                return;
+            }
+            if (paused) {
+                replayService.sendReplayStatus(session, (int) pausedGameSeconds, speed);
+                return;
+            }
+            long cpuStart = threadCpuNanos();
+            int frames = 0;
+            long bytes = 0;
+            int sentBefore = index;
+            long now = System.nanoTime();
+            while (index < timeline.size() && isLive()) {
+                long deadline = deadlineOf(timeline.timeAt(index));
+                if (deadline > now) {
+                    break;
+                }
+                if (session.isCompact()) {
+                    bytes += sendCompact(deadline + pacer.getBatchWindowNanos());
+                } else if (batchFraming) {
+                    bytes += sendBatch(deadline + pacer.getBatchWindowNanos());
+                } else {
+                    bytes += sendEvent();
+                }
+                recordDrift(System.nanoTime() - deadline);
+                if (!firstEventSent) {
+                    firstEventSent = true;
+                    recordTimeToFirstEvent(deadline);
+                }
+                frames++;
+                now = System.nanoTime();
+            }
+            if (frames > 0) {
+                pacer.recordFrames(framingMode, frames, index - sentBefore, bytes, threadCpuNanos() - cpuStart);
+            }
+            if (index < timeline.size()) {
+                if (isLive()) {
+                    scheduleNext(deadlineOf(timeline.timeAt(index)) - now);
+                }
+                return;
+            }
+            if (!isLive()) {
+                return;
+            }
+
+            // Caught up with everything loaded so far: pick up a newer timeline or idle.
+            GameTimeline latest = timelineStore.getTimeline(gameId);
+            if (latest != null && latest != timeline) {
+                timeline = latest;
+                index = lastSentTime < 0 ? timeline.seek(startSeconds) : timeline.resumeIndex(lastSentTime, sentAtLastTime);
+                scheduleNext(0);
+            } else {
+                replayService.sendReplayStatus(session, -1, speed);
+                scheduleNext(IDLE_CHECK_NANOS);
+            }
+        } catch (Exception e) {
+            logger.error("Error during replay for session {}", session.getId(), e);
+            finish();
+        }
+    }
+
+    private boolean loadTimeline() {
+        GameTimeline loaded = timelineStore.getTimeline(gameId);
+        if (loaded == null) {
+            if (!timelineStore.isWarm()) {
+                long remaining = warmupDeadlineNanos - System.nanoTime();
+                if (remaining > 0) {
+                    // Time out at the warm-up deadline, but start as soon as the game's first events are loaded.
+                    scheduleNext(remaining);
+                    if (!waitingForTimeline) {
+                        waitingForTimeline = true;
+                        timelineStore.whenAvailable(gameId, onTimelineAvailable);
+                    }
+                } else {
+                    replayService.sendErrorStatus(session, "Game events are still loading, please retry shortly");
+                    finish();
+                }
+                return false;
+            }
+            loaded = GameTimeline.empty(gameId);
+        }
+        timeline = loaded;
+        if (session.isCompact()) {
+            dictionary = timelineStore.getDictionary(gameId);
+        }
+        index = timeline.seek(startSeconds);
+        if (index > 0) {
+            replayService.sendBoxScore(session, gameId, startSeconds);
+        }
+        // Anchor the game clock at the requested start time, so the first event
+        // at 05:07 after a 05:00 start leaves 7 game-seconds later.
+        reanchor(startSeconds);
+        logger.info("Replaying {} for session {} from {} (event {} of {})",
+                gameId, session.getId(), startSeconds, index, timeline.size());
+        return true;
+    }
+
+    // Frame sizes below count characters; event payloads are plain ASCII JSON.
+    private int sendEvent() throws JsonProcessingException {
+        int eventTime = timeline.timeAt(index);
+        String payload = timeline.payloadAt(index);
+        session.send(payload);
+        advance(eventTime);
+        String status = replayService.buildReplayStatus(session, eventTime, speed);
+        session.sendStatus(status);
+        return payload.length() + status.length();
+    }
+
+    /**
+     * Sends every event due before {@code windowEnd} as one frame:
+     * {@code {"type":"batch","events":[...],"status":{...}}}. Payloads are already
+     * serialized, so the frame is assembled by concatenation.
+     */
+    private int sendBatch(long windowEnd) throws JsonProcessingException {
+        StringBuilder frame = new StringBuilder(256).append("{\"type\":\"batch\",\"events\":[");
+        int eventTime = -1;
+        do {
+            if (eventTime >= 0) {
+                frame.append(',');
+            }
+            eventTime = timeline.timeAt(index);
+            frame.append(timeline.payloadAt(index));
+            advance(eventTime);
+        } while (index < timeline.size() && deadlineOf(timeline.timeAt(index)) <= windowEnd);
+        frame.append("],\"status\":").append(replayService.buildReplayStatus(session, eventTime, speed)).append('}');
+        session.send(frame.toString());
+        return frame.length();
+    }
+
+    /**
+     * Sends one binary events frame: a single event, or with batched framing every
+     * event due before {@code windowEnd}. The frame doubles as the replay status.
+     */
+    private int sendCompact(long windowEnd) {
+        int bytes = sendDictionaryUpdates();
+        int from = index;
+        do {
+            advance(timeline.timeAt(index));
+        } while (batchFraming && index < timeline.size() && deadlineOf(timeline.timeAt(index)) <= windowEnd);
+        BinaryMessage frame = CompactFrames.events(timeline, from, index - from);
+        session.send(frame);
+        return bytes + frame.getPayloadLength();
+    }
+
+    private int sendDictionaryUpdates() {
+        if (dictionary.playerCount() == playersSent && dictionary.eventTypeCount() == eventTypesSent) {
+            return 0;
+        }
+        List<String[]> players = dictionary.playersFrom(playersSent);
+        List<String> eventTypes = dictionary.eventTypesFrom(eventTypesSent);
+        BinaryMessage frame = CompactFrames.dictionary(players, playersSent, eventTypes, eventTypesSent);
+        playersSent += players.size();
+        eventTypesSent += eventTypes.size();
+        // Entries are only ever sent once, so this frame must not be dropped
+        session.sendEssential(frame);
+        return frame.getPayloadLength();
+    }
+
+    private void advance(int eventTime) {
+        sentAtLastTime = eventTime == lastSentTime ? sentAtLastTime + 1 : 1;
+        lastSentTime = eventTime;
+        index++;
+    }
+
+    private static long threadCpuNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    private long deadlineOf(int eventTime) {
+        return anchorNanos + (long) ((eventTime - anchorGameSeconds) * 1_000_000_000L / speed);
+    }
+
+    /**
+     * Startup overhead of the first event: how long loading and scheduling took
+     * plus how late the event left, excluding the game-clock gap between the start
+     * time and the first event. Skipped once a control has moved the anchor.
+     */
+    private void recordTimeToFirstEvent(long deadline) {
+        if (!controlled) {
+            pacer.recordTimeToFirstEvent((System.nanoTime() - deadline) + (anchorNanos - requestedNanos));
+        }
+    }
+
+    private void recordDrift(long driftNanos) {
+        long jitter = lastDriftNanos < 0 ? -1 : Math.abs(driftNanos - lastDriftNanos);
+        pacer.recordDrift(speed, driftNanos, jitter);
+        lastDriftNanos = driftNanos;
+    }
+
+    private void scheduleNext(long delayNanos) {
+        if (isLive()) {
+            int scheduledGeneration = generation;
+            session.setReplayTask(pacer.schedule(() -> tick(scheduledGeneration), delayNanos));
+        }
+    }
+
+    private void finish() {
+        session.markStopped();
+        logger.info("Replay finished for session {}.", session.getId());
+    }
+}
@@ -0,0 +1,104 @@
+package ReplayService.ReplayService.service;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Streaming k-way merge of one game's events across topic partitions.
+ * Within a partition events arrive in game-time order, so the highest time seen
+ * on a partition is its low watermark: nothing earlier can still arrive there.
+ * An event is released only once every partition that has delivered events of
+ * the game and may still deliver more has a watermark at or past it, which yields
+ * a globally ordered stream. Partitions that never carried the game do not hold it
+ * back: records are keyed by game, so a game normally lives on one partition, and
+ * waiting on the others would stall it until every partition is read. Buffering is
+ * bounded: past {@code maxBuffered} the earliest buffered event is released anyway.
+ */
+class PartitionMerger {
+
+    interface Sink {
+        void accept(int gameSeconds, String payload, int code);
+    }
+
+    private final ArrayDeque<Entry>[] queues;
+    private final int[] watermarks;
+    private final int maxBuffered;
+    private int buffered;
+    private int maxObservedBuffered;
+    private int lastEmittedTime = -1;
+    private long lateEvents;
+
+    @SuppressWarnings("unchecked")
+    PartitionMerger(int partitions, int maxBuffered) {
+        this.queues = new ArrayDeque[partitions];
+        for (int i = 0; i < partitions; i++) {
+            queues[i] = new ArrayDeque<>();
+        }
+        this.watermarks = new int[partitions];
+        Arrays.fill(watermarks, -1);
+        this.maxBuffered = maxBuffered;
+    }
+
+    /**
+     * Adds an event read from the given partition. Events behind what has already
+     * been emitted cannot be ordered any more; they are counted as late and passed
+     * straight through.
+     */
+    void add(int partition, int gameSeconds, String payload, int code, Sink sink) {
+        watermarks[partition] = Math.max(watermarks[partition], gameSeconds);
+        if (gameSeconds < lastEmittedTime) {
+            lateEvents++;
+            sink.accept(gameSeconds, payload, code);
+            return;
+        }
+        queues[partition].addLast(new Entry(gameSeconds, payload, code));
+        buffered++;
+        maxObservedBuffered = Math.max(maxObservedBuffered, buffered);
+    }
+
+    /**
+     * Emits every buffered event that no partition can still precede.
+     *
+     * @param caughtUp whether a partition has no unread records, so it cannot hold
+     *                 back the merge while its queue is empty.
+     */
+    void drain(IntPredicate caughtUp, Sink sink) {
+        while (buffered > 0) {
+            int next = -1;
+            int gate = Integer.MAX_VALUE;
+            for (int p = 0; p < queues.length; p++) {
+                Entry head = queues[p].peekFirst();
+                if (head != null && (next < 0 || head.gameSeconds < queues[next].peekFirst().gameSeconds)) {
+                    next = p;
+                }
+                if (head != null || watermarks[p] >= 0 && !caughtUp.test(p)) {
+                    gate = Math.min(gate, watermarks[p]);
+                }
+            }
+            Entry head = queues[next].peekFirst();
+            if (head.gameSeconds > gate && buffered <= maxBuffered) {
+                return;
+            }
+            queues[next].pollFirst();
+            buffered--;
+            lastEmittedTime = Math.max(lastEmittedTime, head.gameSeconds);
+            sink.accept(head.gameSeconds, head.payload, head.code);
+        }
+    }
+
+    int getBuffered() {
+        return buffered;
+    }
+
+    int getMaxObservedBuffered() {
+        return maxObservedBuffered;
+    }
+
+    long getLateEvents() {
+        return lateEvents;
+    }
+
+    private record Entry(int gameSeconds, String payload, int code) {
+    }
+}
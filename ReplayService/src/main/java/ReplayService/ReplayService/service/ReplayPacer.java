@@ -0,0 +1,154 @@
+package ReplayService.ReplayService.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared pacing engine. Every replay schedules its next event on the same small
+ * {@link ScheduledExecutorService} against an absolute deadline, so thousands of
+ * replays share a handful of threads and per-event overhead never accumulates
+ * into drift.
+ */
+@Component
+public class ReplayPacer {
+
+    private final ScheduledExecutorService scheduler;
+    private final int threads;
+    private final long batchWindowNanos;
+
+    // Drift = how late an event left compared to its deadline; jitter = change in
+    // drift between consecutive events of one replay. Grouped by order of magnitude of speed.
+    private final Map<String, LatencyHistogram> driftBySpeed = new LinkedHashMap<>();
+    private final Map<String, LatencyHistogram> jitterBySpeed = new LinkedHashMap<>();
+
+    // Time from start_replay to the first event, minus the game-clock gap before that event.
+    private final LatencyHistogram timeToFirstEvent = new LatencyHistogram();
+
+    // Time from a pause/resume/seek/set_speed request arriving to the tick that applies it.
+    private final LatencyHistogram controlLatency = new LatencyHistogram();
+
+    // Frames, events, bytes and pacer CPU time per wire format and framing mode, to
+    // compare JSON with compact frames and per-event with batched delivery.
+    private final Map<String, LongAdder[]> framingCounters = new LinkedHashMap<>();
+
+    public ReplayPacer(@Value("${replay.pacing.threads:0}") int configuredThreads,
+                       @Value("${replay.framing.batch-window-ms:50}") long batchWindowMillis) {
+        this.batchWindowNanos = TimeUnit.MILLISECONDS.toNanos(batchWindowMillis);
+        this.threads = configuredThreads > 0 ? configuredThreads : Math.max(2, Runtime.getRuntime().availableProcessors());
+        this.scheduler = Executors.newScheduledThreadPool(threads, new PacerThreadFactory());
+        for (String band : new String[]{"1x", "10x", "100x"}) {
+            driftBySpeed.put(band, new LatencyHistogram());
+            jitterBySpeed.put(band, new LatencyHistogram());
+        }
+        for (String framing : new String[]{"json-event", "json-batch", "compact-event", "compact-batch"}) {
+            framingCounters.put(framing, new LongAdder[]{new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder()});
+        }
+    }
+
+    public ScheduledFuture<?> schedule(Runnable task, long delayNanos) {
+        return scheduler.schedule(task, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+    }
+
+    void recordDrift(double speed, long driftNanos, long jitterNanos) {
+        String band = speedBand(speed);
+        driftBySpeed.get(band).recordNanos(driftNanos);
+        if (jitterNanos >= 0) {
+            jitterBySpeed.get(band).recordNanos(jitterNanos);
+        }
+    }
+
+    void recordTimeToFirstEvent(long nanos) {
+        timeToFirstEvent.recordNanos(nanos);
+    }
+
+    void recordControlLatency(long nanos) {
+        controlLatency.recordNanos(nanos);
+    }
+
+    static String framingMode(boolean compact, boolean batch) {
+        return (compact ? "compact-" : "json-") + (batch ? "batch" : "event");
+    }
+
+    void recordFrames(String mode, int frames, int events, long bytes, long cpuNanos) {
+        LongAdder[] counters = framingCounters.get(mode);
+        counters[0].add(frames);
+        counters[1].add(events);
+        counters[2].add(bytes);
+        counters[3].add(cpuNanos);
+    }
+
+    private static String speedBand(double speed) {
+        if (speed < 3) return "1x";
+        if (speed < 30) return "10x";
+        return "100x";
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Wall-clock window for batched framing. In game time it covers
+     * {@code window * speed}, so higher speeds pack more events into each frame.
+     */
+    long getBatchWindowNanos() {
+        return batchWindowNanos;
+    }
+
+    public Map<String, Object> getPacingMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("threads", threads);
+        Map<String, Object> drift = new LinkedHashMap<>();
+        driftBySpeed.forEach((band, histogram) -> drift.put(band, histogram.snapshot()));
+        metrics.put("drift", drift);
+        Map<String, Object> jitter = new LinkedHashMap<>();
+        jitterBySpeed.forEach((band, histogram) -> jitter.put(band, histogram.snapshot()));
+        metrics.put("jitter", jitter);
+        Map<String, Object> framing = new LinkedHashMap<>();
+        framingCounters.forEach((mode, counters) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            long frames = counters[0].sum();
+            long events = counters[1].sum();
+            long bytes = counters[2].sum();
+            long cpuNanos = counters[3].sum();
+            entry.put("frames", frames);
+            entry.put("events", events);
+            entry.put("bytes", bytes);
+            entry.put("bytesPerEvent", events == 0 ? 0 : bytes / events);
+            entry.put("cpuMicros", cpuNanos / 1000);
+            entry.put("cpuNanosPerEvent", events == 0 ? 0 : cpuNanos / events);
+            framing.put(mode, entry);
+        });
+        metrics.put("framing", framing);
+        metrics.put("timeToFirstEvent", timeToFirstEvent.snapshot());
+        metrics.put("controlLatency", controlLatency.snapshot());
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private static class PacerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "replay-pacer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,203 +1,179 @@
 package ReplayService.ReplayService.service;
 
-import ReplayService.ReplayService.config.JsonWebSocketHandler;
-import ReplayService.ReplayService.model.GameEvent;
+import ReplayService.ReplayService.model.BoxScore;
+import ReplayService.ReplayService.model.GameClock;
 import ReplayService.ReplayService.model.ReplayRequest;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
-import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class ReplayService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReplayService.class);
 
-    private final JsonWebSocketHandler webSocketHandler;
+    private final ReplaySessionManager sessionManager;
+    private final GameTimelineStore timelineStore;
+    private final ReplayPacer pacer;
     private final ObjectMapper objectMapper;
-    private final Properties kafkaConsumerProps;
-    private final ExecutorService replayExecutor = Executors.newSingleThreadExecutor();
-    private final AtomicBoolean isReplaying = new AtomicBoolean(false);
 
-    @Value("${kafka.topic.name}")
-    private String topicName;
+    @Value("${replay.timeline.warmup-timeout-ms:30000}")
+    private long warmupTimeoutMillis;
 
-    public ReplayService(JsonWebSocketHandler webSocketHandler, ObjectMapper objectMapper,
-                         @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
-                         @Value("${spring.kafka.consumer.group-id}") String groupId) {
-        this.webSocketHandler = webSocketHandler;
+    public ReplayService(ReplaySessionManager sessionManager, GameTimelineStore timelineStore,
+                         ReplayPacer pacer, ObjectMapper objectMapper) {
+        this.sessionManager = sessionManager;
+        this.timelineStore = timelineStore;
+        this.pacer = pacer;
         this.objectMapper = objectMapper;
-
-        this.kafkaConsumerProps = new Properties();
-        this.kafkaConsumerProps.put("bootstrap.servers", bootstrapServers);
-        this.kafkaConsumerProps.put("group.id", groupId + "_replay_" + System.currentTimeMillis());
-        this.kafkaConsumerProps.put("key.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
-        this.kafkaConsumerProps.put("value.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
-        this.kafkaConsumerProps.put("enable.auto.commit", "false");
-        this.kafkaConsumerProps.put("auto.offset.reset", "earliest");
     }
 
-    public void handleReplayRequest(ReplayRequest request) {
-        logger.info("Handling replay request: {}", request);
+    public void handleReplayRequest(ReplaySession session, ReplayRequest request) {
+        logger.info("Handling replay request for session {}: {}", session.getId(), request);
         if ("start_replay".equals(request.getAction())) {
-            if (isReplaying.compareAndSet(false, true)) {
-                replayExecutor.submit(() -> startReplay(request.getStartTime(), request.getSpeed()));
-            } else {
-                logger.warn("Replay is already in progress. Ignoring start request.");
+            double speed = request.getSpeed() != null && request.getSpeed() > 0 ? request.getSpeed() : 1.0;
+            String gameId = request.getGameId() != null ? request.getGameId() : timelineStore.getDefaultGameId();
+            String rejection = sessionManager.startReplay(session, request.getStartTime(), speed,
+                    () -> startReplay(session, gameId, request.getStartTime(), speed, request.isBatchFraming()));
+            if (rejection != null) {
+                logger.warn("Ignoring start request for session {}: {}", session.getId(), rejection);
+                sendErrorStatus(session, rejection);
             }
         } else if ("stop_replay".equals(request.getAction())) {
-            stopReplay();
+            session.stop();
+        } else if ("get_status".equals(request.getAction())) {
+            PacedReplay replay = session.getReplay();
+            sendReplayStatus(session, replay != null && session.isReplaying() ? replay.currentGameSeconds() : -1,
+                    session.getSpeed());
+        } else if (isControl(request.getAction())) {
+            controlReplay(session, request, System.nanoTime());
         }
     }
 
-    private void stopReplay() {
-        if (isReplaying.compareAndSet(true, false)) {
-            logger.info("Stopping replay...");
-        }
+    private static boolean isControl(String action) {
+        return "pause".equals(action) || "resume".equals(action) || "seek".equals(action) || "set_speed".equals(action);
     }
 
-    private void startReplay(String startTime, Double speed) {
-        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(kafkaConsumerProps)) {
-            consumer.subscribe(Collections.singletonList(topicName));
-
-            Duration targetDuration = parseGameTime(startTime);
-            if (targetDuration == null) {
-                sendErrorStatus("Invalid start time format: " + startTime);
-                isReplaying.set(false);
-                return;
+    /**
+     * Applies pause, resume, seek or set_speed to the running replay. The replay keeps
+     * its timeline and pacing slot; only its anchor moves.
+     */
+    private void controlReplay(ReplaySession session, ReplayRequest request, long receivedNanos) {
+        PacedReplay replay = session.getReplay();
+        if (replay == null || !session.isReplaying()) {
+            sendErrorStatus(session, "No replay in progress");
+            return;
+        }
+        switch (request.getAction()) {
+            case "pause" -> replay.pause(receivedNanos);
+            case "resume" -> replay.resume(receivedNanos);
+            case "seek" -> {
+                int gameSeconds = parseGameTime(request.getTime());
+                if (gameSeconds < 0) {
+                    sendErrorStatus(session, "Invalid seek time format: " + request.getTime());
+                    return;
+                }
+                replay.seek(gameSeconds, receivedNanos);
             }
-
-            Duration lastEventDuration = null;
-            long lastStatusTime = System.currentTimeMillis();
-
-            while (isReplaying.get()) {
-                ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(1000));
-                boolean sentEvent = false;
-
-                logger.info("Polled {} records from Kafka.", records.count());
-
-                List<GameEvent> sortedEvents = new ArrayList<>();
-                for (ConsumerRecord<String, String> record : records) {
-                    GameEvent event = parseGameEvent(record.value());
-                    if (event != null && parseGameTime(event.getTimestamp()) != null) {
-                        sortedEvents.add(event);
-                    }
+            default -> {
+                if (request.getSpeed() == null || request.getSpeed() <= 0) {
+                    sendErrorStatus(session, "Speed must be positive");
+                    return;
                 }
-                sortedEvents.sort(Comparator.comparing(e -> parseGameTime(e.getTimestamp())));
-
-                for (GameEvent event : sortedEvents) {
-                    logger.debug("Processing sorted event: {}", event);
-                    if (!isReplaying.get()) break;
-
-                    Duration currentEventDuration = parseGameTime(event.getTimestamp());
-
-                    if (lastEventDuration == null) {
-                        lastEventDuration = currentEventDuration;
-                        logger.info("First event time: {}", formatDuration(lastEventDuration));
-                    }
-
-                    long timeDiffSeconds = currentEventDuration.minus(lastEventDuration).getSeconds();
-                    if (timeDiffSeconds < 0) continue;
-
-                    long delayMillis = (long) (timeDiffSeconds * 1000 / speed);
-
-                    if (delayMillis > 0) {
-                        try {
-                            Thread.sleep(delayMillis);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            break;
-                        }
-                    }
-
-                    if (!isReplaying.get()) break;
+                replay.setSpeed(request.getSpeed(), receivedNanos);
+            }
+        }
+    }
 
-                    logger.info(">>> Sending event: {}", event);
-                    webSocketHandler.broadcastToAll(objectMapper.writeValueAsString(event));
-                    sendReplayStatus(currentEventDuration, speed);
-                    lastEventDuration = currentEventDuration;
-                    sentEvent = true;
-                }
+    /**
+     * Entry point for callers that only know the session id (e.g. the STOMP controller).
+     */
+    public void handleReplayRequest(String sessionId, ReplayRequest request) {
+        ReplaySession session = sessionId != null ? sessionManager.getSession(sessionId) : null;
+        if (session == null) {
+            logger.warn("No replay session registered for id {}. Ignoring request: {}", sessionId, request);
+            return;
+        }
+        handleReplayRequest(session, request);
+    }
 
-                long now = System.currentTimeMillis();
-                if (!sentEvent && now - lastStatusTime >= 1000) {
-                    sendReplayStatus(null, speed);
-                    lastStatusTime = now;
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Error during replay", e);
-        } finally {
-            isReplaying.set(false);
-            logger.info("Replay finished.");
+    private void startReplay(ReplaySession session, String gameId, String startTime, double speed,
+                             boolean batchFraming) {
+        int startSeconds = parseGameTime(startTime);
+        if (startSeconds < 0) {
+            sendErrorStatus(session, "Invalid start time format: " + startTime);
+            session.markStopped();
+            return;
         }
+        new PacedReplay(session, gameId, startSeconds, speed, batchFraming, this, timelineStore, pacer,
+                warmupTimeoutMillis).start();
     }
 
-    private GameEvent parseGameEvent(String message) {
-        try {
-            JsonNode rootNode = objectMapper.readTree(message);
-            JsonNode payloadNode = rootNode.path("value").path("payload");
-            if (payloadNode.isMissingNode() || payloadNode.isNull()) {
-                return objectMapper.readValue(message, GameEvent.class);
-            } else {
-                return objectMapper.treeToValue(payloadNode, GameEvent.class);
-            }
-        } catch (Exception e) {
-            logger.error("Failed to parse message: {}", message, e);
-            return null;
+    private int parseGameTime(String timestamp) {
+        int gameSeconds = GameClock.parse(timestamp);
+        if (gameSeconds < 0) {
+            logger.error("Invalid game time format: '{}'", timestamp);
         }
+        return gameSeconds;
     }
 
-    private Duration parseGameTime(String timestamp) {
+    void sendReplayStatus(ReplaySession session, int currentReplayTime, double speed) {
         try {
-            String[] parts = timestamp.split(":");
-            long minutes = Long.parseLong(parts[0]);
-            long seconds = Long.parseLong(parts[1]);
-            return Duration.ofMinutes(minutes).plusSeconds(seconds);
+            if (session.isCompact()) {
+                byte state = !session.isReplaying() ? CompactFrames.STOPPED
+                        : session.isPaused() ? CompactFrames.PAUSED : CompactFrames.REPLAYING;
+                session.sendStatus(CompactFrames.status(state, currentReplayTime, speed, System.currentTimeMillis()));
+                return;
+            }
+            session.sendStatus(buildReplayStatus(session, currentReplayTime, speed));
         } catch (Exception e) {
-            logger.error("Invalid game time format: '{}'", timestamp);
-            return null;
+            logger.error("Failed to send replay status", e);
         }
     }
 
-    private String formatDuration(Duration duration) {
-        if (duration == null) return "--:--";
-        long minutes = duration.toMinutesPart();
-        long seconds = duration.toSecondsPart();
-        return String.format("%02d:%02d", minutes, seconds);
+    String buildReplayStatus(ReplaySession session, int currentReplayTime, double speed) throws JsonProcessingException {
+        Map<String, Object> status = new HashMap<>();
+        status.put("status", !session.isReplaying() ? "stopped" : session.isPaused() ? "paused" : "replaying");
+        status.put("currentReplayTime", GameClock.format(currentReplayTime));
+        status.put("speed", speed);
+        status.put("timestamp", System.currentTimeMillis());
+        return objectMapper.writeValueAsString(status);
     }
 
-    private void sendReplayStatus(Duration currentReplayTime, Double speed) {
+    /**
+     * Sends the box score as it stood just before {@code gameSeconds}, so a client
+     * joining or seeking mid-game starts from the accumulated state. Sent as a text
+     * frame on either protocol.
+     */
+    void sendBoxScore(ReplaySession session, String gameId, int gameSeconds) {
         try {
-            Map<String, Object> status = new HashMap<>();
-            status.put("status", isReplaying.get() ? "replaying" : "stopped");
-            status.put("currentReplayTime", formatDuration(currentReplayTime));
-            status.put("speed", speed);
-            status.put("timestamp", System.currentTimeMillis());
-            webSocketHandler.broadcastToAll(objectMapper.writeValueAsString(status));
+            BoxScore boxScore = timelineStore.getBoxScore(gameId, gameSeconds);
+            if (boxScore == null || boxScore.getEvents() == 0) {
+                return;
+            }
+            Map<String, Object> message = new LinkedHashMap<>();
+            message.put("type", "box_score");
+            message.put("gameId", gameId);
+            message.put("time", GameClock.format(gameSeconds));
+            message.put("boxScore", boxScore);
+            session.sendEssential(objectMapper.writeValueAsString(message));
         } catch (Exception e) {
-            logger.error("Failed to send replay status", e);
+            logger.error("Failed to send box score", e);
         }
     }
 
-    private void sendErrorStatus(String error) {
+    void sendErrorStatus(ReplaySession session, String error) {
         try {
             Map<String, Object> status = new HashMap<>();
             status.put("status", "error");
             status.put("error", error);
             status.put("timestamp", System.currentTimeMillis());
-            webSocketHandler.broadcastToAll(objectMapper.writeValueAsString(status));
+            session.send(objectMapper.writeValueAsString(status));
         } catch (Exception e) {
             logger.error("Failed to send error status", e);
         }
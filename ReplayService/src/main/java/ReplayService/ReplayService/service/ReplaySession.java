@@ -0,0 +1,195 @@
+package ReplayService.ReplayService.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * State of a single client's replay. Every WebSocket connection owns exactly one
+ * ReplaySession, so start time, speed and lifecycle are independent per client.
+ */
+public class ReplaySession {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplaySession.class);
+
+    private final WebSocketSession webSocketSession;
+    private final OutboundQueue outbound;
+    private final boolean compact;
+    private final AtomicBoolean replaying = new AtomicBoolean(false);
+    private volatile Future<?> replayTask;
+    private volatile PacedReplay replay;
+    private volatile boolean paused;
+    private volatile Runnable onStopped;
+    private volatile String startTime;
+    private volatile double speed = 1.0;
+
+    public ReplaySession(WebSocketSession webSocketSession, OutboundQueue outbound) {
+        this.webSocketSession = webSocketSession;
+        this.outbound = outbound;
+        this.compact = CompactFrames.PROTOCOL.equals(webSocketSession.getAcceptedProtocol());
+    }
+
+    public String getId() {
+        return webSocketSession.getId();
+    }
+
+    public boolean isOpen() {
+        return webSocketSession.isOpen();
+    }
+
+    /**
+     * Whether the client negotiated the binary {@link CompactFrames} sub-protocol
+     * instead of the default JSON frames.
+     */
+    public boolean isCompact() {
+        return compact;
+    }
+
+    public String getProtocol() {
+        String protocol = webSocketSession.getAcceptedProtocol();
+        return protocol != null && !protocol.isEmpty() ? protocol : CompactFrames.JSON_PROTOCOL;
+    }
+
+    public String getExtensions() {
+        StringBuilder names = new StringBuilder();
+        webSocketSession.getExtensions().forEach(extension ->
+                names.append(names.length() > 0 ? ", " : "").append(extension.getName()));
+        return names.toString();
+    }
+
+    public boolean isReplaying() {
+        return replaying.get();
+    }
+
+    boolean markStarted(String startTime, double speed, Runnable onStopped) {
+        if (!replaying.compareAndSet(false, true)) {
+            return false;
+        }
+        this.startTime = startTime;
+        this.speed = speed;
+        this.onStopped = onStopped;
+        this.paused = false;
+        return true;
+    }
+
+    /**
+     * Ends the current replay. Only the first caller wins, so the stop callback runs
+     * exactly once per replay.
+     */
+    boolean markStopped() {
+        if (!replaying.compareAndSet(true, false)) {
+            return false;
+        }
+        PacedReplay current = replay;
+        if (current != null) {
+            current.stop();
+        }
+        Runnable callback = onStopped;
+        if (callback != null) {
+            callback.run();
+        }
+        return true;
+    }
+
+    void setReplayTask(Future<?> replayTask) {
+        this.replayTask = replayTask;
+    }
+
+    void cancelReplayTask() {
+        Future<?> task = replayTask;
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+
+    /**
+     * @return the replay that pause, resume, seek and speed changes act on, or null before the first start.
+     */
+    PacedReplay getReplay() {
+        return replay;
+    }
+
+    void setReplay(PacedReplay replay) {
+        this.replay = replay;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    void setSpeed(double speed) {
+        this.speed = speed;
+    }
+
+    /**
+     * Stops this session's replay and cancels its pending pacing task so a long
+     * wait between events does not keep it scheduled.
+     */
+    public void stop() {
+        if (markStopped()) {
+            logger.info("Stopping replay for session {}", getId());
+        }
+        cancelReplayTask();
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public OutboundQueue getOutbound() {
+        return outbound;
+    }
+
+    /**
+     * Queues a JSON frame for this client only. Never blocks on the socket.
+     *
+     * @return false if the client has been disconnected.
+     */
+    public boolean send(String jsonMessage) {
+        return send(new TextMessage(jsonMessage));
+    }
+
+    /**
+     * Queues an already built frame, so one message instance can be shared by many clients.
+     */
+    public boolean send(WebSocketMessage<?> message) {
+        return webSocketSession.isOpen() && outbound.offer(message, false);
+    }
+
+    /**
+     * Queues a frame the overflow policy never discards, for frames the client
+     * needs to make sense of later ones: dictionary entries and box score seeds.
+     */
+    public boolean sendEssential(String jsonMessage) {
+        return sendEssential(new TextMessage(jsonMessage));
+    }
+
+    public boolean sendEssential(WebSocketMessage<?> message) {
+        return webSocketSession.isOpen() && outbound.offerEssential(message);
+    }
+
+    /**
+     * Queues a replay status frame, which the overflow policy may conflate with
+     * an earlier status that has not been written yet.
+     */
+    public boolean sendStatus(String jsonMessage) {
+        return sendStatus(new TextMessage(jsonMessage));
+    }
+
+    public boolean sendStatus(WebSocketMessage<?> message) {
+        return webSocketSession.isOpen() && outbound.offer(message, true);
+    }
+}
@@ -0,0 +1,185 @@
+package ReplayService.ReplayService.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks one {@link ReplaySession} per connected WebSocket and enforces a cap on
+ * how many replays may run at once. The replays themselves are paced by the shared
+ * {@link ReplayPacer}; socket writes happen on a separate writer pool that drains
+ * each session's {@link OutboundQueue}.
+ */
+@Component
+public class ReplaySessionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplaySessionManager.class);
+
+    private final Map<String, ReplaySession> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger activeReplays = new AtomicInteger();
+    private final int maxConcurrentReplays;
+    private final int sendTimeLimitMillis;
+    private final int queueCapacity;
+    private final OutboundQueue.OverflowPolicy overflowPolicy;
+    private final ExecutorService writerPool;
+
+    public ReplaySessionManager(@Value("${replay.sessions.max-concurrent:5000}") int maxConcurrentReplays,
+                                @Value("${replay.sessions.send-time-limit-ms:5000}") int sendTimeLimitMillis,
+                                @Value("${replay.outbound.queue-capacity:1024}") int queueCapacity,
+                                @Value("${replay.outbound.overflow-policy:conflate_status}") String overflowPolicy,
+                                @Value("${replay.outbound.writer-threads:0}") int writerThreads) {
+        this.maxConcurrentReplays = maxConcurrentReplays;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = OutboundQueue.OverflowPolicy.fromString(overflowPolicy);
+        this.writerPool = Executors.newFixedThreadPool(
+                writerThreads > 0 ? writerThreads : 2 * Runtime.getRuntime().availableProcessors(),
+                new WriterThreadFactory());
+    }
+
+    public ReplaySession register(WebSocketSession webSocketSession) {
+        limitBlockingSend(webSocketSession);
+        OutboundQueue outbound = new OutboundQueue(webSocketSession, writerPool, queueCapacity, overflowPolicy);
+        ReplaySession session = new ReplaySession(webSocketSession, outbound);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * Bounds how long a writer thread can be held by one stalled client; Tomcat's
+     * default blocking send timeout is 20 seconds.
+     */
+    private void limitBlockingSend(WebSocketSession webSocketSession) {
+        if (webSocketSession instanceof NativeWebSocketSession nativeSession
+                && nativeSession.getNativeSession() instanceof jakarta.websocket.Session session) {
+            session.getUserProperties().put("org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT",
+                    (long) sendTimeLimitMillis);
+        }
+    }
+
+    public void unregister(String sessionId) {
+        ReplaySession session = sessions.remove(sessionId);
+        if (session != null) {
+            session.stop();
+        }
+    }
+
+    public ReplaySession getSession(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    public Collection<ReplaySession> getSessions() {
+        return sessions.values();
+    }
+
+    /**
+     * Starts a replay for the given session. {@code start} only schedules the
+     * replay; the slot is released when the session's replay stops.
+     *
+     * @return null on success, otherwise the reason the replay was rejected.
+     */
+    public String startReplay(ReplaySession session, String startTime, double speed, Runnable start) {
+        if (session.isReplaying()) {
+            return "Replay is already in progress for this session";
+        }
+        if (activeReplays.incrementAndGet() > maxConcurrentReplays) {
+            activeReplays.decrementAndGet();
+            logger.warn("Rejecting replay for session {}: {} concurrent replays already running",
+                    session.getId(), maxConcurrentReplays);
+            return "Server is at its limit of " + maxConcurrentReplays + " concurrent replays";
+        }
+        if (!session.markStarted(startTime, speed, activeReplays::decrementAndGet)) {
+            activeReplays.decrementAndGet();
+            return "Replay is already in progress for this session";
+        }
+        try {
+            start.run();
+        } catch (RuntimeException e) {
+            session.markStopped();
+            throw e;
+        }
+        return null;
+    }
+
+    public int getConnectedSessionCount() {
+        return sessions.size();
+    }
+
+    public int getActiveReplayCount() {
+        return activeReplays.get();
+    }
+
+    public int getMaxConcurrentReplays() {
+        return maxConcurrentReplays;
+    }
+
+    /**
+     * Aggregate delivery health across all clients: queued frames, drops and the
+     * worst per-client lag between enqueue and socket write.
+     */
+    public Map<String, Object> getOutboundMetrics() {
+        long queued = 0;
+        long dropped = 0;
+        long worstLagP99 = 0;
+        for (ReplaySession session : sessions.values()) {
+            OutboundQueue outbound = session.getOutbound();
+            queued += outbound.size();
+            dropped += outbound.getDropped();
+            worstLagP99 = Math.max(worstLagP99, outbound.getLag().percentileMicros(99));
+        }
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("policy", overflowPolicy);
+        metrics.put("queueCapacity", queueCapacity);
+        metrics.put("queued", queued);
+        metrics.put("dropped", dropped);
+        metrics.put("worstLagP99Micros", worstLagP99);
+        return metrics;
+    }
+
+    public List<Map<String, Object>> getSessionMetrics() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (ReplaySession session : sessions.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", session.getId());
+            entry.put("replaying", session.isReplaying());
+            entry.put("speed", session.getSpeed());
+            entry.put("protocol", session.getProtocol());
+            entry.put("extensions", session.getExtensions());
+            entry.put("outbound", session.getOutbound().snapshot());
+            result.add(entry);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sessions.values().forEach(ReplaySession::stop);
+        writerPool.shutdownNow();
+    }
+
+    private static class WriterThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "replay-writer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ReplayService.ReplayService.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BoxScoreTests {
+
+	private static final String SNAPSHOT = "{\"game_seconds\":300,\"events\":2,"
+			+ "\"teams\":[{\"team\":\"Celtics\",\"points\":5},{\"team\":\"Heat\",\"points\":0}],"
+			+ "\"players\":[{\"firstname\":\"Jrue\",\"lastname\":\"Holiday\",\"player_number\":\"4\",\"team\":\"Celtics\","
+			+ "\"points\":5,\"rebounds\":0,\"assists\":0,\"fouls\":0}]}";
+
+	@Test
+	void appliesEventsOnACopy() throws Exception {
+		BoxScore snapshot = new ObjectMapper().readValue(SNAPSHOT, BoxScore.class);
+
+		BoxScore later = snapshot.copy();
+		later.apply("Jrue", "Holiday", "4", "score-3");
+		later.apply("Jrue", "Holiday", "4", "rebound");
+		later.apply("Bam", "Adebayo", "13", "score-2");
+
+		assertEquals(5, later.getEvents());
+		assertEquals(8, later.getTeams().get(0).getPoints());
+		assertEquals(0, later.getTeams().get(1).getPoints());
+		assertEquals(8, later.getPlayers().get(0).getPoints());
+		assertEquals(1, later.getPlayers().get(0).getRebounds());
+		assertEquals("Adebayo", later.getPlayers().get(1).getLastname());
+		assertEquals(2, later.getPlayers().get(1).getPoints());
+
+		assertEquals(2, snapshot.getEvents());
+		assertEquals(5, snapshot.getTeams().get(0).getPoints());
+		assertEquals(1, snapshot.getPlayers().size());
+	}
+}
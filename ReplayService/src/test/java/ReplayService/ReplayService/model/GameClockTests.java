@@ -0,0 +1,37 @@
+package ReplayService.ReplayService.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GameClockTests {
+
+	@Test
+	void parsesMinutesAndSeconds() {
+		assertEquals(307, GameClock.parse("05:07"));
+		assertEquals(307, GameClock.parse("5:7"));
+		assertEquals(2880, GameClock.parse("48:00"));
+		assertEquals(307, GameClock.parse("05:07:30"));
+	}
+
+	@Test
+	void rejectsMalformedClocks() {
+		assertEquals(-1, GameClock.parse((String) null));
+		assertEquals(-1, GameClock.parse(""));
+		assertEquals(-1, GameClock.parse("05"));
+		assertEquals(-1, GameClock.parse(":07"));
+		assertEquals(-1, GameClock.parse("05:"));
+		assertEquals(-1, GameClock.parse(" 05:07"));
+		assertEquals(-1, GameClock.parse("05:99"));
+		assertEquals(-1, GameClock.parse("05:60"));
+		assertEquals(359, GameClock.parse("05:59"));
+	}
+
+	@Test
+	void formatsLikeTheEventClock() {
+		assertEquals("05:07", GameClock.format(307));
+		assertEquals("00:00", GameClock.format(0));
+		assertEquals("100:05", GameClock.format(6005));
+		assertEquals("--:--", GameClock.format(-1));
+	}
+}
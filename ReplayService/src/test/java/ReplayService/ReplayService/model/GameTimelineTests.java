@@ -0,0 +1,54 @@
+package ReplayService.ReplayService.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class GameTimelineTests {
+
+	@Test
+	void seekFindsFirstEventAtOrAfterStart() {
+		GameTimeline timeline = GameTimeline.empty("game1")
+				.merge(new int[]{22, 30, 30, 49, 72}, new String[]{"a", "b", "c", "d", "e"}, 5);
+
+		assertEquals(0, timeline.seek(0));
+		assertEquals(1, timeline.seek(30));
+		assertEquals(3, timeline.seek(31));
+		assertEquals(5, timeline.seek(300));
+	}
+
+	@Test
+	void mergeKeepsOrderAndExistingEntriesFirst() {
+		GameTimeline timeline = GameTimeline.empty("game1")
+				.merge(new int[]{10, 20, 30}, new String[]{"a", "b", "c"}, 3)
+				.merge(new int[]{5, 20, 40}, new String[]{"late", "b2", "d"}, 3);
+
+		assertEquals(6, timeline.size());
+		String[] expected = {"late", "a", "b", "b2", "c", "d"};
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], timeline.payloadAt(i));
+		}
+	}
+
+	@Test
+	void appendOnlyMergeAndEmptyMerge() {
+		GameTimeline timeline = GameTimeline.empty("game1")
+				.merge(new int[]{10, 20}, new String[]{"a", "b"}, 2);
+
+		assertSame(timeline, timeline.merge(new int[0], new String[0], 0));
+		GameTimeline appended = timeline.merge(new int[]{20, 25}, new String[]{"c", "d"}, 2);
+		assertEquals("c", appended.payloadAt(2));
+		assertEquals(25, appended.timeAt(3));
+	}
+
+	@Test
+	void resumeIndexSkipsEventsAlreadySent() {
+		GameTimeline timeline = GameTimeline.empty("game1")
+				.merge(new int[]{10, 20, 20, 20, 30}, new String[]{"a", "b", "c", "d", "e"}, 5);
+
+		assertEquals(0, timeline.resumeIndex(-1, 0));
+		assertEquals(3, timeline.resumeIndex(20, 2));
+		assertEquals(5, timeline.resumeIndex(30, 1));
+	}
+}
@@ -0,0 +1,72 @@
+package ReplayService.ReplayService.service;
+
+import ReplayService.ReplayService.model.BoxScore;
+import ReplayService.ReplayService.model.EventDictionary;
+import ReplayService.ReplayService.model.GameTimeline;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BoxScoreAtTests {
+
+	private final GameTimelineStore store = new GameTimelineStore(new ObjectMapper(), "localhost:9092");
+
+	@Test
+	void startsFromTheNearestSnapshotAndAppliesTheRest() {
+		EventDictionary dictionary = new EventDictionary();
+		int two = dictionary.encode("Jrue", "Holiday", "4", "score-2");
+		int three = dictionary.encode("Jrue", "Holiday", "4", "score-3");
+		GameTimeline timeline = GameTimeline.empty("game1").merge(new int[]{10, 20, 400, 410},
+				new String[]{"{}", "{}", "{}", "{}"}, new int[]{two, two, three, two}, 4);
+
+		BoxScore atFiveMinutes = new BoxScore();
+		atFiveMinutes.apply("Jrue", "Holiday", "4", "score-2");
+		atFiveMinutes.apply("Jrue", "Holiday", "4", "score-2");
+		atFiveMinutes.setGameSeconds(300);
+		TreeMap<Integer, BoxScore> snapshots = new TreeMap<>();
+		snapshots.put(atFiveMinutes.getGameSeconds(), atFiveMinutes);
+
+		BoxScore before = store.boxScoreAt(timeline, snapshots, dictionary, 15);
+		assertEquals(1, before.getEvents());
+		assertEquals(2, before.getPlayers().get(0).getPoints());
+
+		BoxScore after = store.boxScoreAt(timeline, snapshots, dictionary, 405);
+		assertEquals(3, after.getEvents());
+		assertEquals(7, after.getPlayers().get(0).getPoints());
+		assertEquals(405, after.getGameSeconds());
+		assertEquals(4, atFiveMinutes.getPlayers().get(0).getPoints());
+
+		BoxScore end = store.boxScoreAt(timeline, snapshots, dictionary, Integer.MAX_VALUE);
+		assertEquals(4, end.getEvents());
+		assertEquals(9, end.getPlayers().get(0).getPoints());
+		assertEquals(410, end.getGameSeconds());
+	}
+
+	@Test
+	void appliesEventsAfterTheSnapshotClockWhateverItsEventCount() {
+		EventDictionary dictionary = new EventDictionary();
+		int two = dictionary.encode("Jrue", "Holiday", "4", "score-2");
+		int three = dictionary.encode("Jrue", "Holiday", "4", "score-3");
+		GameTimeline timeline = GameTimeline.empty("game1").merge(new int[]{0, 300, 400},
+				new String[]{"{}", "{}", "{}"}, new int[]{two, two, three}, 3);
+
+		BoxScore opening = new BoxScore();
+		// The ingest service read more events than reached the timeline
+		BoxScore atFiveMinutes = new BoxScore();
+		for (int i = 0; i < 5; i++) {
+			atFiveMinutes.apply("Jrue", "Holiday", "4", "score-1");
+		}
+		atFiveMinutes.setGameSeconds(300);
+		TreeMap<Integer, BoxScore> snapshots = new TreeMap<>();
+		snapshots.put(0, opening);
+		snapshots.put(300, atFiveMinutes);
+
+		assertEquals(2, store.boxScoreAt(timeline, snapshots, dictionary, 1).getPlayers().get(0).getPoints());
+		assertEquals(2, store.boxScoreAt(timeline, snapshots, dictionary, 300).getPlayers().get(0).getPoints());
+		assertEquals(5, store.boxScoreAt(timeline, snapshots, dictionary, 301).getPlayers().get(0).getPoints());
+		assertEquals(8, store.boxScoreAt(timeline, snapshots, dictionary, 401).getPlayers().get(0).getPoints());
+	}
+}
@@ -0,0 +1,72 @@
+package ReplayService.ReplayService.service;
+
+import ReplayService.ReplayService.model.EventDictionary;
+import ReplayService.ReplayService.model.GameTimeline;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompactFramesTests {
+
+	@Test
+	void eventsReferToDictionaryIds() {
+		EventDictionary dictionary = new EventDictionary();
+		int holiday = dictionary.encode("Jrue", "Holiday", "4", "score-2");
+		int white = dictionary.encode("Derrick", "White", "9", "assist");
+		assertEquals(dictionary.encode("Jrue", "Holiday", "4", "score-2"), holiday);
+
+		GameTimeline timeline = GameTimeline.empty("game1")
+				.merge(new int[]{30, 31}, new String[]{"{}", "{}"}, new int[]{holiday, white}, 2);
+		ByteBuffer events = CompactFrames.events(timeline, 0, 2).getPayload();
+
+		assertEquals(3 + 2 * CompactFrames.EVENT_BYTES, events.remaining());
+		assertEquals(CompactFrames.EVENTS, events.get());
+		assertEquals(2, events.getShort());
+		assertEquals(30, events.getShort());
+		assertEquals(0, events.getShort());
+		assertEquals(0, events.get());
+		assertEquals(31, events.getShort());
+		assertEquals(1, events.getShort());
+		assertEquals(1, events.get());
+	}
+
+	@Test
+	void dictionaryCarriesOnlyNewEntries() {
+		EventDictionary dictionary = new EventDictionary();
+		dictionary.encode("Jrue", "Holiday", "4", "score-2");
+		dictionary.encode("Derrick", "White", "9", "score-2");
+
+		ByteBuffer frame = CompactFrames.dictionary(dictionary.playersFrom(1), 1, dictionary.eventTypesFrom(1), 1)
+				.getPayload();
+
+		assertEquals(CompactFrames.DICTIONARY, frame.get());
+		assertEquals(1, frame.getShort());
+		assertEquals(1, frame.getShort());
+		assertEquals("Derrick", readString(frame));
+		assertEquals("White", readString(frame));
+		assertEquals("9", readString(frame));
+		assertEquals(0, frame.get());
+		assertEquals(0, frame.remaining());
+	}
+
+	@Test
+	void statusHasFixedSize() {
+		ByteBuffer status = CompactFrames.status(CompactFrames.PAUSED, 307, 20.0, 1L).getPayload();
+
+		assertEquals(CompactFrames.STATUS_BYTES, status.remaining());
+		assertEquals(CompactFrames.STATUS, status.get());
+		assertEquals(CompactFrames.PAUSED, status.get());
+		assertEquals(307, status.getInt());
+		assertEquals(20.0f, status.getFloat());
+		assertEquals(1L, status.getLong());
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.get() & 0xFF];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,87 @@
+package ReplayService.ReplayService.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventDecoderTests {
+
+	private final GameEventDecoder decoder = new GameEventDecoder(new JsonFactory());
+
+	@Test
+	void decodesFlatEvents() throws Exception {
+		assertTrue(decoder.decode(bytes("{\"firstname\":\"Jrue\",\"lastname\":\"Holiday\",\"event_type\":\"score-2\","
+				+ "\"player_number\":4,\"timestamp\":\"05:07\",\"extra\":{\"a\":[1,2]}}")));
+
+		assertEquals("Jrue", decoder.getEvent().getFirstname());
+		assertEquals("Holiday", decoder.getEvent().getLastname());
+		assertEquals("score-2", decoder.getEvent().getEventType());
+		assertEquals("4", decoder.getEvent().getPlayerNumber());
+		assertEquals("05:07", decoder.getEvent().getTimestamp());
+		assertEquals(307, decoder.getGameSeconds());
+	}
+
+	@Test
+	void prefersTheEnvelopePayload() throws Exception {
+		assertTrue(decoder.decode(bytes("{\"firstname\":\"ignored\",\"value\":{\"schema\":{\"type\":\"struct\"},"
+				+ "\"payload\":{\"firstname\":\"Derrick\",\"timestamp\":\"12:00\"}},\"lastname\":\"ignored\"}")));
+
+		assertEquals("Derrick", decoder.getEvent().getFirstname());
+		assertNull(decoder.getEvent().getLastname());
+		assertEquals(720, decoder.getGameSeconds());
+	}
+
+	@Test
+	void reportsInvalidClocksAndNonObjects() throws Exception {
+		assertTrue(decoder.decode(bytes("{\"value\":{\"payload\":null},\"timestamp\":\"5-07\"}")));
+		assertEquals(-1, decoder.getGameSeconds());
+		assertFalse(decoder.decode(bytes("[1,2]")));
+	}
+
+	@Test
+	void decodesBinaryRecords() throws Exception {
+		// version 1, 05:08, rebound, "Dereck", "Lively II", "00"
+		assertTrue(decoder.decode(binary(308, 5, "Dereck", "Lively II", "00")));
+
+		assertTrue(decoder.isBinary());
+		assertEquals("Dereck", decoder.getEvent().getFirstname());
+		assertEquals("Lively II", decoder.getEvent().getLastname());
+		assertEquals("rebound", decoder.getEvent().getEventType());
+		assertEquals("00", decoder.getEvent().getPlayerNumber());
+		assertEquals("05:08", decoder.getEvent().getTimestamp());
+		assertEquals(308, decoder.getGameSeconds());
+
+		assertTrue(decoder.decode(bytes("{\"timestamp\":\"00:01\"}")));
+		assertFalse(decoder.isBinary());
+	}
+
+	@Test
+	void rejectsInvalidBinaryRecords() throws Exception {
+		assertFalse(decoder.decode(binary(308, 99, "Dereck", "Lively II", "00")));
+		byte[] truncated = binary(308, 5, "Dereck", "Lively II", "00");
+		assertFalse(decoder.decode(Arrays.copyOf(truncated, truncated.length - 1)));
+	}
+
+	private static byte[] binary(int gameSeconds, int typeCode, String... fields) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(GameEventDecoder.BINARY_V1);
+		out.write(gameSeconds >> 8);
+		out.write(gameSeconds);
+		out.write(typeCode);
+		for (String field : fields) {
+			byte[] bytes = bytes(field);
+			out.write(bytes.length);
+			out.writeBytes(bytes);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] bytes(String json) {
+		return json.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,103 @@
+package ReplayService.ReplayService.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OutboundQueueTests {
+
+	// Holds drain tasks until the test runs them, standing in for a busy writer pool.
+	private final ArrayDeque<Runnable> writer = new ArrayDeque<>();
+	private final List<String> written = new ArrayList<>();
+
+	@Test
+	void dropOldestKeepsTheNewestFrames() throws Exception {
+		OutboundQueue queue = new OutboundQueue(socket(), writer::add, 2, OutboundQueue.OverflowPolicy.DROP_OLDEST);
+		for (String frame : new String[]{"a", "b", "c", "d"}) {
+			assertTrue(queue.offer(new TextMessage(frame), false));
+		}
+		runWriter();
+
+		assertEquals(List.of("c", "d"), written);
+		assertEquals(2, queue.getDropped());
+	}
+
+	@Test
+	void overflowNeverDropsEssentialFrames() throws Exception {
+		OutboundQueue queue = new OutboundQueue(socket(), writer::add, 2, OutboundQueue.OverflowPolicy.DROP_OLDEST);
+		assertTrue(queue.offerEssential(new TextMessage("dictionary")));
+		assertTrue(queue.offer(new TextMessage("a"), false));
+		assertTrue(queue.offer(new TextMessage("b"), false));
+		assertTrue(queue.offerEssential(new TextMessage("box_score")));
+		// Nothing queued may be dropped, so the new event is
+		assertTrue(queue.offer(new TextMessage("c"), false));
+		runWriter();
+
+		assertEquals(List.of("dictionary", "box_score"), written);
+		assertEquals(3, queue.getDropped());
+	}
+
+	@Test
+	void essentialFramesPastCapacityAreQueuedWithoutCountingDrops() throws Exception {
+		OutboundQueue queue = new OutboundQueue(socket(), writer::add, 2, OutboundQueue.OverflowPolicy.DROP_OLDEST);
+		assertTrue(queue.offerEssential(new TextMessage("dictionary")));
+		assertTrue(queue.offerEssential(new TextMessage("box_score")));
+		assertTrue(queue.offerEssential(new TextMessage("dictionary2")));
+
+		assertEquals(0, queue.getDropped());
+		assertEquals(1L, queue.snapshot().get("overCapacity"));
+		assertEquals(3, queue.snapshot().get("maxQueued"));
+		runWriter();
+		assertEquals(List.of("dictionary", "box_score", "dictionary2"), written);
+	}
+
+	@Test
+	void conflateStatusSendsOnlyTheLatestStatus() throws Exception {
+		OutboundQueue queue = new OutboundQueue(socket(), writer::add, 10, OutboundQueue.OverflowPolicy.CONFLATE_STATUS);
+		queue.offer(new TextMessage("e1"), false);
+		queue.offer(new TextMessage("s1"), true);
+		queue.offer(new TextMessage("e2"), false);
+		queue.offer(new TextMessage("s2"), true);
+		runWriter();
+
+		assertEquals(List.of("e1", "e2", "s2"), written);
+	}
+
+	@Test
+	void disconnectClosesASlowClient() throws Exception {
+		WebSocketSession socket = socket();
+		OutboundQueue queue = new OutboundQueue(socket, writer::add, 1, OutboundQueue.OverflowPolicy.DISCONNECT);
+		assertTrue(queue.offer(new TextMessage("a"), false));
+		assertFalse(queue.offer(new TextMessage("b"), false));
+		assertFalse(queue.offer(new TextMessage("c"), false));
+		runWriter();
+
+		assertEquals(List.of(), written);
+		verify(socket).close(CloseStatus.SESSION_NOT_RELIABLE);
+	}
+
+	private void runWriter() {
+		Runnable task;
+		while ((task = writer.poll()) != null) {
+			task.run();
+		}
+	}
+
+	private WebSocketSession socket() throws Exception {
+		WebSocketSession socket = mock(WebSocketSession.class);
+		when(socket.getId()).thenReturn("s1");
+		when(socket.isOpen()).thenReturn(true);
+		doAnswer(invocation -> written.add(((TextMessage) invocation.getArgument(0)).getPayload()))
+				.when(socket).sendMessage(any());
+		return socket;
+	}
+}
@@ -0,0 +1,204 @@
+package ReplayService.ReplayService.service;
+
+import ReplayService.ReplayService.model.GameTimeline;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PacedReplayTests {
+
+	private final ReplayPacer pacer = new ReplayPacer(2, 50);
+	private final ReplaySessionManager manager = new ReplaySessionManager(10, 1000, 1024, "conflate_status", 1);
+	private final GameTimelineStore store = mock(GameTimelineStore.class);
+	private final ReplayService replayService = new ReplayService(manager, store, pacer, new ObjectMapper());
+	/** Every text frame written to the client, in order. */
+	private final List<String> frames = new CopyOnWriteArrayList<>();
+	private ReplaySession session;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		WebSocketSession socket = mock(WebSocketSession.class);
+		when(socket.getId()).thenReturn("s1");
+		when(socket.isOpen()).thenReturn(true);
+		doAnswer(invocation -> {
+			frames.add(((TextMessage) invocation.getArgument(0)).getPayload());
+			return null;
+		}).when(socket).sendMessage(any());
+		// Frames are written on the sending thread, so they arrive in the order they were sent
+		session = new ReplaySession(socket, new OutboundQueue(socket, Runnable::run, 1024,
+				OutboundQueue.OverflowPolicy.DROP_OLDEST));
+	}
+
+	@AfterEach
+	void tearDown() {
+		session.stop();
+		manager.shutdown();
+		pacer.shutdown();
+	}
+
+	@Test
+	void eventsLeaveInOrderAtTheirDeadlines() throws Exception {
+		loaded(GameTimeline.empty("game1")
+				.merge(new int[]{295, 300, 302, 302, 305, 310}, new String[]{"early", "a", "b", "c", "d", "e"}, 6));
+
+		long started = System.nanoTime();
+		start(100.0, false, 1000);
+		await(() -> events().size() >= 5);
+		long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+		// Drift is recorded right after the send; give the pacer thread a moment to get there.
+		await(() -> driftCount() >= 5);
+		session.stop();
+
+		// 10 game-seconds at 100x is 100 ms; events before the start are skipped.
+		assertEquals(List.of("a", "b", "c", "d", "e"), events());
+		assertTrue(elapsedMillis >= 95, "replay finished too early: " + elapsedMillis + " ms");
+		assertEquals(5, driftCount());
+	}
+
+	@Test
+	void batchFramingPacksEventsDueInTheSameWindow() throws Exception {
+		loaded(GameTimeline.empty("game1")
+				.merge(new int[]{300, 300, 300, 330}, new String[]{"{\"e\":1}", "{\"e\":2}", "{\"e\":3}", "{\"e\":4}"}, 4));
+
+		start(100.0, true, 1000);
+		await(() -> batches().size() >= 2);
+		session.stop();
+
+		// 30 game-seconds at 100x is 300 ms, well outside the 50 ms window.
+		List<String> batches = batches();
+		assertEquals(2, batches.size());
+		assertTrue(batches.get(0).startsWith("{\"type\":\"batch\",\"events\":[{\"e\":1},{\"e\":2},{\"e\":3}],\"status\":{"));
+		assertTrue(batches.get(1).contains("[{\"e\":4}]"));
+	}
+
+	@Test
+	void controlsActOnTheRunningReplay() throws Exception {
+		loaded(GameTimeline.empty("game1").merge(new int[]{300, 400, 401}, new String[]{"a", "b", "c"}, 3));
+
+		PacedReplay replay = start(1.0, false, 1000);
+		await(() -> events().size() >= 1);
+
+		replay.pause(System.nanoTime());
+		assertTrue(session.isPaused());
+		// At 1x the next event is 100 s away; at 1000x it is 100 ms.
+		replay.setSpeed(1000.0, System.nanoTime());
+		Thread.sleep(150);
+		assertEquals(List.of("a"), events());
+		replay.resume(System.nanoTime());
+		await(() -> events().size() >= 3);
+
+		replay.seek(300, System.nanoTime());
+		await(() -> events().size() >= 4);
+		session.stop();
+
+		assertEquals(List.of("a", "b", "c", "a"), events());
+		assertEquals(1000.0, session.getSpeed());
+		// Controls arriving before the pacer gets to them are applied by one tick.
+		long applied = count("controlLatency");
+		assertTrue(applied >= 3 && applied <= 4, "control ticks: " + applied);
+	}
+
+	@Test
+	void startsAsSoonAsTheGameIsLoaded() throws Exception {
+		AtomicReference<Runnable> available = new AtomicReference<>();
+		doAnswer(invocation -> {
+			available.set(invocation.getArgument(1));
+			return null;
+		}).when(store).whenAvailable(eq("game1"), any());
+
+		start(1.0, false, 30_000);
+		await(() -> available.get() != null);
+
+		when(store.getTimeline("game1")).thenReturn(GameTimeline.empty("game1")
+				.merge(new int[]{300}, new String[]{"a"}, 1));
+		long published = System.nanoTime();
+		available.get().run();
+		await(() -> events().size() >= 1);
+		long startMillis = (System.nanoTime() - published) / 1_000_000;
+		await(() -> count("timeToFirstEvent") >= 1);
+		session.stop();
+
+		assertEquals(List.of("a"), events());
+		assertTrue(startMillis < 100, "first event took " + startMillis + " ms after the game loaded");
+		assertEquals(1, count("timeToFirstEvent"));
+	}
+
+	@Test
+	void aStoppedReplayStaysStoppedAfterTheSessionStartsAgain() throws Exception {
+		AtomicReference<Runnable> available = new AtomicReference<>();
+		doAnswer(invocation -> {
+			available.set(invocation.getArgument(1));
+			return null;
+		}).when(store).whenAvailable(eq("game1"), any());
+
+		start(1.0, false, 30_000);
+		await(() -> available.get() != null);
+		session.stop();
+		verify(store).cancelWhenAvailable("game1", available.get());
+
+		// 100 game-seconds at 500x is 200 ms
+		loaded(GameTimeline.empty("game1").merge(new int[]{300, 400}, new String[]{"a", "b"}, 2));
+		start(500.0, false, 1000);
+		await(() -> events().size() >= 1);
+		// The first replay's warm-up callback fires late, after the second has started
+		available.get().run();
+		await(() -> events().size() >= 2);
+		Thread.sleep(100);
+
+		assertEquals(List.of("a", "b"), events());
+	}
+
+	private void loaded(GameTimeline timeline) {
+		when(store.getTimeline("game1")).thenReturn(timeline);
+		when(store.isWarm()).thenReturn(true);
+	}
+
+	/** Starts a replay of game1 from 05:00. */
+	private PacedReplay start(double speed, boolean batchFraming, long warmupTimeoutMillis) {
+		session.markStarted("05:00", speed, null);
+		PacedReplay replay = new PacedReplay(session, "game1", 300, speed, batchFraming, replayService, store, pacer,
+				warmupTimeoutMillis);
+		replay.start();
+		return replay;
+	}
+
+	/** Event payloads sent one per frame; status and other JSON frames are left out. */
+	private List<String> events() {
+		return frames.stream().filter(frame -> !frame.startsWith("{")).toList();
+	}
+
+	private List<String> batches() {
+		return frames.stream().filter(frame -> frame.startsWith("{\"type\":\"batch\"")).toList();
+	}
+
+	/** Drift samples across every speed band. */
+	private long driftCount() {
+		Map<?, ?> drift = (Map<?, ?>) pacer.getPacingMetrics().get("drift");
+		return drift.values().stream().mapToLong(band -> (Long) ((Map<?, ?>) band).get("count")).sum();
+	}
+
+	private long count(String histogram) {
+		return (Long) ((Map<?, ?>) pacer.getPacingMetrics().get(histogram)).get("count");
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package ReplayService.ReplayService.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PartitionMergerTests {
+
+	private final List<Integer> emitted = new ArrayList<>();
+	private final PartitionMerger.Sink sink = (gameSeconds, payload, code) -> emitted.add(gameSeconds);
+
+	@Test
+	void waitsForLaggingPartitionsBeforeReleasing() {
+		PartitionMerger merger = new PartitionMerger(3, 100);
+		merger.add(2, 5, "w", 0, sink);
+		merger.drain(p -> true, sink);
+		merger.add(0, 10, "a", 0, sink);
+		merger.add(0, 30, "c", 0, sink);
+		merger.add(1, 20, "b", 0, sink);
+
+		// Partition 2 has delivered this game and still has unread records that may be earlier.
+		merger.drain(p -> p != 2, sink);
+		assertEquals(List.of(5), emitted);
+
+		merger.add(2, 25, "x", 0, sink);
+		merger.drain(p -> true, sink);
+		assertEquals(List.of(5, 10, 20, 25, 30), emitted);
+		assertEquals(0, merger.getBuffered());
+		assertEquals(4, merger.getMaxObservedBuffered());
+	}
+
+	@Test
+	void releasesUpToTheLowestWatermark() {
+		PartitionMerger merger = new PartitionMerger(2, 100);
+		merger.add(0, 10, "a", 0, sink);
+		merger.add(0, 40, "b", 0, sink);
+		merger.add(1, 20, "c", 0, sink);
+
+		// Partition 1 still has unread records; nothing after its watermark (20) is safe.
+		merger.drain(p -> p == 0, sink);
+		assertEquals(List.of(10, 20), emitted);
+		assertEquals(1, merger.getBuffered());
+	}
+
+	@Test
+	void aLaggingPartitionWithoutTheGameDoesNotHoldItBack() {
+		PartitionMerger merger = new PartitionMerger(3, 100);
+		merger.add(1, 10, "a", 0, sink);
+		merger.add(1, 20, "b", 0, sink);
+
+		// Partitions 0 and 2 are still being read, but have never carried this game.
+		merger.drain(p -> p == 1, sink);
+		assertEquals(List.of(10, 20), emitted);
+		assertEquals(0, merger.getBuffered());
+	}
+
+	@Test
+	void countsLateEventsAndBoundsTheBuffer() {
+		PartitionMerger merger = new PartitionMerger(2, 2);
+		merger.add(1, 5, "a", 0, sink);
+		merger.add(0, 10, "b", 0, sink);
+		merger.add(0, 20, "c", 0, sink);
+		merger.add(0, 30, "d", 0, sink);
+
+		// Partition 1 stalls at 5, but the buffer limit forces events out.
+		merger.drain(p -> false, sink);
+		assertEquals(List.of(5, 10), emitted);
+
+		merger.add(1, 7, "late", 0, sink);
+		assertEquals(List.of(5, 10, 7), emitted);
+		assertEquals(1, merger.getLateEvents());
+	}
+}
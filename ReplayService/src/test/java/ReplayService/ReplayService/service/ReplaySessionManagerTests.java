@@ -0,0 +1,68 @@
+package ReplayService.ReplayService.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplaySessionManagerTests {
+
+	private final ReplaySessionManager manager = new ReplaySessionManager(3, 1000, 1024, "conflate_status", 1);
+
+	@AfterEach
+	void tearDown() {
+		manager.shutdown();
+	}
+
+	@Test
+	void sessionsReplayIndependentlyUpToTheCap() {
+		List<ReplaySession> sessions = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			sessions.add(manager.register(mockSocket("s" + i)));
+		}
+
+		for (int i = 0; i < 3; i++) {
+			assertNull(manager.startReplay(sessions.get(i), "00:00", 1.0, () -> { }));
+		}
+		assertNotNull(manager.startReplay(sessions.get(3), "00:00", 1.0, () -> { }));
+		assertEquals(3, manager.getActiveReplayCount());
+		assertFalse(sessions.get(3).isReplaying());
+
+		// Stopping one session leaves the others running and frees a slot.
+		sessions.get(0).stop();
+		assertFalse(sessions.get(0).isReplaying());
+		assertTrue(sessions.get(1).isReplaying());
+		assertEquals(2, manager.getActiveReplayCount());
+		assertNull(manager.startReplay(sessions.get(3), "10:00", 2.0, () -> { }));
+
+		sessions.forEach(ReplaySession::stop);
+		assertEquals(0, manager.getActiveReplayCount());
+	}
+
+	@Test
+	void secondStartOnSameSessionIsRejected() {
+		ReplaySession session = manager.register(mockSocket("only"));
+
+		assertNull(manager.startReplay(session, "00:00", 1.0, () -> { }));
+		assertNotNull(manager.startReplay(session, "05:00", 1.0, () -> { }));
+		assertEquals(1, manager.getActiveReplayCount());
+
+		manager.unregister("only");
+		assertFalse(session.isReplaying());
+		assertNull(manager.getSession("only"));
+		assertEquals(0, manager.getActiveReplayCount());
+	}
+
+	private static WebSocketSession mockSocket(String id) {
+		WebSocketSession socket = mock(WebSocketSession.class);
+		when(socket.getId()).thenReturn(id);
+		when(socket.isOpen()).thenReturn(true);
+		return socket;
+	}
+}